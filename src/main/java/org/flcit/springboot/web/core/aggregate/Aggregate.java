@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.aggregate;
+
+/**
+ * Count, sum, minimum, maximum and average of the non null values of a column.
+ * <p>
+ * The sum, the minimum and the maximum are {@link Long} for the integral columns,
+ * {@link java.math.BigDecimal} for the {@link java.math.BigDecimal} and {@link java.math.BigInteger} columns,
+ * {@link Double} for the others.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public final class Aggregate {
+
+    private final long count;
+    private final Number sum;
+    private final Number min;
+    private final Number max;
+    private final Double average;
+
+    Aggregate(long count, Number sum, Number min, Number max, Double average) {
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+        this.average = average;
+    }
+
+    /**
+     * @return the number of non null values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the sum, 0 without value
+     */
+    public Number getSum() {
+        return sum;
+    }
+
+    /**
+     * @return the minimum, null without value
+     */
+    public Number getMin() {
+        return min;
+    }
+
+    /**
+     * @return the maximum, null without value
+     */
+    public Number getMax() {
+        return max;
+    }
+
+    /**
+     * @return the average, null without value
+     */
+    public Double getAverage() {
+        return average;
+    }
+
+    @Override
+    public String toString() {
+        return "Aggregate [count=" + count + ", sum=" + sum + ", min=" + min + ", max=" + max + ", average=" + average + "]";
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.aggregate;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+
+import org.flcit.springboot.web.core.exception.WrongAggregateColumnException;
+import org.flcit.springboot.web.core.util.PropertyAccessor;
+import org.flcit.springboot.web.core.util.PropertyAccessors;
+
+/**
+ * Numeric columns to aggregate, e.g. the footer of a table computed over all the filtered rows.
+ * <p>
+ * The specification is immutable and reusable, each evaluation uses a new {@link Aggregator}.
+ * The primitive getters are read without boxing, the {@link BigDecimal} and {@link BigInteger} columns are summed exactly.
+ * 
+ * @param <T>
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public final class AggregateSpecification<T> {
+
+    private final String[] properties;
+    private final PropertyAccessor[] accessors;
+    private final Kind[] kinds;
+
+    private AggregateSpecification(Class<T> type, String... properties) {
+        this.properties = properties.clone();
+        this.accessors = new PropertyAccessor[properties.length];
+        this.kinds = new Kind[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            this.accessors[i] = PropertyAccessors.of(type, properties[i]);
+            this.kinds[i] = this.accessors[i] != null ? Kind.of(this.accessors[i].getType()) : null;
+            if (this.kinds[i] == null) {
+                throw new WrongAggregateColumnException(properties[i]);
+            }
+        }
+    }
+
+    /**
+     * @param <T>
+     * @param type
+     * @param properties properties with a getter returning a primitive number or a {@link Number}
+     * @return
+     */
+    public static <T> AggregateSpecification<T> of(Class<T> type, String... properties) {
+        return new AggregateSpecification<>(type, properties);
+    }
+
+    /**
+     * @return a new empty aggregator
+     */
+    public Aggregator<T> aggregator() {
+        return new Aggregator<>(this);
+    }
+
+    /**
+     * Collector usable by a parallel stream, the aggregators of each thread are merged.
+     * @return
+     */
+    public Collector<T, Aggregator<T>, Map<String, Aggregate>> collector() {
+        return Collector.of(this::aggregator, Aggregator::accept, Aggregator::combine, Aggregator::getResult);
+    }
+
+    /**
+     * @param rows
+     * @return the aggregate of each column
+     */
+    public Map<String, Aggregate> aggregate(Iterable<? extends T> rows) {
+        return aggregate(rows, null, null);
+    }
+
+    /**
+     * Filter and aggregate the rows in one pass.
+     * @param rows
+     * @param filter all the rows when null, e.g. {@link org.flcit.springboot.web.core.filter.FilterPredicate}
+     * @param matching receives the rows matching the filter during the same pass, may be null
+     * @return the aggregate of each column over the rows matching the filter
+     */
+    public Map<String, Aggregate> aggregate(Iterable<? extends T> rows, Predicate<? super T> filter, Consumer<? super T> matching) {
+        final Aggregator<T> aggregator = aggregator();
+        for (T row : rows) {
+            if (row != null
+                    && (filter == null || filter.test(row))) {
+                aggregator.accept(row);
+                if (matching != null) {
+                    matching.accept(row);
+                }
+            }
+        }
+        return aggregator.getResult();
+    }
+
+    int size() {
+        return this.properties.length;
+    }
+
+    String getProperty(int index) {
+        return this.properties[index];
+    }
+
+    PropertyAccessor getAccessor(int index) {
+        return this.accessors[index];
+    }
+
+    Kind getKind(int index) {
+        return this.kinds[index];
+    }
+
+    enum Kind {
+
+        INT(true),
+        LONG(true),
+        INTEGRAL(true),
+        DOUBLE(false),
+        FLOATING(false),
+        DECIMAL(false);
+
+        private final boolean integral;
+
+        Kind(boolean integral) {
+            this.integral = integral;
+        }
+
+        boolean isIntegral() {
+            return integral;
+        }
+
+        static Kind of(Class<?> type) {
+            if (type == int.class || type == short.class || type == byte.class) {
+                return INT;
+            } else if (type == long.class) {
+                return LONG;
+            } else if (type == double.class || type == float.class) {
+                return DOUBLE;
+            } else if (type == Integer.class || type == Long.class || type == Short.class || type == Byte.class) {
+                return INTEGRAL;
+            } else if (type == BigDecimal.class || type == BigInteger.class) {
+                return DECIMAL;
+            } else if (Number.class.isAssignableFrom(type)) {
+                return FLOATING;
+            }
+            return null;
+        }
+
+    }
+
+}
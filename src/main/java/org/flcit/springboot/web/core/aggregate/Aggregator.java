@@ -0,0 +1,209 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.aggregate;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.flcit.springboot.web.core.aggregate.AggregateSpecification.Kind;
+import org.flcit.springboot.web.core.util.PropertyAccessor;
+
+/**
+ * Mutable accumulator of an {@link AggregateSpecification}, one primitive slot by column.
+ * <p>
+ * The sums of the floating columns are compensated (Kahan summation), as {@link java.util.DoubleSummaryStatistics}.
+ * The {@link BigDecimal} and {@link BigInteger} columns are summed in a {@link BigDecimal}, without rounding.
+ * Not thread safe: each thread uses its own aggregator, merged with {@link #combine(Aggregator)}.
+ * 
+ * @param <T>
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public final class Aggregator<T> implements Consumer<T> {
+
+    private final AggregateSpecification<T> specification;
+    private final long[] counts;
+    private final long[] longSums;
+    private final long[] longMins;
+    private final long[] longMaxs;
+    private final double[] doubleSums;
+    private final double[] compensations;
+    private final double[] simpleSums;
+    private final double[] doubleMins;
+    private final double[] doubleMaxs;
+    private final BigDecimal[] decimalSums;
+    private final BigDecimal[] decimalMins;
+    private final BigDecimal[] decimalMaxs;
+
+    Aggregator(AggregateSpecification<T> specification) {
+        this.specification = specification;
+        final int size = specification.size();
+        this.counts = new long[size];
+        this.longSums = new long[size];
+        this.longMins = new long[size];
+        this.longMaxs = new long[size];
+        this.doubleSums = new double[size];
+        this.compensations = new double[size];
+        this.simpleSums = new double[size];
+        this.doubleMins = new double[size];
+        this.doubleMaxs = new double[size];
+        this.decimalSums = new BigDecimal[size];
+        this.decimalMins = new BigDecimal[size];
+        this.decimalMaxs = new BigDecimal[size];
+        for (int i = 0; i < size; i++) {
+            this.longMins[i] = Long.MAX_VALUE;
+            this.longMaxs[i] = Long.MIN_VALUE;
+            this.doubleMins[i] = Double.POSITIVE_INFINITY;
+            this.doubleMaxs[i] = Double.NEGATIVE_INFINITY;
+            this.decimalSums[i] = BigDecimal.ZERO;
+        }
+    }
+
+    /**
+     * @param row
+     */
+    @Override
+    public void accept(T row) {
+        for (int i = 0; i < this.counts.length; i++) {
+            final PropertyAccessor accessor = this.specification.getAccessor(i);
+            switch (this.specification.getKind(i)) {
+            case INT:
+                addLong(i, accessor.getInt(row));
+                break;
+            case LONG:
+                addLong(i, accessor.getLong(row));
+                break;
+            case DOUBLE:
+                addDouble(i, accessor.getDouble(row));
+                break;
+            default:
+                final Number value = (Number) accessor.get(row);
+                if (value == null) {
+                    break;
+                }
+                if (this.specification.getKind(i).isIntegral()) {
+                    addLong(i, value.longValue());
+                } else if (this.specification.getKind(i) == Kind.DECIMAL) {
+                    addDecimal(i, value instanceof BigInteger integer ? new BigDecimal(integer) : (BigDecimal) value);
+                } else {
+                    addDouble(i, value.doubleValue());
+                }
+            }
+        }
+    }
+
+    private void addLong(int i, long value) {
+        this.counts[i]++;
+        this.longSums[i] += value;
+        this.longMins[i] = Math.min(this.longMins[i], value);
+        this.longMaxs[i] = Math.max(this.longMaxs[i], value);
+    }
+
+    private void addDouble(int i, double value) {
+        this.counts[i]++;
+        sumWithCompensation(i, value);
+        this.simpleSums[i] += value;
+        this.doubleMins[i] = Math.min(this.doubleMins[i], value);
+        this.doubleMaxs[i] = Math.max(this.doubleMaxs[i], value);
+    }
+
+    private void addDecimal(int i, BigDecimal value) {
+        this.counts[i]++;
+        this.decimalSums[i] = this.decimalSums[i].add(value);
+        this.decimalMins[i] = min(this.decimalMins[i], value);
+        this.decimalMaxs[i] = max(this.decimalMaxs[i], value);
+    }
+
+    private static BigDecimal min(BigDecimal current, BigDecimal value) {
+        return current == null || (value != null && value.compareTo(current) < 0) ? value : current;
+    }
+
+    private static BigDecimal max(BigDecimal current, BigDecimal value) {
+        return current == null || (value != null && value.compareTo(current) > 0) ? value : current;
+    }
+
+    private void sumWithCompensation(int i, double value) {
+        final double y = value - this.compensations[i];
+        final double sum = this.doubleSums[i];
+        final double t = sum + y;
+        this.compensations[i] = (t - sum) - y;
+        this.doubleSums[i] = t;
+    }
+
+    /**
+     * Merge the values of another aggregator of the same specification.
+     * @param other
+     * @return this aggregator
+     */
+    public Aggregator<T> combine(Aggregator<T> other) {
+        if (other.specification != this.specification) {
+            throw new IllegalArgumentException("AGGREGATORS OF DIFFERENT SPECIFICATIONS");
+        }
+        for (int i = 0; i < this.counts.length; i++) {
+            this.counts[i] += other.counts[i];
+            this.longSums[i] += other.longSums[i];
+            this.longMins[i] = Math.min(this.longMins[i], other.longMins[i]);
+            this.longMaxs[i] = Math.max(this.longMaxs[i], other.longMaxs[i]);
+            sumWithCompensation(i, other.doubleSums[i]);
+            sumWithCompensation(i, -other.compensations[i]);
+            this.simpleSums[i] += other.simpleSums[i];
+            this.doubleMins[i] = Math.min(this.doubleMins[i], other.doubleMins[i]);
+            this.doubleMaxs[i] = Math.max(this.doubleMaxs[i], other.doubleMaxs[i]);
+            this.decimalSums[i] = this.decimalSums[i].add(other.decimalSums[i]);
+            this.decimalMins[i] = min(this.decimalMins[i], other.decimalMins[i]);
+            this.decimalMaxs[i] = max(this.decimalMaxs[i], other.decimalMaxs[i]);
+        }
+        return this;
+    }
+
+    /**
+     * @return the aggregate of each column, in the order of the specification
+     */
+    public Map<String, Aggregate> getResult() {
+        final Map<String, Aggregate> result = new LinkedHashMap<>();
+        for (int i = 0; i < this.counts.length; i++) {
+            result.put(this.specification.getProperty(i), aggregate(i));
+        }
+        return result;
+    }
+
+    private Aggregate aggregate(int i) {
+        final long count = this.counts[i];
+        if (this.specification.getKind(i).isIntegral()) {
+            return count == 0 ? new Aggregate(0, 0L, null, null, null)
+                    : new Aggregate(count, this.longSums[i], this.longMins[i], this.longMaxs[i], (double) this.longSums[i] / count);
+        }
+        if (this.specification.getKind(i) == Kind.DECIMAL) {
+            return count == 0 ? new Aggregate(0, BigDecimal.ZERO, null, null, null)
+                    : new Aggregate(count, this.decimalSums[i], this.decimalMins[i], this.decimalMaxs[i],
+                            this.decimalSums[i].divide(BigDecimal.valueOf(count), MathContext.DECIMAL64).doubleValue());
+        }
+        final double sum = sum(i);
+        return count == 0 ? new Aggregate(0, 0d, null, null, null)
+                : new Aggregate(count, sum, this.doubleMins[i], this.doubleMaxs[i], sum / count);
+    }
+
+    private double sum(int i) {
+        final double sum = this.doubleSums[i] - this.compensations[i];
+        return Double.isNaN(sum) && Double.isInfinite(this.simpleSums[i]) ? this.simpleSums[i] : sum;
+    }
+
+}
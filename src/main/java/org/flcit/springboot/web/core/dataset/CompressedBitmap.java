@@ -0,0 +1,557 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.dataset;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non negative integers, in the manner of Roaring bitmaps.
+ * <p>
+ * The values are grouped by their 16 high bits; each group is stored as a sorted array
+ * up to {@value #ARRAY_MAX_SIZE} values, as a bitmap of 2^16 bits beyond.
+ * <p>
+ * Not thread safe.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public final class CompressedBitmap {
+
+    private static final int ARRAY_MAX_SIZE = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    /**
+     * 
+     */
+    public CompressedBitmap() {
+        this(new char[4], new Container[4], 0);
+    }
+
+    private CompressedBitmap(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    /**
+     * @param values
+     * @return
+     */
+    public static CompressedBitmap of(int... values) {
+        final CompressedBitmap bitmap = new CompressedBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    /**
+     * @param value not negative
+     */
+    public void add(int value) {
+        checkValue(value);
+        final char key = high(value);
+        int index = indexOf(key);
+        if (index < 0) {
+            index = -index - 1;
+            insert(index, key, new ArrayContainer());
+        }
+        this.containers[index] = this.containers[index].add(low(value));
+    }
+
+    /**
+     * @param value
+     */
+    public void remove(int value) {
+        if (value < 0) {
+            return;
+        }
+        final int index = indexOf(high(value));
+        if (index >= 0) {
+            final Container container = this.containers[index].remove(low(value));
+            if (container.cardinality() == 0) {
+                delete(index);
+            } else {
+                this.containers[index] = container;
+            }
+        }
+    }
+
+    /**
+     * 
+     */
+    public void clear() {
+        Arrays.fill(this.containers, 0, this.size, null);
+        this.size = 0;
+    }
+
+    /**
+     * @param value
+     * @return
+     */
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        final int index = indexOf(high(value));
+        return index >= 0 && this.containers[index].contains(low(value));
+    }
+
+    /**
+     * @return number of values
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < this.size; i++) {
+            cardinality += this.containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * @return
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @param consumer called for each value in ascending order
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < this.size; i++) {
+            this.containers[i].forEach(this.keys[i] << 16, consumer);
+        }
+    }
+
+    /**
+     * @return the values in ascending order
+     */
+    public int[] toArray() {
+        final int[] values = new int[cardinality()];
+        final int[] position = new int[1];
+        forEach(value -> values[position[0]++] = value);
+        return values;
+    }
+
+    /**
+     * @return
+     */
+    public CompressedBitmap copy() {
+        final Container[] copy = new Container[this.containers.length];
+        for (int i = 0; i < this.size; i++) {
+            copy[i] = this.containers[i].copy();
+        }
+        return new CompressedBitmap(this.keys.clone(), copy, this.size);
+    }
+
+    /**
+     * @param other
+     * @return a new bitmap with the values present in both bitmaps
+     */
+    public CompressedBitmap and(CompressedBitmap other) {
+        final CompressedBitmap result = new CompressedBitmap(new char[Math.min(this.size, other.size) + 1], new Container[Math.min(this.size, other.size) + 1], 0);
+        int i = 0;
+        int j = 0;
+        while (i < this.size && j < other.size) {
+            if (this.keys[i] < other.keys[j]) {
+                i++;
+            } else if (this.keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.append(this.keys[i], this.containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param other
+     * @return a new bitmap with the values of either bitmap
+     */
+    public CompressedBitmap or(CompressedBitmap other) {
+        final CompressedBitmap result = new CompressedBitmap(new char[this.size + other.size + 1], new Container[this.size + other.size + 1], 0);
+        int i = 0;
+        int j = 0;
+        while (i < this.size || j < other.size) {
+            if (j >= other.size || (i < this.size && this.keys[i] < other.keys[j])) {
+                result.append(this.keys[i], this.containers[i].copy());
+                i++;
+            } else if (i >= this.size || this.keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.append(this.keys[i], this.containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param other
+     * @return a new bitmap with the values of this bitmap not in the other
+     */
+    public CompressedBitmap andNot(CompressedBitmap other) {
+        final CompressedBitmap result = new CompressedBitmap(new char[this.size + 1], new Container[this.size + 1], 0);
+        int j = 0;
+        for (int i = 0; i < this.size; i++) {
+            while (j < other.size && other.keys[j] < this.keys[i]) {
+                j++;
+            }
+            if (j < other.size && other.keys[j] == this.keys[i]) {
+                result.append(this.keys[i], this.containers[i].andNot(other.containers[j]));
+            } else {
+                result.append(this.keys[i], this.containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    private void append(char key, Container container) {
+        if (container.cardinality() > 0) {
+            this.keys[this.size] = key;
+            this.containers[this.size++] = container;
+        }
+    }
+
+    private void insert(int index, char key, Container container) {
+        if (this.size == this.keys.length) {
+            this.keys = Arrays.copyOf(this.keys, this.size * 2 + 1);
+            this.containers = Arrays.copyOf(this.containers, this.size * 2 + 1);
+        }
+        System.arraycopy(this.keys, index, this.keys, index + 1, this.size - index);
+        System.arraycopy(this.containers, index, this.containers, index + 1, this.size - index);
+        this.keys[index] = key;
+        this.containers[index] = container;
+        this.size++;
+    }
+
+    private void delete(int index) {
+        System.arraycopy(this.keys, index + 1, this.keys, index, this.size - index - 1);
+        System.arraycopy(this.containers, index + 1, this.containers, index, this.size - index - 1);
+        this.containers[--this.size] = null;
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(this.keys, 0, this.size, key);
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value must not be negative");
+        }
+    }
+
+    private static char high(int value) {
+        return (char) (value >>> 16);
+    }
+
+    private static char low(int value) {
+        return (char) value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final CompressedBitmap other = (CompressedBitmap) obj;
+        return Arrays.equals(toArray(), other.toArray());
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private abstract static class Container {
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract void forEach(int high, IntConsumer consumer);
+
+        abstract Container copy();
+
+        abstract BitmapContainer toBitmap();
+
+        Container and(Container other) {
+            if (this instanceof ArrayContainer array) {
+                return array.filter(other, true);
+            } else if (other instanceof ArrayContainer array) {
+                return array.filter(this, true);
+            }
+            return ((BitmapContainer) this).combine((BitmapContainer) other, Operation.AND);
+        }
+
+        Container or(Container other) {
+            if (this instanceof ArrayContainer array
+                    && other instanceof ArrayContainer otherArray
+                    && array.cardinality + otherArray.cardinality <= ARRAY_MAX_SIZE) {
+                return array.union(otherArray);
+            }
+            return toBitmap().combine(other.toBitmap(), Operation.OR);
+        }
+
+        Container andNot(Container other) {
+            if (this instanceof ArrayContainer array) {
+                return array.filter(other, false);
+            }
+            return ((BitmapContainer) this).combine(other.toBitmap(), Operation.AND_NOT);
+        }
+
+    }
+
+    private enum Operation {
+        AND, OR, AND_NOT
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(this.values, 0, this.cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (this.cardinality == ARRAY_MAX_SIZE) {
+                return toBitmap().add(value);
+            }
+            index = -index - 1;
+            if (this.cardinality == this.values.length) {
+                this.values = Arrays.copyOf(this.values, Math.min(ARRAY_MAX_SIZE, this.cardinality * 2));
+            }
+            System.arraycopy(this.values, index, this.values, index + 1, this.cardinality - index);
+            this.values[index] = value;
+            this.cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            final int index = Arrays.binarySearch(this.values, 0, this.cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(this.values, index + 1, this.values, index, this.cardinality - index - 1);
+                this.cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(this.values, 0, this.cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return this.cardinality;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer consumer) {
+            for (int i = 0; i < this.cardinality; i++) {
+                consumer.accept(high | this.values[i]);
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(this.values, Math.max(1, this.cardinality)), this.cardinality);
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            final BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < this.cardinality; i++) {
+                bitmap.set(this.values[i]);
+            }
+            return bitmap;
+        }
+
+        /**
+         * @return the values contained, or not contained, by the other container
+         */
+        ArrayContainer filter(Container other, boolean contained) {
+            final char[] result = new char[Math.max(1, this.cardinality)];
+            int count = 0;
+            for (int i = 0; i < this.cardinality; i++) {
+                if (other.contains(this.values[i]) == contained) {
+                    result[count++] = this.values[i];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        ArrayContainer union(ArrayContainer other) {
+            final char[] result = new char[Math.max(1, this.cardinality + other.cardinality)];
+            int i = 0;
+            int j = 0;
+            int count = 0;
+            while (i < this.cardinality || j < other.cardinality) {
+                if (j >= other.cardinality || (i < this.cardinality && this.values[i] < other.values[j])) {
+                    result[count++] = this.values[i++];
+                } else if (i >= this.cardinality || this.values[i] > other.values[j]) {
+                    result[count++] = other.values[j++];
+                } else {
+                    result[count++] = this.values[i++];
+                    j++;
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer() {
+            this(new long[BITMAP_WORDS], 0);
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        void set(char value) {
+            final long mask = 1L << value;
+            final int index = value >>> 6;
+            if ((this.words[index] & mask) == 0) {
+                this.words[index] |= mask;
+                this.cardinality++;
+            }
+        }
+
+        @Override
+        Container add(char value) {
+            set(value);
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            final long mask = 1L << value;
+            final int index = value >>> 6;
+            if ((this.words[index] & mask) != 0) {
+                this.words[index] &= ~mask;
+                this.cardinality--;
+            }
+            return this.cardinality <= ARRAY_MAX_SIZE ? toArray() : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (this.words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return this.cardinality;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer consumer) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = this.words[i];
+                while (word != 0) {
+                    consumer.accept(high | (i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(this.words.clone(), this.cardinality);
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            return this;
+        }
+
+        private ArrayContainer toArray() {
+            final char[] values = new char[Math.max(1, this.cardinality)];
+            final int[] count = new int[1];
+            forEach(0, value -> values[count[0]++] = (char) value);
+            return new ArrayContainer(values, this.cardinality);
+        }
+
+        Container combine(BitmapContainer other, Operation operation) {
+            final long[] result = new long[BITMAP_WORDS];
+            int cardinality = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                switch (operation) {
+                case AND:
+                    result[i] = this.words[i] & other.words[i];
+                    break;
+                case OR:
+                    result[i] = this.words[i] | other.words[i];
+                    break;
+                default:
+                    result[i] = this.words[i] & ~other.words[i];
+                    break;
+                }
+                cardinality += Long.bitCount(result[i]);
+            }
+            final BitmapContainer bitmap = new BitmapContainer(result, cardinality);
+            return cardinality <= ARRAY_MAX_SIZE ? bitmap.toArray() : bitmap;
+        }
+
+    }
+
+}
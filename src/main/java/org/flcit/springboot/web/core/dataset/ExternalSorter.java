@@ -0,0 +1,335 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.dataset;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.util.CloseableIterator;
+import org.flcit.springboot.web.core.util.PageableUtils;
+
+/**
+ * External merge sort of rows which do not fit in memory, e.g. the export of a full dataset.
+ * <p>
+ * The rows are read by runs of at most {@code maxRowsInMemory} rows, each run is sorted
+ * and written to a temporary file with the {@link RowCodec}, then the runs are merged
+ * in a {@link CloseableIterator} which reads one row per run at a time.
+ * The rows of a single run are never written to disk.
+ * The merge is stable: equal rows keep the order of the input.
+ * 
+ * @param <T>
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class ExternalSorter<T> {
+
+    private static final int DEFAULT_MAX_RUNS = 64;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Comparator<? super T> comparator;
+    private final Consumer<List<T>> runSorter;
+    private final RowCodec<T> codec;
+    private final int maxRowsInMemory;
+    private final int maxRuns;
+    private final Path directory;
+
+    /**
+     * @param comparator
+     * @param codec
+     * @param maxRowsInMemory
+     */
+    public ExternalSorter(Comparator<? super T> comparator, RowCodec<T> codec, int maxRowsInMemory) {
+        this(comparator, codec, maxRowsInMemory, DEFAULT_MAX_RUNS, null);
+    }
+
+    /**
+     * @param comparator
+     * @param codec
+     * @param maxRowsInMemory number of rows sorted in memory by run
+     * @param maxRuns number of files merged at once, the runs are merged by several passes above
+     * @param directory directory of the temporary files, default temporary directory when null
+     */
+    public ExternalSorter(Comparator<? super T> comparator, RowCodec<T> codec, int maxRowsInMemory, int maxRuns, Path directory) {
+        this(comparator, run -> run.sort(comparator), codec, maxRowsInMemory, maxRuns, directory);
+    }
+
+    private ExternalSorter(Comparator<? super T> comparator, Consumer<List<T>> runSorter, RowCodec<T> codec, int maxRowsInMemory, int maxRuns, Path directory) {
+        if (maxRowsInMemory < 1 || maxRuns < 2) {
+            throw new IllegalArgumentException("MAX ROWS IN MEMORY MUST BE POSITIVE AND MAX RUNS GREATER THAN 1");
+        }
+        this.comparator = comparator;
+        this.runSorter = runSorter;
+        this.codec = codec;
+        this.maxRowsInMemory = maxRowsInMemory;
+        this.maxRuns = maxRuns;
+        this.directory = directory;
+    }
+
+    /**
+     * Sorter of the orders of the sort, with the comparison rules of {@link PageableUtils#comparator(Sort, Class, Map, Locale)}.
+     * The runs are sorted by {@link PageableUtils#sort(List, Sort, Class, Map, Locale)}, computing the collation keys once per row.
+     * @param <T>
+     * @param sort
+     * @param clazz
+     * @param customComparators
+     * @param codec
+     * @param maxRowsInMemory
+     * @return
+     */
+    public static <T> ExternalSorter<T> of(Sort sort, Class<T> clazz, Map<String, Comparator<T>> customComparators, RowCodec<T> codec, int maxRowsInMemory) {
+        return new ExternalSorter<>(PageableUtils.comparator(sort, clazz, customComparators, null),
+                run -> PageableUtils.sort(run, sort, clazz, customComparators, null), codec, maxRowsInMemory, DEFAULT_MAX_RUNS, null);
+    }
+
+    /**
+     * @param rows
+     * @return the sorted rows, to close to delete the temporary files
+     * @throws IOException
+     */
+    public CloseableIterator<T> sort(Stream<? extends T> rows) throws IOException {
+        return sort(rows.iterator());
+    }
+
+    /**
+     * @param rows
+     * @return the sorted rows, to close to delete the temporary files
+     * @throws IOException
+     */
+    public CloseableIterator<T> sort(Iterator<? extends T> rows) throws IOException {
+        final List<Path> runs = new ArrayList<>();
+        try {
+            List<T> run = nextRun(rows);
+            if (!rows.hasNext()) {
+                return new ListIterator<>(run);
+            }
+            while (!run.isEmpty()) {
+                runs.add(writeRun(run));
+                run = nextRun(rows);
+            }
+            return merge(runs);
+        } catch (IOException | RuntimeException e) {
+            delete(runs);
+            throw e;
+        }
+    }
+
+    private List<T> nextRun(Iterator<? extends T> rows) {
+        final List<T> run = new ArrayList<>(maxRowsInMemory);
+        while (run.size() < maxRowsInMemory && rows.hasNext()) {
+            run.add(rows.next());
+        }
+        runSorter.accept(run);
+        return run;
+    }
+
+    private Path writeRun(List<T> run) throws IOException {
+        final Path file = createTempFile();
+        try (DataOutputStream out = output(file)) {
+            out.writeInt(run.size());
+            for (T row : run) {
+                codec.write(out, row);
+            }
+        }
+        return file;
+    }
+
+    private CloseableIterator<T> merge(List<Path> runs) throws IOException {
+        List<Path> files = runs;
+        while (files.size() > maxRuns) {
+            final List<Path> merged = new ArrayList<>(files.size() / maxRuns + 1);
+            try {
+                for (int i = 0; i < files.size(); i += maxRuns) {
+                    merged.add(mergeToFile(files.subList(i, Math.min(i + maxRuns, files.size()))));
+                }
+            } catch (IOException | RuntimeException e) {
+                delete(merged);
+                delete(files);
+                throw e;
+            }
+            files = merged;
+        }
+        return new MergeIterator(files);
+    }
+
+    private Path mergeToFile(List<Path> runs) throws IOException {
+        final Path file = createTempFile();
+        try (MergeIterator iterator = new MergeIterator(runs);
+                DataOutputStream out = output(file)) {
+            out.writeInt(iterator.remaining);
+            while (iterator.hasNext()) {
+                codec.write(out, iterator.next());
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    private Path createTempFile() throws IOException {
+        return directory != null ? Files.createTempFile(directory, "sort", ".run") : Files.createTempFile("sort", ".run");
+    }
+
+    private static DataOutputStream output(Path file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+    }
+
+    private static void delete(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    private static final class ListIterator<T> implements CloseableIterator<T> {
+
+        private final Iterator<T> iterator;
+
+        ListIterator(List<T> rows) {
+            this.iterator = rows.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void close() {
+            // NOTHING TO RELEASE
+        }
+
+    }
+
+    private final class Run {
+
+        private final int index;
+        private final DataInputStream in;
+        private int remaining;
+        private T head;
+
+        Run(int index, Path file) throws IOException {
+            this.index = index;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+            this.remaining = in.readInt();
+        }
+
+        boolean advance() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            head = codec.read(in);
+            return true;
+        }
+
+    }
+
+    private final class MergeIterator implements CloseableIterator<T> {
+
+        private final List<Path> files;
+        private final List<Run> runs;
+        private final PriorityQueue<Run> queue;
+        private int remaining;
+
+        MergeIterator(List<Path> files) throws IOException {
+            this.files = files;
+            this.runs = new ArrayList<>(files.size());
+            this.queue = new PriorityQueue<>(Math.max(1, files.size()), (r1, r2) -> {
+                final int compare = comparator.compare(r1.head, r2.head);
+                return compare != 0 ? compare : Integer.compare(r1.index, r2.index);
+            });
+            try {
+                for (Path file : files) {
+                    final Run run = new Run(runs.size(), file);
+                    runs.add(run);
+                    remaining += run.remaining;
+                    if (run.advance()) {
+                        queue.add(run);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            final Run run = queue.poll();
+            if (run == null) {
+                throw new NoSuchElementException();
+            }
+            final T row = run.head;
+            remaining--;
+            try {
+                if (run.advance()) {
+                    queue.add(run);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return row;
+        }
+
+        @Override
+        public void close() {
+            for (Run run : runs) {
+                try {
+                    run.in.close();
+                } catch (IOException e) {
+                    // FILE DELETED BELOW
+                }
+            }
+            runs.clear();
+            queue.clear();
+            delete(files);
+        }
+
+    }
+
+}
@@ -0,0 +1,678 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.dataset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.NullHandling;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.util.Assert;
+import org.flcit.springboot.web.core.domain.CollatedOrder;
+import org.flcit.springboot.web.core.exception.WrongFilterColumnException;
+import org.flcit.springboot.web.core.exception.WrongOrderColumnException;
+import org.flcit.springboot.web.core.filter.FacetCounter;
+import org.flcit.springboot.web.core.filter.FilterCriteria;
+import org.flcit.springboot.web.core.filter.FilterCriterion;
+import org.flcit.springboot.web.core.filter.FilterOperator;
+import org.flcit.springboot.web.core.filter.FilterPredicate;
+import org.flcit.springboot.web.core.util.PageableUtils;
+import org.flcit.springboot.web.core.util.PropertyAccessor;
+import org.flcit.springboot.web.core.util.PropertyAccessors;
+
+/**
+ * In memory rows identified by a key, with a sorted index for each property declared at the creation.
+ * <p>
+ * The indexes are updated by {@link #put(Object)} and {@link #remove(Object)},
+ * a page sorted by an indexed property is read from the index in O(log n + page size),
+ * the other pages (including case insensitive and {@link CollatedOrder} on text) are sorted with {@link PageableUtils#sort(Pageable, List, Class, Map)}.
+ * <p>
+ * The filters are evaluated with {@link FilterPredicate}, after the selection of the candidate rows
+ * by the bitmap indexes declared with {@link #bitmapIndex(String...)}.
+ * The order of the rows is the same as {@link PageableUtils#sort(Pageable, List, Class, Map)}:
+ * equal values are in order of insertion in both directions, and the custom comparators ignore the direction.
+ * <p>
+ * A row must not be modified once added: put a new instance instead.
+ * 
+ * @param <I> type of the key
+ * @param <T> type of the rows
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class IndexedDataset<I, T> {
+
+    private static final CompressedBitmap EMPTY = new CompressedBitmap();
+    private static final Comparator<Row<?>> BY_SEQUENCE = (r1, r2) -> Long.compare(r1.sequence, r2.sequence);
+
+    private final Class<T> type;
+    private final Function<? super T, ? extends I> idExtractor;
+    private final Map<I, Row<T>> rows = new HashMap<>();
+    private final OrderStatisticTree<Row<T>> insertionOrder = new OrderStatisticTree<>(BY_SEQUENCE);
+    private final Map<String, PropertyIndex<T>> indexes = new HashMap<>();
+    private final Map<String, Comparator<T>> customComparators;
+    private final Map<String, BitmapIndex<T>> bitmapIndexes = new HashMap<>();
+    private final List<Row<T>> slots = new ArrayList<>();
+    private final CompressedBitmap usedSlots = new CompressedBitmap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+    private long sequence;
+
+    /**
+     * @param type
+     * @param idExtractor
+     * @param indexedProperties properties with a getter returning a {@link String}, an enum or a {@link Comparable}
+     */
+    public IndexedDataset(Class<T> type, Function<? super T, ? extends I> idExtractor, String... indexedProperties) {
+        this(type, idExtractor, null, indexedProperties);
+    }
+
+    /**
+     * @param type
+     * @param idExtractor
+     * @param customComparators indexes of custom sort names, same as {@link PageableUtils#sort(Pageable, List, Class, Map)}
+     * @param indexedProperties properties with a getter returning a {@link String}, an enum or a {@link Comparable}
+     */
+    public IndexedDataset(Class<T> type, Function<? super T, ? extends I> idExtractor, Map<String, Comparator<T>> customComparators, String... indexedProperties) {
+        Assert.notNull(type, "type must not be null");
+        Assert.notNull(idExtractor, "idExtractor must not be null");
+        this.type = type;
+        this.idExtractor = idExtractor;
+        this.customComparators = customComparators;
+        if (customComparators != null) {
+            customComparators.forEach((name, comparator) -> this.indexes.put(name, new PropertyIndex<>(comparator)));
+        }
+        for (String property : indexedProperties) {
+            this.indexes.put(property, new PropertyIndex<>(type, property));
+        }
+    }
+
+    /**
+     * Add a bitmap index, resolving the filters {@link FilterOperator#EQUAL}, {@link FilterOperator#IN}
+     * and {@link FilterOperator#IS_NULL} of the property without reading the rows.
+     * @param properties properties with a getter returning an enum or a boolean
+     * @return this dataset
+     */
+    public IndexedDataset<I, T> bitmapIndex(String... properties) {
+        this.lock.writeLock().lock();
+        try {
+            for (String property : properties) {
+                final BitmapIndex<T> index = new BitmapIndex<>(this.type, property);
+                for (Row<T> row : this.rows.values()) {
+                    index.add(row);
+                }
+                this.bitmapIndexes.put(property, index);
+            }
+            return this;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add the row, or replace the row with the same key.
+     * @param value
+     * @return the replaced row
+     */
+    public T put(T value) {
+        this.lock.writeLock().lock();
+        try {
+            return add(value);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param values
+     */
+    public void putAll(Collection<? extends T> values) {
+        this.lock.writeLock().lock();
+        try {
+            for (T value : values) {
+                add(value);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private T add(T value) {
+        Assert.notNull(value, "value must not be null");
+        final I id = this.idExtractor.apply(value);
+        final Row<T> previous = this.rows.get(id);
+        final Row<T> row = previous != null
+                ? new Row<>(value, previous.sequence, previous.slot)
+                : new Row<>(value, this.sequence++, allocateSlot());
+        if (previous != null) {
+            unindex(previous);
+        }
+        this.rows.put(id, row);
+        this.slots.set(row.slot, row);
+        this.usedSlots.add(row.slot);
+        this.insertionOrder.add(row);
+        for (PropertyIndex<T> index : this.indexes.values()) {
+            index.add(row);
+        }
+        for (BitmapIndex<T> index : this.bitmapIndexes.values()) {
+            index.add(row);
+        }
+        return previous != null ? previous.value : null;
+    }
+
+    private int allocateSlot() {
+        if (this.freeSlotCount > 0) {
+            return this.freeSlots[--this.freeSlotCount];
+        }
+        this.slots.add(null);
+        return this.slots.size() - 1;
+    }
+
+    private void releaseSlot(int slot) {
+        this.slots.set(slot, null);
+        this.usedSlots.remove(slot);
+        if (this.freeSlotCount == this.freeSlots.length) {
+            this.freeSlots = Arrays.copyOf(this.freeSlots, this.freeSlotCount * 2);
+        }
+        this.freeSlots[this.freeSlotCount++] = slot;
+    }
+
+    /**
+     * @param id
+     * @return the removed row
+     */
+    public T remove(I id) {
+        this.lock.writeLock().lock();
+        try {
+            final Row<T> row = this.rows.remove(id);
+            if (row == null) {
+                return null;
+            }
+            unindex(row);
+            releaseSlot(row.slot);
+            return row.value;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void unindex(Row<T> row) {
+        this.insertionOrder.remove(row);
+        for (PropertyIndex<T> index : this.indexes.values()) {
+            index.remove(row);
+        }
+        for (BitmapIndex<T> index : this.bitmapIndexes.values()) {
+            index.remove(row);
+        }
+    }
+
+    /**
+     * 
+     */
+    public void clear() {
+        this.lock.writeLock().lock();
+        try {
+            this.rows.clear();
+            this.insertionOrder.clear();
+            this.slots.clear();
+            this.freeSlotCount = 0;
+            this.usedSlots.clear();
+            for (PropertyIndex<T> index : this.indexes.values()) {
+                index.clear();
+            }
+            for (BitmapIndex<T> index : this.bitmapIndexes.values()) {
+                index.clear();
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param id
+     * @return
+     */
+    public T get(I id) {
+        this.lock.readLock().lock();
+        try {
+            final Row<T> row = this.rows.get(id);
+            return row != null ? row.value : null;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return
+     */
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.rows.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the rows in order of insertion
+     */
+    public List<T> values() {
+        this.lock.readLock().lock();
+        try {
+            return collect(this.insertionOrder, 0, this.rows.size(), false, new ArrayList<>(this.rows.size()));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param property
+     * @return
+     */
+    public boolean isIndexed(String property) {
+        return this.indexes.containsKey(property);
+    }
+
+    /**
+     * @param pageable sorted by the first order, as {@link PageableUtils#sort(Pageable, List, Class, Map)}
+     * @return
+     */
+    public Page<T> page(Pageable pageable) {
+        this.lock.readLock().lock();
+        try {
+            if (pageable == null
+                    || pageable.isUnpaged()) {
+                final List<T> list = values();
+                return new PageImpl<>(pageable != null ? PageableUtils.sort(pageable, list, this.type, this.customComparators) : list);
+            }
+            final int offset = (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE);
+            final List<T> content = new ArrayList<>(Math.min(pageable.getPageSize(), Math.max(0, this.rows.size() - offset)));
+            if (pageable.getSort().isUnsorted()) {
+                collect(this.insertionOrder, offset, pageable.getPageSize(), false, content);
+                return new PageImpl<>(content, pageable, this.rows.size());
+            }
+            final Order order = pageable.getSort().toList().get(0);
+            final PropertyIndex<T> index = this.indexes.get(order.getProperty());
+            if (index == null
+                    || !index.supports(order)) {
+                final List<T> list = PageableUtils.sort(pageable, values(), this.type, this.customComparators);
+                return PageableUtils.page(list, pageable);
+            }
+            index.collect(offset, pageable.getPageSize(), order.getDirection(), order.getNullHandling(), content);
+            return new PageImpl<>(content, pageable, this.rows.size());
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param filter filter object, see {@link FilterCriteria}
+     * @param propertiesToExclude
+     * @return the rows matching the filter, in order of insertion
+     */
+    public List<T> filter(Object filter, String... propertiesToExclude) {
+        this.lock.readLock().lock();
+        try {
+            return select(FilterCriteria.of(filter, propertiesToExclude));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param filter filter object, see {@link FilterCriteria}
+     * @param pageable
+     * @param propertiesToExclude
+     * @return the page of the rows matching the filter
+     */
+    public Page<T> page(Object filter, Pageable pageable, String... propertiesToExclude) {
+        final List<FilterCriterion> criteria = FilterCriteria.of(filter, propertiesToExclude);
+        if (criteria.isEmpty()) {
+            return page(pageable);
+        }
+        final List<T> list;
+        this.lock.readLock().lock();
+        try {
+            list = select(criteria);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        if (pageable == null
+                || pageable.isUnpaged()) {
+            return new PageImpl<>(pageable != null ? PageableUtils.sort(pageable, list, this.type, this.customComparators) : list);
+        }
+        return PageableUtils.page(PageableUtils.sort(pageable, list, this.type, this.customComparators), pageable);
+    }
+
+    /**
+     * Count of the values of the facets under the filter, see {@link FacetCounter}.
+     * The counts are computed from the bitmap indexes when all the facets and all the criteria are resolved by them,
+     * in one pass over the rows otherwise.
+     * @param filter filter object, see {@link FilterCriteria}
+     * @param facets properties to count
+     * @return the count of each value by facet, the most frequent value first
+     */
+    public Map<String, Map<Object, Long>> facets(Object filter, String... facets) {
+        final List<FilterCriterion> criteria = FilterCriteria.of(filter);
+        this.lock.readLock().lock();
+        try {
+            final Map<String, Map<Object, Long>> result = bitmapFacets(criteria, facets);
+            return result != null ? result : FacetCounter.of(criteria, this.type, facets).count(values());
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the counts, null if a facet or a criterion is not resolved by a bitmap index
+     */
+    private Map<String, Map<Object, Long>> bitmapFacets(List<FilterCriterion> criteria, String... facets) {
+        for (String facet : facets) {
+            if (!this.bitmapIndexes.containsKey(facet)) {
+                return null;
+            }
+        }
+        final List<CompressedBitmap> bitmaps = new ArrayList<>(criteria.size());
+        for (FilterCriterion criterion : criteria) {
+            final BitmapIndex<T> index = this.bitmapIndexes.get(criterion.getProperty());
+            final CompressedBitmap bitmap = index != null ? index.resolve(criterion, this.usedSlots) : null;
+            if (bitmap == null) {
+                return null;
+            }
+            bitmaps.add(bitmap);
+        }
+        final Map<String, Map<Object, Long>> result = new LinkedHashMap<>();
+        for (String facet : facets) {
+            CompressedBitmap candidates = this.usedSlots;
+            for (int i = 0; i < criteria.size(); i++) {
+                if (!criteria.get(i).getProperty().equals(facet)) {
+                    candidates = candidates.and(bitmaps.get(i));
+                }
+            }
+            final List<Map.Entry<Object, Long>> counts = new ArrayList<>();
+            for (Map.Entry<Object, CompressedBitmap> entry : this.bitmapIndexes.get(facet).bitmaps.entrySet()) {
+                final int count = entry.getKey() != null ? candidates.and(entry.getValue()).cardinality() : 0;
+                if (count > 0) {
+                    counts.add(Map.entry(entry.getKey(), (long) count));
+                }
+            }
+            counts.sort(FacetCounter.FACET_ORDER);
+            final Map<Object, Long> facetCounts = new LinkedHashMap<>();
+            counts.forEach(entry -> facetCounts.put(entry.getKey(), entry.getValue()));
+            result.put(facet, facetCounts);
+        }
+        return result;
+    }
+
+    /**
+     * The criteria resolved by the bitmap indexes select the candidate rows,
+     * the other criteria are evaluated only on the candidates.
+     */
+    private List<T> select(List<FilterCriterion> criteria) {
+        CompressedBitmap candidates = null;
+        final List<FilterCriterion> remaining = new ArrayList<>(criteria.size());
+        for (FilterCriterion criterion : criteria) {
+            final BitmapIndex<T> index = this.bitmapIndexes.get(criterion.getProperty());
+            final CompressedBitmap bitmap = index != null ? index.resolve(criterion, this.usedSlots) : null;
+            if (bitmap == null) {
+                remaining.add(criterion);
+            } else {
+                candidates = candidates == null ? bitmap : candidates.and(bitmap);
+            }
+        }
+        final FilterPredicate<T> predicate = FilterPredicate.of(remaining, this.type);
+        final List<T> result = new ArrayList<>();
+        if (candidates == null) {
+            for (T value : values()) {
+                if (predicate.test(value)) {
+                    result.add(value);
+                }
+            }
+            return result;
+        }
+        final List<Row<T>> rows = new ArrayList<>(candidates.cardinality());
+        candidates.forEach(slot -> rows.add(this.slots.get(slot)));
+        rows.sort(BY_SEQUENCE);
+        for (Row<T> row : rows) {
+            if (predicate.test(row.value)) {
+                result.add(row.value);
+            }
+        }
+        return result;
+    }
+
+    private static <T> List<T> collect(OrderStatisticTree<Row<T>> tree, int from, int count, boolean descending, List<T> target) {
+        final List<Row<T>> rows = new ArrayList<>(Math.min(count, tree.size()));
+        tree.collect(from, count, descending, rows);
+        for (Row<T> row : rows) {
+            target.add(row.value);
+        }
+        return target;
+    }
+
+    private static final class Row<T> {
+
+        private final T value;
+        private final long sequence;
+        private final int slot;
+
+        Row(T value, long sequence, int slot) {
+            this.value = value;
+            this.sequence = sequence;
+            this.slot = slot;
+        }
+
+    }
+
+    private static final class PropertyIndex<T> {
+
+        private final Function<T, Object> key;
+        private final boolean caseSensitive;
+        private final boolean custom;
+        private final Comparator<Row<T>> byKey;
+        private final OrderStatisticTree<Row<T>> values;
+        private final OrderStatisticTree<Row<T>> nulls;
+
+        PropertyIndex(Comparator<T> comparator) {
+            this.key = value -> value;
+            this.caseSensitive = false;
+            this.custom = true;
+            this.byKey = (r1, r2) -> comparator.compare(r1.value, r2.value);
+            this.values = new OrderStatisticTree<>(this.byKey.thenComparing(BY_SEQUENCE));
+            this.nulls = new OrderStatisticTree<>(BY_SEQUENCE);
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        PropertyIndex(Class<T> type, String property) {
+            if (PageableUtils.getCompareMethod(property, type) == null) {
+                throw new WrongOrderColumnException(property);
+            }
+            final PropertyAccessor accessor = PropertyAccessors.of(type, property);
+            if (accessor.getType().isEnum()) {
+                this.key = value -> {
+                    final Object key = accessor.get(value);
+                    return key != null ? key.toString() : null;
+                };
+            } else {
+                this.key = accessor::get;
+            }
+            this.caseSensitive = accessor.getType() == String.class
+                    || accessor.getType().isEnum();
+            this.custom = false;
+            this.byKey = (r1, r2) -> ((Comparable) this.key.apply(r1.value)).compareTo(this.key.apply(r2.value));
+            this.values = new OrderStatisticTree<>(this.byKey.thenComparing(BY_SEQUENCE));
+            this.nulls = new OrderStatisticTree<>(BY_SEQUENCE);
+        }
+
+        boolean supports(Order order) {
+            return !this.caseSensitive
+                    || (!order.isIgnoreCase() && !(order instanceof CollatedOrder));
+        }
+
+        void add(Row<T> row) {
+            tree(row).add(row);
+        }
+
+        void remove(Row<T> row) {
+            tree(row).remove(row);
+        }
+
+        void clear() {
+            this.values.clear();
+            this.nulls.clear();
+        }
+
+        private OrderStatisticTree<Row<T>> tree(Row<T> row) {
+            return this.key.apply(row.value) == null ? this.nulls : this.values;
+        }
+
+        void collect(int from, int count, Direction direction, NullHandling nullHandling, List<T> target) {
+            final boolean descending = !this.custom && direction != null && direction.isDescending();
+            final boolean nullsFirst = (nullHandling == NullHandling.NULLS_FIRST) != descending;
+            final OrderStatisticTree<Row<T>> first = nullsFirst ? this.nulls : this.values;
+            final OrderStatisticTree<Row<T>> second = nullsFirst ? this.values : this.nulls;
+            final int size = target.size();
+            collect(first, from, count, first == this.values && descending, target);
+            collect(second, Math.max(0, from - first.size()), count - (target.size() - size), second == this.values && descending, target);
+        }
+
+        private void collect(OrderStatisticTree<Row<T>> tree, int from, int count, boolean descending, List<T> target) {
+            if (!descending) {
+                IndexedDataset.collect(tree, from, count, false, target);
+                return;
+            }
+            final List<Row<T>> rows = new ArrayList<>(Math.min(count, tree.size()));
+            tree.collect(from, count, true, rows);
+            int start = 0;
+            while (start < rows.size()) {
+                int end = start + 1;
+                while (end < rows.size()
+                        && this.byKey.compare(rows.get(start), rows.get(end)) == 0) {
+                    end++;
+                }
+                if (start > 0 && end < rows.size()) {
+                    for (int i = end - 1; i >= start; i--) {
+                        target.add(rows.get(i).value);
+                    }
+                } else {
+                    collectEqual(tree, rows.get(start), from + start, end - start, target);
+                }
+                start = end;
+            }
+        }
+
+        /**
+         * Collects in order of insertion the rows equal to the probe at the descending ranks from the rank,
+         * the group of equal rows possibly starting before the page or ending after it.
+         */
+        private void collectEqual(OrderStatisticTree<Row<T>> tree, Row<T> probe, int rank, int count, List<T> target) {
+            final int lower = tree.rank(probe, false, this.byKey);
+            final int groupRank = tree.size() - tree.rank(probe, true, this.byKey);
+            IndexedDataset.collect(tree, lower + rank - groupRank, count, false, target);
+        }
+
+    }
+
+    private static final class BitmapIndex<T> {
+
+        private final PropertyAccessor accessor;
+        private final Map<Object, CompressedBitmap> bitmaps = new HashMap<>();
+
+        BitmapIndex(Class<T> type, String property) {
+            this.accessor = PropertyAccessors.of(type, property);
+            if (this.accessor == null) {
+                throw new WrongFilterColumnException(property);
+            }
+            final Class<?> valueType = this.accessor.getType();
+            if (!valueType.isEnum()
+                    && valueType != Boolean.class
+                    && valueType != boolean.class) {
+                throw new IllegalArgumentException("BITMAP INDEX OF " + property + " MUST BE AN ENUM OR A BOOLEAN");
+            }
+        }
+
+        void add(Row<T> row) {
+            this.bitmaps.computeIfAbsent(this.accessor.get(row.value), k -> new CompressedBitmap()).add(row.slot);
+        }
+
+        void remove(Row<T> row) {
+            final CompressedBitmap bitmap = this.bitmaps.get(this.accessor.get(row.value));
+            if (bitmap != null) {
+                bitmap.remove(row.slot);
+            }
+        }
+
+        void clear() {
+            this.bitmaps.clear();
+        }
+
+        /**
+         * @return the slots matching the criterion, null if the operator is not supported
+         */
+        CompressedBitmap resolve(FilterCriterion criterion, CompressedBitmap all) {
+            switch (criterion.getOperator()) {
+            case EQUAL:
+                return bitmap(criterion.getValue()).copy();
+            case IN:
+                CompressedBitmap result = new CompressedBitmap();
+                for (Object value : (Collection<?>) criterion.getValue()) {
+                    result = result.or(bitmap(value));
+                }
+                return result;
+            case IS_NULL:
+                final CompressedBitmap nulls = this.bitmaps.getOrDefault(null, EMPTY);
+                return Boolean.TRUE.equals(criterion.getValue()) ? nulls.copy() : all.andNot(nulls);
+            default:
+                return null;
+            }
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private CompressedBitmap bitmap(Object value) {
+            Object key = value;
+            final Class<?> valueType = this.accessor.getType();
+            if (value instanceof String string) {
+                if (valueType.isEnum()) {
+                    try {
+                        key = Enum.valueOf((Class<? extends Enum>) valueType, string);
+                    } catch (IllegalArgumentException e) {
+                        return EMPTY;
+                    }
+                } else {
+                    key = Boolean.valueOf(string);
+                }
+            }
+            return this.bitmaps.getOrDefault(key, EMPTY);
+        }
+
+    }
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.dataset;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Treap of distinct elements with the size of each subtree,
+ * to read the elements from any rank in O(log n).
+ * <p>
+ * Not thread safe.
+ * 
+ * @param <E>
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+final class OrderStatisticTree<E> {
+
+    private final Comparator<? super E> comparator;
+    private Node<E> root;
+
+    OrderStatisticTree(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    int size() {
+        return size(this.root);
+    }
+
+    void add(E value) {
+        final Node<E>[] split = split(this.root, value, false);
+        this.root = merge(merge(split[0], new Node<>(value)), split[1]);
+    }
+
+    boolean remove(E value) {
+        final Node<E>[] split = split(this.root, value, false);
+        final Node<E>[] right = split(split[1], value, true);
+        this.root = merge(split[0], right[1]);
+        return right[0] != null;
+    }
+
+    void clear() {
+        this.root = null;
+    }
+
+    /**
+     * @param from rank of the first element in the order of the traversal
+     * @param count maximum number of elements
+     * @param descending
+     * @param target
+     */
+    void collect(int from, int count, boolean descending, List<? super E> target) {
+        if (from >= size() || count <= 0) {
+            return;
+        }
+        final Deque<Node<E>> stack = new ArrayDeque<>();
+        Node<E> node = this.root;
+        int rank = from;
+        while (node != null) {
+            final int before = size(descending ? node.right : node.left);
+            if (rank < before) {
+                stack.push(node);
+                node = descending ? node.right : node.left;
+            } else if (rank == before) {
+                stack.push(node);
+                break;
+            } else {
+                rank -= before + 1;
+                node = descending ? node.left : node.right;
+            }
+        }
+        int remaining = count;
+        while (remaining > 0 && !stack.isEmpty()) {
+            node = stack.pop();
+            target.add(node.value);
+            remaining--;
+            node = descending ? node.left : node.right;
+            while (node != null) {
+                stack.push(node);
+                node = descending ? node.right : node.left;
+            }
+        }
+    }
+
+    /**
+     * @param probe
+     * @param inclusive
+     * @param comparator order consistent with the order of the tree, possibly with more equal elements
+     * @return the number of elements lower than the probe, lower or equal with inclusive
+     */
+    int rank(E probe, boolean inclusive, Comparator<? super E> comparator) {
+        int rank = 0;
+        Node<E> node = this.root;
+        while (node != null) {
+            final int compare = comparator.compare(node.value, probe);
+            if (compare < 0 || (inclusive && compare == 0)) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * @return the nodes lower than the value, and the others; with inclusive the nodes lower or equal, and the others
+     */
+    @SuppressWarnings("unchecked")
+    private Node<E>[] split(Node<E> node, E value, boolean inclusive) {
+        if (node == null) {
+            return (Node<E>[]) new Node<?>[2];
+        }
+        final int compare = this.comparator.compare(node.value, value);
+        if (compare < 0 || (inclusive && compare == 0)) {
+            final Node<E>[] split = split(node.right, value, inclusive);
+            node.right = split[0];
+            split[0] = node.update();
+            return split;
+        } else {
+            final Node<E>[] split = split(node.left, value, inclusive);
+            node.left = split[1];
+            split[1] = node.update();
+            return split;
+        }
+    }
+
+    private static <E> Node<E> merge(Node<E> left, Node<E> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return left.update();
+        } else {
+            right.left = merge(left, right.left);
+            return right.update();
+        }
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<E> {
+
+        private final E value;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node<E> left;
+        private Node<E> right;
+
+        Node(E value) {
+            this.value = value;
+        }
+
+        Node<E> update() {
+            this.size = 1 + size(this.left) + size(this.right);
+            return this;
+        }
+
+    }
+
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.dataset;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.springframework.util.Assert;
+import org.flcit.springboot.web.core.exception.WrongFilterColumnException;
+import org.flcit.springboot.web.core.util.PropertyAccessor;
+import org.flcit.springboot.web.core.util.PropertyAccessors;
+
+/**
+ * Prefix index of text properties for the autocomplete, without scanning the rows.
+ * <p>
+ * The values are folded (case and accents, e.g. "&Eacute;lise" and "elise") and stored in a radix trie,
+ * each node keeps the best {@code maxResults} rows by score of its sub tree:
+ * a search reads the node of the prefix and returns its rows in O(prefix length + limit).
+ * <p>
+ * The trie is immutable: {@link #rebuild(Collection)} builds a new trie, on another thread with
+ * {@link #rebuildAsync(Supplier, Executor)}, and replaces the current one atomically.
+ * The searches running during a rebuild read the previous trie.
+ * 
+ * @param <T>
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class PrefixIndex<T> {
+
+    private static final int[] NO_RANKS = new int[0];
+
+    private final PropertyAccessor[] accessors;
+    private final PropertyAccessor scoreAccessor;
+    private final int maxResults;
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicReference<Trie<T>> trie = new AtomicReference<>(new Trie<>(0, Collections.emptyList(), new Node(NO_RANKS, new char[0], new String[0], new Node[0])));
+
+    /**
+     * @param type
+     * @param scoreProperty property with a getter returning a number, the highest score first; order of the rows when null
+     * @param maxResults maximum number of rows returned by a search
+     * @param properties properties with a getter returning a {@link String}
+     */
+    public PrefixIndex(Class<T> type, String scoreProperty, int maxResults, String... properties) {
+        Assert.isTrue(maxResults > 0, "maxResults must be positive");
+        Assert.notEmpty(properties, "properties must not be empty");
+        this.maxResults = maxResults;
+        this.accessors = new PropertyAccessor[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            this.accessors[i] = PropertyAccessors.of(type, properties[i]);
+            if (this.accessors[i] == null
+                    || this.accessors[i].getType() != String.class) {
+                throw new WrongFilterColumnException(properties[i]);
+            }
+        }
+        this.scoreAccessor = scoreProperty != null ? PropertyAccessors.of(type, scoreProperty) : null;
+        if (scoreProperty != null
+                && (this.scoreAccessor == null || !isNumber(this.scoreAccessor.getType()))) {
+            throw new WrongFilterColumnException(scoreProperty);
+        }
+    }
+
+    private static boolean isNumber(Class<?> type) {
+        return Number.class.isAssignableFrom(type)
+                || (type.isPrimitive() && type != boolean.class && type != char.class && type != void.class);
+    }
+
+    /**
+     * @param value
+     * @return the value in lower case without accents, null if null
+     */
+    public static String fold(String value) {
+        if (value == null) {
+            return null;
+        }
+        boolean ascii = true;
+        for (int i = 0; i < value.length() && ascii; i++) {
+            ascii = value.charAt(i) < 0x80;
+        }
+        final String decomposed = ascii ? value : Normalizer.normalize(value, Normalizer.Form.NFD);
+        final StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            final char c = decomposed.charAt(i);
+            if (ascii || Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param prefix
+     * @param limit
+     * @return the best rows by score with a value starting with the prefix, at most {@code maxResults}
+     */
+    public List<T> search(String prefix, int limit) {
+        final Trie<T> current = this.trie.get();
+        final int[] ranks = current.find(prefix != null ? fold(prefix) : "");
+        final int count = Math.min(Math.min(limit, this.maxResults), ranks.length);
+        final List<T> result = new ArrayList<>(Math.max(count, 0));
+        for (int i = 0; i < count; i++) {
+            result.add(current.rows.get(ranks[i]));
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of rows of the current trie
+     */
+    public int size() {
+        return this.trie.get().rows.size();
+    }
+
+    /**
+     * Build a trie of the rows and replace the current one.
+     * @param rows
+     */
+    public void rebuild(Collection<? extends T> rows) {
+        swap(build(this.builds.incrementAndGet(), rows));
+    }
+
+    /**
+     * Build a trie of the rows on the executor and replace the current one when built,
+     * unless a more recent rebuild has already replaced it.
+     * @param rows read on the executor
+     * @param executor
+     * @return
+     */
+    public CompletableFuture<Void> rebuildAsync(Supplier<? extends Collection<? extends T>> rows, Executor executor) {
+        final long build = this.builds.incrementAndGet();
+        return CompletableFuture.runAsync(() -> swap(build(build, rows.get())), executor);
+    }
+
+    private void swap(Trie<T> built) {
+        this.trie.accumulateAndGet(built, (current, next) -> next.build > current.build ? next : current);
+    }
+
+    private Trie<T> build(long build, Collection<? extends T> values) {
+        final List<T> rows = new ArrayList<>(values.size());
+        for (T value : values) {
+            if (value != null) {
+                rows.add(value);
+            }
+        }
+        if (this.scoreAccessor != null) {
+            final double[] scores = new double[rows.size()];
+            final Integer[] order = new Integer[rows.size()];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = score(rows.get(i));
+                order[i] = i;
+            }
+            Arrays.sort(order, (i1, i2) -> Double.compare(scores[i2], scores[i1]));
+            final List<T> sorted = new ArrayList<>(rows.size());
+            for (Integer i : order) {
+                sorted.add(rows.get(i));
+            }
+            rows.clear();
+            rows.addAll(sorted);
+        }
+        final List<Entry> entries = new ArrayList<>(rows.size() * this.accessors.length);
+        for (int rank = 0; rank < rows.size(); rank++) {
+            for (PropertyAccessor accessor : this.accessors) {
+                final String key = fold((String) accessor.get(rows.get(rank)));
+                if (key != null) {
+                    entries.add(new Entry(key, rank));
+                }
+            }
+        }
+        entries.sort(Comparator.<Entry, String>comparing(entry -> entry.key).thenComparingInt(entry -> entry.rank));
+        return new Trie<>(build, Collections.unmodifiableList(rows), node(entries, 0, entries.size(), 0));
+    }
+
+    private double score(T row) {
+        final Class<?> type = this.scoreAccessor.getType();
+        if (type == double.class || type == float.class) {
+            return this.scoreAccessor.getDouble(row);
+        } else if (type.isPrimitive()) {
+            return type == long.class ? this.scoreAccessor.getLong(row) : this.scoreAccessor.getInt(row);
+        }
+        final Number score = (Number) this.scoreAccessor.get(row);
+        return score != null ? score.doubleValue() : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Node of the entries from {@code from} to {@code to}, whose keys have the same {@code depth} first characters.
+     */
+    private Node node(List<Entry> entries, int from, int to, int depth) {
+        int i = from;
+        final List<int[]> ranks = new ArrayList<>();
+        final int[] terminal = new int[to - from];
+        int terminalCount = 0;
+        while (i < to && entries.get(i).key.length() == depth) {
+            terminal[terminalCount++] = entries.get(i++).rank;
+        }
+        ranks.add(Arrays.copyOf(terminal, terminalCount));
+        final List<Character> chars = new ArrayList<>();
+        final List<String> labels = new ArrayList<>();
+        final List<Node> children = new ArrayList<>();
+        while (i < to) {
+            final char c = entries.get(i).key.charAt(depth);
+            int j = i + 1;
+            while (j < to && entries.get(j).key.charAt(depth) == c) {
+                j++;
+            }
+            final int length = commonPrefixLength(entries.get(i).key, entries.get(j - 1).key, depth);
+            final Node child = node(entries, i, j, length);
+            chars.add(c);
+            labels.add(entries.get(i).key.substring(depth, length));
+            children.add(child);
+            ranks.add(child.ranks);
+            i = j;
+        }
+        final char[] firstChars = new char[chars.size()];
+        for (int k = 0; k < firstChars.length; k++) {
+            firstChars[k] = chars.get(k);
+        }
+        return new Node(merge(ranks, this.maxResults), firstChars, labels.toArray(new String[0]), children.toArray(new Node[0]));
+    }
+
+    private static int commonPrefixLength(String first, String last, int from) {
+        final int max = Math.min(first.length(), last.length());
+        int i = from;
+        while (i < max && first.charAt(i) == last.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the smallest distinct ranks of the arrays, each array being sorted
+     */
+    private static int[] merge(List<int[]> arrays, int max) {
+        final int[] positions = new int[arrays.size()];
+        final int[] result = new int[max];
+        int count = 0;
+        int last = -1;
+        while (count < max) {
+            int best = -1;
+            for (int k = 0; k < positions.length; k++) {
+                final int[] array = arrays.get(k);
+                while (positions[k] < array.length && array[positions[k]] <= last) {
+                    positions[k]++;
+                }
+                if (positions[k] < array.length
+                        && (best == -1 || array[positions[k]] < arrays.get(best)[positions[best]])) {
+                    best = k;
+                }
+            }
+            if (best == -1) {
+                break;
+            }
+            last = arrays.get(best)[positions[best]++];
+            result[count++] = last;
+        }
+        return count == max ? result : Arrays.copyOf(result, count);
+    }
+
+    private static final class Entry {
+
+        private final String key;
+        private final int rank;
+
+        Entry(String key, int rank) {
+            this.key = key;
+            this.rank = rank;
+        }
+
+    }
+
+    private static final class Node {
+
+        private final int[] ranks;
+        private final char[] chars;
+        private final String[] labels;
+        private final Node[] children;
+
+        Node(int[] ranks, char[] chars, String[] labels, Node[] children) {
+            this.ranks = ranks;
+            this.chars = chars;
+            this.labels = labels;
+            this.children = children;
+        }
+
+    }
+
+    private static final class Trie<T> {
+
+        private final long build;
+        private final List<T> rows;
+        private final Node root;
+
+        Trie(long build, List<T> rows, Node root) {
+            this.build = build;
+            this.rows = rows;
+            this.root = root;
+        }
+
+        int[] find(String prefix) {
+            Node node = this.root;
+            int i = 0;
+            while (i < prefix.length()) {
+                final int index = Arrays.binarySearch(node.chars, prefix.charAt(i));
+                if (index < 0) {
+                    return NO_RANKS;
+                }
+                final String label = node.labels[index];
+                final int length = Math.min(label.length(), prefix.length() - i);
+                if (!prefix.regionMatches(i, label, 0, length)) {
+                    return NO_RANKS;
+                }
+                node = node.children[index];
+                i += length;
+            }
+            return node.ranks;
+        }
+
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.dataset;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary format of the rows written to the temporary files of an {@link ExternalSorter}.
+ * <p>
+ * Only the fields needed by the export and the sort should be written,
+ * e.g. {@code out.writeLong(row.getId()); out.writeUTF(row.getName());}.
+ * 
+ * @param <T>
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public interface RowCodec<T> {
+
+    /**
+     * @param out
+     * @param row
+     * @throws IOException
+     */
+    void write(DataOutput out, T row) throws IOException;
+
+    /**
+     * @param in
+     * @return the row written by {@link #write(DataOutput, Object)}
+     * @throws IOException
+     */
+    T read(DataInput in) throws IOException;
+
+}
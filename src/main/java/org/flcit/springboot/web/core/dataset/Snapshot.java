@@ -0,0 +1,166 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.dataset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Order;
+import org.flcit.springboot.web.core.filter.FilterPredicate;
+import org.flcit.springboot.web.core.util.PageableUtils;
+
+/**
+ * Immutable version of the rows of a {@link SnapshotStore}.
+ * <p>
+ * The rows are never modified: each sort is computed once per snapshot
+ * with {@link PageableUtils#sort(Pageable, List, Class, Map)} on a private copy and reused by the next requests.
+ * The last {@value #MAX_SORTS} orders used are kept, the least recently used order being sorted again when requested.
+ * 
+ * @param <T>
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public final class Snapshot<T> {
+
+    private static final int MAX_SORTS = 16;
+
+    private final Class<T> type;
+    private final Map<String, Comparator<T>> customComparators;
+    private final long version;
+    private final String eTag;
+    private final List<T> rows;
+    private final Map<Order, List<T>> sorts = new LinkedHashMap<>(MAX_SORTS * 2, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Order, List<T>> eldest) {
+            return size() > MAX_SORTS;
+        }
+    };
+
+    Snapshot(Class<T> type, Map<String, Comparator<T>> customComparators, String storeId, long version, Object[] rows) {
+        this.type = type;
+        this.customComparators = customComparators;
+        this.version = version;
+        this.eTag = '"' + storeId + '-' + version + '"';
+        this.rows = unmodifiableList(rows);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> unmodifiableList(Object[] rows) {
+        return Collections.unmodifiableList((List<T>) Arrays.asList(rows));
+    }
+
+    /**
+     * @return the version, incremented by each publication of the store
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return a strong ETag, unique for the store instance and the version
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * @return the rows, unmodifiable
+     */
+    public List<T> getRows() {
+        return rows;
+    }
+
+    /**
+     * @return
+     */
+    public int size() {
+        return this.rows.size();
+    }
+
+    /**
+     * @param pageable sorted by the first order, as {@link PageableUtils#sort(Pageable, List, Class, Map)}
+     * @return the sorted rows, unmodifiable
+     */
+    public List<T> sort(Pageable pageable) {
+        if (pageable == null
+                || pageable.getSort().isUnsorted()) {
+            return this.rows;
+        }
+        final Order order = pageable.getSort().toList().get(0);
+        synchronized (this.sorts) {
+            final List<T> sorted = this.sorts.get(order);
+            if (sorted != null) {
+                return sorted;
+            }
+        }
+        final List<T> result = Collections.unmodifiableList(PageableUtils.sort(Pageable.unpaged(Sort.by(order)), new ArrayList<>(this.rows), this.type, this.customComparators));
+        synchronized (this.sorts) {
+            final List<T> sorted = this.sorts.putIfAbsent(order, result);
+            return sorted != null ? sorted : result;
+        }
+    }
+
+    /**
+     * @param pageable
+     * @return
+     */
+    public Page<T> page(Pageable pageable) {
+        final List<T> sorted = sort(pageable);
+        return pageable == null || pageable.isUnpaged()
+                ? new PageImpl<>(sorted)
+                : PageableUtils.page(sorted, pageable);
+    }
+
+    /**
+     * @param filter filter object, see {@link org.flcit.springboot.web.core.filter.FilterCriteria}
+     * @param pageable
+     * @param propertiesToExclude
+     * @return the page of the rows matching the filter, read in the order of the sort without sorting again
+     */
+    public Page<T> page(Object filter, Pageable pageable, String... propertiesToExclude) {
+        final FilterPredicate<T> predicate = FilterPredicate.of(filter, this.type, propertiesToExclude);
+        final List<T> sorted = sort(pageable);
+        if (pageable == null
+                || pageable.isUnpaged()) {
+            return new PageImpl<>(predicate.filter(sorted));
+        }
+        final long from = pageable.getOffset();
+        final long to = from + pageable.getPageSize();
+        final List<T> content = new ArrayList<>(pageable.getPageSize());
+        long count = 0;
+        for (T value : sorted) {
+            if (predicate.test(value)) {
+                if (count >= from && count < to) {
+                    content.add(value);
+                }
+                count++;
+            }
+        }
+        return new PageImpl<>(content, pageable, count);
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.dataset;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import org.springframework.util.Assert;
+
+/**
+ * Holder of read-mostly rows, published as immutable versioned {@link Snapshot}.
+ * <p>
+ * A writer publishes a new snapshot atomically; a reader works on the snapshot returned by {@link #get()}
+ * without lock, unaffected by the next publications.
+ * 
+ * @param <T>
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class SnapshotStore<T> {
+
+    private final Class<T> type;
+    private final Map<String, Comparator<T>> customComparators;
+    private final String id = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final AtomicReference<Snapshot<T>> current;
+
+    /**
+     * @param type
+     */
+    public SnapshotStore(Class<T> type) {
+        this(type, null);
+    }
+
+    /**
+     * @param type
+     * @param customComparators custom sorts, same as {@link org.flcit.springboot.web.core.util.PageableUtils#sort(org.springframework.data.domain.Pageable, List, Class, Map)}
+     */
+    public SnapshotStore(Class<T> type, Map<String, Comparator<T>> customComparators) {
+        Assert.notNull(type, "type must not be null");
+        this.type = type;
+        this.customComparators = customComparators;
+        this.current = new AtomicReference<>(new Snapshot<>(type, customComparators, this.id, 0, new Object[0]));
+    }
+
+    /**
+     * @return the current snapshot
+     */
+    public Snapshot<T> get() {
+        return this.current.get();
+    }
+
+    /**
+     * @return the version of the current snapshot
+     */
+    public long getVersion() {
+        return get().getVersion();
+    }
+
+    /**
+     * @param rows copied in the new snapshot
+     * @return the new snapshot
+     */
+    public Snapshot<T> publish(Collection<? extends T> rows) {
+        final Object[] values = rows.toArray();
+        Snapshot<T> previous;
+        Snapshot<T> next;
+        do {
+            previous = this.current.get();
+            next = new Snapshot<>(this.type, this.customComparators, this.id, previous.getVersion() + 1, values);
+        } while (!this.current.compareAndSet(previous, next));
+        return next;
+    }
+
+    /**
+     * @param updater function of the rows of the current snapshot returning the rows of the new snapshot,
+     * may be called several times on concurrent publications
+     * @return the new snapshot
+     */
+    public Snapshot<T> update(UnaryOperator<List<T>> updater) {
+        Snapshot<T> previous;
+        Snapshot<T> next;
+        do {
+            previous = this.current.get();
+            next = new Snapshot<>(this.type, this.customComparators, this.id, previous.getVersion() + 1, updater.apply(previous.getRows()).toArray());
+        } while (!this.current.compareAndSet(previous, next));
+        return next;
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.domain;
+
+import java.util.Locale;
+import java.util.Objects;
+
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.NullHandling;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.util.Assert;
+
+/**
+ * Order of a text property by the rules of a language, see {@link java.text.Collator}.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class CollatedOrder extends Order {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Locale locale;
+
+    /**
+     * @param direction
+     * @param property
+     * @param locale
+     */
+    public CollatedOrder(Direction direction, String property, Locale locale) {
+        this(direction, property, false, NullHandling.NATIVE, locale);
+    }
+
+    /**
+     * @param direction
+     * @param property
+     * @param ignoreCase
+     * @param nullHandling
+     * @param locale
+     */
+    public CollatedOrder(Direction direction, String property, boolean ignoreCase, NullHandling nullHandling, Locale locale) {
+        super(direction, property, ignoreCase, nullHandling);
+        Assert.notNull(locale, "locale must not be null");
+        this.locale = locale;
+    }
+
+    /**
+     * @return
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+    @Override
+    public CollatedOrder with(Direction direction) {
+        return new CollatedOrder(direction, getProperty(), isIgnoreCase(), getNullHandling(), this.locale);
+    }
+
+    @Override
+    public CollatedOrder withProperty(String property) {
+        return new CollatedOrder(getDirection(), property, isIgnoreCase(), getNullHandling(), this.locale);
+    }
+
+    @Override
+    public CollatedOrder ignoreCase() {
+        return new CollatedOrder(getDirection(), getProperty(), true, getNullHandling(), this.locale);
+    }
+
+    @Override
+    public CollatedOrder with(NullHandling nullHandling) {
+        return new CollatedOrder(getDirection(), getProperty(), isIgnoreCase(), nullHandling, this.locale);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + locale.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!super.equals(obj)) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final CollatedOrder other = (CollatedOrder) obj;
+        return Objects.equals(locale, other.locale);
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + ": " + locale.toLanguageTag();
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.domain;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.flcit.springboot.web.core.filter.FilterCriteria;
+import org.flcit.springboot.web.core.filter.FilterCriterion;
+
+/**
+ * Normalized key of a {@link WrapperPageableFilter}: two requests with the same key return the same page,
+ * e.g. to share the computation with {@link org.flcit.springboot.web.core.util.RequestCoalescer}.
+ * <p>
+ * The criteria of the filter are compared in any order (see {@link FilterCriterion#equals(Object)}),
+ * the empty values are ignored and the search is compared in lower case.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public final class PageableFilterKey {
+
+    private final Set<FilterCriterion> criteria;
+    private final String search;
+    private final int pageNumber;
+    private final int pageSize;
+    private final Sort sort;
+
+    private PageableFilterKey(Set<FilterCriterion> criteria, String search, Pageable pageable) {
+        this.criteria = criteria;
+        this.search = search;
+        final boolean paged = pageable != null && pageable.isPaged();
+        this.pageNumber = paged ? pageable.getPageNumber() : -1;
+        this.pageSize = paged ? pageable.getPageSize() : -1;
+        this.sort = pageable != null ? pageable.getSort() : Sort.unsorted();
+    }
+
+    /**
+     * @param request
+     * @return
+     */
+    public static PageableFilterKey of(WrapperPageableFilter<?> request) {
+        return new PageableFilterKey(new HashSet<>(FilterCriteria.of(request.getFilter())),
+                request.hasSearch() ? request.getSearch().toLowerCase(Locale.ROOT) : null,
+                request.getPageable());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(criteria, search, pageNumber, pageSize, sort);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+        PageableFilterKey other = (PageableFilterKey) obj;
+        return pageNumber == other.pageNumber && pageSize == other.pageSize
+                && criteria.equals(other.criteria)
+                && Objects.equals(search, other.search) && sort.equals(other.sort);
+    }
+
+    @Override
+    public String toString() {
+        return "PageableFilterKey [criteria=" + criteria + ", search=" + search + ", pageNumber=" + pageNumber
+                + ", pageSize=" + pageSize + ", sort=" + sort + "]";
+    }
+
+}
@@ -17,8 +17,12 @@
 package org.flcit.springboot.web.core.domain;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.data.domain.Page;
+import org.flcit.springboot.web.core.aggregate.Aggregate;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 /**
  * @param <T>
@@ -29,21 +33,63 @@ public class WrapperBootstrapTable<T> {
 
     private final long total;
     private final List<T> rows;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Map<String, Map<Object, Long>> facets;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Map<String, Aggregate> aggregates;
 
     /**
      * @param total
      * @param rows
      */
     public WrapperBootstrapTable(long total, List<T> rows) {
+        this(total, rows, null);
+    }
+
+    /**
+     * @param total
+     * @param rows
+     * @param facets count of each value by facet, e.g. {@link org.flcit.springboot.web.core.filter.FacetCounter}
+     */
+    public WrapperBootstrapTable(long total, List<T> rows, Map<String, Map<Object, Long>> facets) {
+        this(total, rows, facets, null);
+    }
+
+    /**
+     * @param total
+     * @param rows
+     * @param facets count of each value by facet, e.g. {@link org.flcit.springboot.web.core.filter.FacetCounter}
+     * @param aggregates aggregate of each column over all the rows, e.g. {@link org.flcit.springboot.web.core.aggregate.AggregateSpecification}
+     */
+    public WrapperBootstrapTable(long total, List<T> rows, Map<String, Map<Object, Long>> facets, Map<String, Aggregate> aggregates) {
         this.total = total;
         this.rows = rows;
+        this.facets = facets;
+        this.aggregates = aggregates;
     }
 
     /**
      * @param page
      */
     public WrapperBootstrapTable(Page<T> page) {
-        this(page.getTotalElements(), page.getContent());
+        this(page, null);
+    }
+
+    /**
+     * @param page
+     * @param facets count of each value by facet, e.g. {@link org.flcit.springboot.web.core.filter.FacetCounter}
+     */
+    public WrapperBootstrapTable(Page<T> page, Map<String, Map<Object, Long>> facets) {
+        this(page, facets, null);
+    }
+
+    /**
+     * @param page
+     * @param facets count of each value by facet, may be null
+     * @param aggregates aggregate of each column over all the rows, may be null
+     */
+    public WrapperBootstrapTable(Page<T> page, Map<String, Map<Object, Long>> facets, Map<String, Aggregate> aggregates) {
+        this(page.getTotalElements(), page.getContent(), facets, aggregates);
     }
 
     /**
@@ -60,4 +106,18 @@ public class WrapperBootstrapTable<T> {
         return rows;
     }
 
+    /**
+     * @return
+     */
+    public Map<String, Map<Object, Long>> getFacets() {
+        return facets;
+    }
+
+    /**
+     * @return
+     */
+    public Map<String, Aggregate> getAggregates() {
+        return aggregates;
+    }
+
 }
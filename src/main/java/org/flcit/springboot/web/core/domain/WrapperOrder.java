@@ -16,6 +16,8 @@
 
 package org.flcit.springboot.web.core.domain;
 
+import java.util.Locale;
+
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.domain.Sort.Order;
 import org.springframework.util.StringUtils;
@@ -29,6 +31,7 @@ public class WrapperOrder {
 
     private Direction direction;
     private String name;
+    private Locale locale;
 
     /**
      * @return
@@ -58,6 +61,20 @@ public class WrapperOrder {
         this.name = name;
     }
 
+    /**
+     * @return the language of the order of text properties, binary order of the characters when null
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * @param locale
+     */
+    public void setLocale(Locale locale) {
+        this.locale = locale;
+    }
+
     /**
      * @return
      */
@@ -69,7 +86,10 @@ public class WrapperOrder {
      * @return
      */
     public Order asOrder() {
-        return isValid() ? new Order(direction, name) : null;
+        if (!isValid()) {
+            return null;
+        }
+        return locale != null ? new CollatedOrder(direction, name, locale) : new Order(direction, name);
     }
 
 }
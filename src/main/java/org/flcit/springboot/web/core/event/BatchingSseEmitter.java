@@ -0,0 +1,177 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.event;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+/**
+ * Wrapper of an {@link SseEmitter} buffering the events of a window and sending them
+ * in a single write and flush.
+ * <p>
+ * An event sent with a key replaces the pending event with the same key (latest value wins).
+ * The buffer is flushed when it is full, when the window ends and on {@link #flush()}.
+ * Without scheduler, the end of the window is only checked when an event is sent.
+ * The keys are compared with {@link Object#equals(Object)}, the events without key are never merged.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class BatchingSseEmitter {
+
+    private final SseEmitter emitter;
+    private final int maxEvents;
+    private final long windowNanos;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Object, Set<DataWithMediaType>> pending = new LinkedHashMap<>();
+    private long windowStart;
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * @param emitter
+     * @param maxEvents
+     * @param window
+     */
+    public BatchingSseEmitter(SseEmitter emitter, int maxEvents, Duration window) {
+        this(emitter, maxEvents, window, null);
+    }
+
+    /**
+     * @param emitter
+     * @param maxEvents
+     * @param window
+     * @param scheduler flushes the buffer at the end of the window, can be null
+     */
+    public BatchingSseEmitter(SseEmitter emitter, int maxEvents, Duration window, ScheduledExecutorService scheduler) {
+        this.emitter = emitter;
+        this.maxEvents = maxEvents;
+        this.windowNanos = window.toNanos();
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @param data
+     * @throws IOException
+     */
+    public void send(Object data) throws IOException {
+        send(SseEmitter.event().data(data));
+    }
+
+    /**
+     * @param event
+     * @throws IOException
+     */
+    public void send(SseEventBuilder event) throws IOException {
+        add(new Object(), event.build());
+    }
+
+    /**
+     * @param key
+     * @param data
+     * @throws IOException
+     */
+    public void send(String key, Object data) throws IOException {
+        send(key, SseEmitter.event().data(data));
+    }
+
+    /**
+     * Sends an event replacing the pending event with the same key.
+     * 
+     * @param key
+     * @param event
+     * @throws IOException
+     */
+    public void send(String key, SseEventBuilder event) throws IOException {
+        add(key, event.build());
+    }
+
+    private synchronized void add(Object key, Set<DataWithMediaType> event) throws IOException {
+        if (this.pending.isEmpty()) {
+            this.windowStart = System.nanoTime();
+            schedule();
+        }
+        this.pending.put(key, event);
+        if (this.pending.size() >= this.maxEvents
+                || System.nanoTime() - this.windowStart >= this.windowNanos) {
+            flush();
+        }
+    }
+
+    private void schedule() {
+        if (this.scheduler != null) {
+            this.scheduledFlush = this.scheduler.schedule(this::scheduledFlush, this.windowNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (IOException | IllegalStateException e) {
+            this.emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Sends the pending events in a single write.
+     * 
+     * @throws IOException
+     */
+    public synchronized void flush() throws IOException {
+        if (this.scheduledFlush != null) {
+            this.scheduledFlush.cancel(false);
+            this.scheduledFlush = null;
+        }
+        if (this.pending.isEmpty()) {
+            return;
+        }
+        final Set<DataWithMediaType> items = new LinkedHashSet<>();
+        for (Set<DataWithMediaType> event : this.pending.values()) {
+            items.addAll(event);
+        }
+        this.pending.clear();
+        this.emitter.send(items);
+    }
+
+    /**
+     * Flushes the pending events and completes the emitter.
+     * 
+     * @throws IOException
+     */
+    public void complete() throws IOException {
+        flush();
+        this.emitter.complete();
+    }
+
+    /**
+     * @return
+     */
+    public SseEmitter getEmitter() {
+        return emitter;
+    }
+
+}
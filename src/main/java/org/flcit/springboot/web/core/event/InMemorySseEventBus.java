@@ -0,0 +1,143 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * {@link SseEventBus} in the JVM, for the tests and the single node deployments.
+ * <p>
+ * The events published while a batch is delivered are queued and delivered in the next batch.
+ * A listener failing does not prevent the other listeners from receiving the batch,
+ * its exception being passed to the error handler.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class InMemorySseEventBus implements SseEventBus {
+
+    private final Executor executor;
+    private final int maxBatchSize;
+    private final Consumer<? super RuntimeException> errorHandler;
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+
+    /**
+     * Bus delivering the events in the thread of the publisher.
+     */
+    public InMemorySseEventBus() {
+        this(Runnable::run, 256);
+    }
+
+    /**
+     * @param executor delivers the batches
+     * @param maxBatchSize
+     */
+    public InMemorySseEventBus(Executor executor, int maxBatchSize) {
+        this(executor, maxBatchSize, e -> {
+            // FAILURE IGNORED, THE OTHER LISTENERS RECEIVE THE BATCH
+        });
+    }
+
+    /**
+     * @param executor delivers the batches
+     * @param maxBatchSize
+     * @param errorHandler receives the exceptions of the listeners
+     */
+    public InMemorySseEventBus(Executor executor, int maxBatchSize, Consumer<? super RuntimeException> errorHandler) {
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+        this.errorHandler = errorHandler;
+    }
+
+    @Override
+    public void publish(String topic, Object event) {
+        topic(topic).publish(event);
+    }
+
+    @Override
+    public Subscription subscribe(String topic, Consumer<List<Event>> listener) {
+        final Topic t = topic(topic);
+        t.listeners.add(listener);
+        return () -> t.listeners.remove(listener);
+    }
+
+    private Topic topic(String topic) {
+        return this.topics.computeIfAbsent(topic, k -> new Topic());
+    }
+
+    private final class Topic {
+
+        private final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final List<Consumer<List<Event>>> listeners = new CopyOnWriteArrayList<>();
+        private long sequence;
+
+        void publish(Object event) {
+            synchronized (this) {
+                this.queue.add(new Event(++this.sequence, event));
+            }
+            if (this.draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                try {
+                    List<Event> batch;
+                    while (!(batch = poll()).isEmpty()) {
+                        for (Consumer<List<Event>> listener : this.listeners) {
+                            accept(listener, batch);
+                        }
+                    }
+                } finally {
+                    this.draining.set(false);
+                }
+            } while (!this.queue.isEmpty()
+                    && this.draining.compareAndSet(false, true));
+        }
+
+        private void accept(Consumer<List<Event>> listener, List<Event> batch) {
+            try {
+                listener.accept(batch);
+            } catch (RuntimeException e) {
+                errorHandler.accept(e);
+            }
+        }
+
+        private List<Event> poll() {
+            final List<Event> batch = new ArrayList<>(Math.min(maxBatchSize, 16));
+            Event event;
+            while (batch.size() < maxBatchSize
+                    && (event = this.queue.poll()) != null) {
+                batch.add(event);
+            }
+            return batch;
+        }
+
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.event;
+
+import java.io.IOException;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.flcit.commons.core.functional.consumer.ConsumerException;
+
+/**
+ * Streaming of results as newline delimited JSON or as a JSON array written progressively,
+ * the values reaching the client as they are computed.
+ * <p>
+ * The consumer is run by the asynchronous executor of Spring MVC, with its timeout.
+ * When the consumer fails, the stream is left unterminated (no closing bracket) so the client
+ * cannot take a partial result for a complete one.
+ * <p>
+ * Without {@link ObjectMapper}, the unique {@link ObjectMapper} of the application context of the current request is used.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public final class JsonStreamService {
+
+    private static final ObjectMapper DEFAULT_OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    private JsonStreamService() { }
+
+    /**
+     * @param consumer
+     * @return
+     */
+    public static ResponseEntity<StreamingResponseBody> sendNdjson(ConsumerException<JsonStreamWriter> consumer) {
+        return sendNdjson(objectMapper(), consumer);
+    }
+
+    /**
+     * @param objectMapper
+     * @param consumer
+     * @return
+     */
+    public static ResponseEntity<StreamingResponseBody> sendNdjson(ObjectMapper objectMapper, ConsumerException<JsonStreamWriter> consumer) {
+        return ResponseEntity
+                .ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body(objectMapper, true, consumer));
+    }
+
+    /**
+     * @param consumer
+     * @return
+     */
+    public static ResponseEntity<StreamingResponseBody> sendJsonArray(ConsumerException<JsonStreamWriter> consumer) {
+        return sendJsonArray(objectMapper(), consumer);
+    }
+
+    /**
+     * @param objectMapper
+     * @param consumer
+     * @return
+     */
+    public static ResponseEntity<StreamingResponseBody> sendJsonArray(ObjectMapper objectMapper, ConsumerException<JsonStreamWriter> consumer) {
+        return ResponseEntity
+                .ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body(objectMapper, false, consumer));
+    }
+
+    /**
+     * @param objectMapper
+     * @param newLineDelimited
+     * @param consumer
+     * @return
+     */
+    public static StreamingResponseBody body(ObjectMapper objectMapper, boolean newLineDelimited, ConsumerException<JsonStreamWriter> consumer) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                if (newLineDelimited) {
+                    generator.setRootValueSeparator(null);
+                } else {
+                    generator.writeStartArray();
+                }
+                consumer.accept(new JsonStreamWriter(generator, newLineDelimited));
+                if (!newLineDelimited) {
+                    generator.writeEndArray();
+                }
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    private static ObjectMapper objectMapper() {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            final WebApplicationContext context = RequestContextUtils.findWebApplicationContext(servletAttributes.getRequest());
+            final ObjectMapper objectMapper = context == null ? null : context.getBeanProvider(ObjectMapper.class).getIfUnique();
+            if (objectMapper != null) {
+                return objectMapper;
+            }
+        }
+        return DEFAULT_OBJECT_MAPPER;
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.event;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writer of a JSON stream, each value being serialized by the same {@link JsonGenerator}
+ * directly to the response.
+ * <p>
+ * The values are sent to the client on {@link #flush()}, or when the buffer of the response is full.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class JsonStreamWriter {
+
+    private final JsonGenerator generator;
+    private final boolean newLineDelimited;
+    private long count;
+
+    /**
+     * @param generator
+     * @param newLineDelimited true to write a line by value (NDJSON)
+     */
+    public JsonStreamWriter(JsonGenerator generator, boolean newLineDelimited) {
+        this.generator = generator;
+        this.newLineDelimited = newLineDelimited;
+    }
+
+    /**
+     * @param value
+     * @throws IOException
+     */
+    public void write(Object value) throws IOException {
+        this.generator.writeObject(value);
+        if (this.newLineDelimited) {
+            this.generator.writeRaw('\n');
+        }
+        this.count++;
+    }
+
+    /**
+     * Sends the values written to the client.
+     * 
+     * @throws IOException
+     */
+    public void flush() throws IOException {
+        this.generator.flush();
+    }
+
+    /**
+     * @return the number of values written
+     */
+    public long getCount() {
+        return count;
+    }
+
+}
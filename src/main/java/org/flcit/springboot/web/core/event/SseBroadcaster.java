@@ -0,0 +1,149 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.event;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Fan-out of the events of an {@link SseEventBus} to the emitters of the node.
+ * <p>
+ * The node subscribes to the bus once per topic, on the first local subscriber,
+ * and publishes each event received to the local {@link SseReplayBuffer} of the topic:
+ * the producers do not know the connections of the other nodes.
+ * The events keep the sequence of the bus as id, so a client can reconnect to another node.
+ * <p>
+ * A topic keeps its subscription to the bus and its buffer until {@link #close(String)},
+ * to call for the topics which are not used anymore (e.g. per user topics).
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class SseBroadcaster {
+
+    private final SseEventBus bus;
+    private final int capacity;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+
+    /**
+     * @param bus
+     * @param capacity number of events kept by topic for the replay
+     * @param objectMapper encodes the events once, can be null
+     */
+    public SseBroadcaster(SseEventBus bus, int capacity, ObjectMapper objectMapper) {
+        this.bus = bus;
+        this.capacity = capacity;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Publishes an event to all the nodes.
+     * 
+     * @param topic
+     * @param event
+     */
+    public void publish(String topic, Object event) {
+        this.bus.publish(topic, event);
+    }
+
+    /**
+     * @param topic
+     * @param request
+     * @param timeout
+     * @return
+     */
+    public SseEmitter subscribe(String topic, HttpServletRequest request, Long timeout) {
+        return SseEmitterService.subscribe(topic(topic), request, timeout);
+    }
+
+    /**
+     * @param topic
+     * @param lastEventId
+     * @param timeout
+     * @return
+     */
+    public SseEmitter subscribe(String topic, String lastEventId, Long timeout) {
+        return SseEmitterService.subscribe(topic(topic), lastEventId, timeout);
+    }
+
+    /**
+     * @param topic
+     * @return the local buffer of the topic
+     */
+    public SseReplayBuffer topic(String topic) {
+        return this.topics.computeIfAbsent(topic, this::register).buffer;
+    }
+
+    /**
+     * Cancels the subscription of the node to the topic and completes its local emitters,
+     * the next subscriber registering the topic again.
+     * 
+     * @param topic
+     */
+    public void close(String topic) {
+        final Topic t = this.topics.remove(topic);
+        if (t != null) {
+            t.subscription.cancel();
+            t.buffer.complete();
+        }
+    }
+
+    /**
+     * @return the number of topics registered by the node
+     */
+    public int size() {
+        return this.topics.size();
+    }
+
+    private Topic register(String topic) {
+        final SseReplayBuffer buffer = new SseReplayBuffer(this.capacity, this.objectMapper);
+        return new Topic(buffer, this.bus.subscribe(topic, events -> publishLocal(buffer, events)));
+    }
+
+    private static void publishLocal(SseReplayBuffer buffer, List<SseEventBus.Event> events) {
+        try {
+            for (SseEventBus.Event event : events) {
+                buffer.publish(event.getId(), null, event.getData());
+            }
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Topic {
+
+        private final SseReplayBuffer buffer;
+        private final SseEventBus.Subscription subscription;
+
+        Topic(SseReplayBuffer buffer, SseEventBus.Subscription subscription) {
+            this.buffer = buffer;
+            this.subscription = subscription;
+        }
+
+    }
+
+}
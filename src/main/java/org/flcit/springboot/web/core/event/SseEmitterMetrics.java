@@ -0,0 +1,176 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.event;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Micrometer meters of the SSE emitters, requires <code>micrometer-core</code>.
+ * <p>
+ * The meters are created once per emitter name: recording a send only reads the clock
+ * and updates the meters, without allocation.
+ * <ul>
+ * <li><code>sse.emitters.open</code>: emitters open</li>
+ * <li><code>sse.emitters.duration</code>: lifetime of the emitters</li>
+ * <li><code>sse.emitters.completed</code>: emitters completed, by <code>outcome</code> (complete, timeout, error),
+ * error including {@link SseEmitter#completeWithError(Throwable)}</li>
+ * <li><code>sse.send</code>: latency of the sends</li>
+ * <li><code>sse.send.failures</code>: failed sends</li>
+ * </ul>
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class SseEmitterMetrics {
+
+    private static final String NAME = "name";
+    private static final String OUTCOME = "outcome";
+
+    private final MeterRegistry registry;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    /**
+     * @param registry
+     */
+    public SseEmitterMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @param name tag of the meters, e.g. the endpoint
+     * @param timeout
+     * @return an instrumented emitter
+     */
+    public SseEmitter newEmitter(String name, Long timeout) {
+        return new InstrumentedSseEmitter(timeout, this.meters.computeIfAbsent(name, this::createMeters));
+    }
+
+    private Meters createMeters(String name) {
+        return new Meters(this.registry, name);
+    }
+
+    private static final class Meters {
+
+        private final AtomicInteger open = new AtomicInteger();
+        private final Timer duration;
+        private final Counter complete;
+        private final Counter timeout;
+        private final Counter error;
+        private final Timer send;
+        private final Counter sendFailures;
+
+        Meters(MeterRegistry registry, String name) {
+            Gauge.builder("sse.emitters.open", this.open, AtomicInteger::get).tag(NAME, name).register(registry);
+            this.duration = Timer.builder("sse.emitters.duration").tag(NAME, name).register(registry);
+            this.complete = completed(registry, name, "complete");
+            this.timeout = completed(registry, name, "timeout");
+            this.error = completed(registry, name, "error");
+            this.send = Timer.builder("sse.send").tag(NAME, name).register(registry);
+            this.sendFailures = Counter.builder("sse.send.failures").tag(NAME, name).register(registry);
+        }
+
+        private static Counter completed(MeterRegistry registry, String name, String outcome) {
+            return Counter.builder("sse.emitters.completed").tag(NAME, name).tag(OUTCOME, outcome).register(registry);
+        }
+
+    }
+
+    private static final class InstrumentedSseEmitter extends SseEmitter {
+
+        private final Meters meters;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean recorded = new AtomicBoolean();
+        private volatile Counter outcome;
+
+        InstrumentedSseEmitter(Long timeout, Meters meters) {
+            super(timeout);
+            this.meters = meters;
+            this.outcome = meters.complete;
+            meters.open.incrementAndGet();
+            onTimeout(() -> this.outcome = meters.timeout);
+            onError(e -> this.outcome = meters.error);
+            onCompletion(this::completed);
+        }
+
+        private void completed() {
+            if (!this.recorded.compareAndSet(false, true)) {
+                return;
+            }
+            this.meters.open.decrementAndGet();
+            this.meters.duration.record(System.nanoTime() - this.start, TimeUnit.NANOSECONDS);
+            this.outcome.increment();
+        }
+
+        /**
+         * Recorded here too: the completion callback is not called when the emitter is completed
+         * before being returned to Spring MVC.
+         */
+        @Override
+        public void complete() {
+            super.complete();
+            completed();
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            this.outcome = this.meters.error;
+            super.completeWithError(ex);
+            completed();
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            final long begin = System.nanoTime();
+            try {
+                super.send(builder);
+            } catch (IOException | RuntimeException e) {
+                this.meters.sendFailures.increment();
+                throw e;
+            } finally {
+                this.meters.send.record(System.nanoTime() - begin, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            final long begin = System.nanoTime();
+            try {
+                super.send(items);
+            } catch (IOException | RuntimeException e) {
+                this.meters.sendFailures.increment();
+                throw e;
+            } finally {
+                this.meters.send.record(System.nanoTime() - begin, TimeUnit.NANOSECONDS);
+            }
+        }
+
+    }
+
+}
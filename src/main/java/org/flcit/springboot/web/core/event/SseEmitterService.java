@@ -16,7 +16,11 @@
 
 package org.flcit.springboot.web.core.event;
 
+import java.time.Duration;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
@@ -56,7 +60,38 @@ public final class SseEmitterService {
      * @return
      */
     public static SseEmitter send(Executor executor, Long timeout, ConsumerException<SseEmitter> consumer) {
-        final SseEmitter emitter = new SseEmitter(timeout);
+        return execute(executor, new SseEmitter(timeout), consumer);
+    }
+
+    /**
+     * Same as {@link #send(Executor, Long, ConsumerException)} with the emitter kept alive
+     * by the shared heartbeat while it is idle.
+     * 
+     * @param executor
+     * @param timeout
+     * @param heartbeat
+     * @param consumer
+     * @return
+     */
+    public static SseEmitter send(Executor executor, Long timeout, SseHeartbeatScheduler heartbeat, ConsumerException<SseEmitter> consumer) {
+        return execute(executor, heartbeat.newEmitter(timeout), consumer);
+    }
+
+    /**
+     * Same as {@link #send(Executor, Long, ConsumerException)} with an emitter instrumented by Micrometer.
+     * 
+     * @param executor
+     * @param timeout
+     * @param metrics
+     * @param name tag of the meters
+     * @param consumer
+     * @return
+     */
+    public static SseEmitter send(Executor executor, Long timeout, SseEmitterMetrics metrics, String name, ConsumerException<SseEmitter> consumer) {
+        return execute(executor, metrics.newEmitter(name, timeout), consumer);
+    }
+
+    private static SseEmitter execute(Executor executor, SseEmitter emitter, ConsumerException<SseEmitter> consumer) {
         executor.execute(() -> {
             try {
                 consumer.accept(emitter);
@@ -68,4 +103,49 @@ public final class SseEmitterService {
         return emitter;
     }
 
+    /**
+     * Same as {@link #send(Executor, Long, ConsumerException)} with the events buffered
+     * and sent by batch, the pending events being flushed at the end.
+     * 
+     * @param executor
+     * @param timeout
+     * @param maxEvents
+     * @param window
+     * @param scheduler closes the windows, owned and shut down by the caller
+     * @param consumer
+     * @return
+     */
+    public static SseEmitter sendBatched(Executor executor, Long timeout, int maxEvents, Duration window, ScheduledExecutorService scheduler, ConsumerException<BatchingSseEmitter> consumer) {
+        return send(executor, timeout, emitter -> {
+            final BatchingSseEmitter batchingEmitter = new BatchingSseEmitter(emitter, maxEvents, window, scheduler);
+            consumer.accept(batchingEmitter);
+            batchingEmitter.flush();
+        });
+    }
+
+    /**
+     * Emitter of the events published on the topic, replaying the events missed
+     * since the <code>Last-Event-ID</code> header of the request.
+     * 
+     * @param topic
+     * @param request
+     * @param timeout
+     * @return
+     */
+    public static SseEmitter subscribe(SseReplayBuffer topic, HttpServletRequest request, Long timeout) {
+        return subscribe(topic, request.getHeader(SseReplayBuffer.LAST_EVENT_ID), timeout);
+    }
+
+    /**
+     * @param topic
+     * @param lastEventId
+     * @param timeout
+     * @return
+     */
+    public static SseEmitter subscribe(SseReplayBuffer topic, String lastEventId, Long timeout) {
+        final SseEmitter emitter = new SseEmitter(timeout);
+        topic.subscribe(emitter, lastEventId);
+        return emitter;
+    }
+
 }
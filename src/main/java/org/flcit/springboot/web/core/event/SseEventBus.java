@@ -0,0 +1,96 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.event;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Transport of the events between the nodes of a cluster.
+ * <p>
+ * Each node subscribes once per topic and fans the events out to its own emitters,
+ * see {@link SseBroadcaster}. The events can be delivered by batch.
+ * <p>
+ * The bus numbers the events of a topic with an increasing sequence, shared by all the nodes:
+ * it is used as the id of the events sent to the clients, so a client can reconnect to any node.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public interface SseEventBus {
+
+    /**
+     * Publishes an event to all the nodes subscribed to the topic.
+     * 
+     * @param topic
+     * @param event
+     */
+    void publish(String topic, Object event);
+
+    /**
+     * @param topic
+     * @param listener receives the events by batch, in the order of publication
+     * @return
+     */
+    Subscription subscribe(String topic, Consumer<List<Event>> listener);
+
+    /**
+     * Event numbered by the bus.
+     */
+    final class Event {
+
+        private final long id;
+        private final Object data;
+
+        /**
+         * @param id sequence of the event in its topic
+         * @param data
+         */
+        public Event(long id, Object data) {
+            this.id = id;
+            this.data = data;
+        }
+
+        /**
+         * @return the sequence of the event in its topic
+         */
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * @return
+         */
+        public Object getData() {
+            return data;
+        }
+
+    }
+
+    /**
+     * Subscription to a topic.
+     */
+    interface Subscription {
+
+        /**
+         * Stops the delivery of the events.
+         */
+        void cancel();
+
+    }
+
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.event;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Heartbeat shared by all the emitters, keeping idle connections open through the intermediaries.
+ * <p>
+ * The emitters are spread over the buckets of a hashed wheel, one bucket being checked on each tick
+ * so each emitter is checked once per interval by a single thread.
+ * A comment frame is sent to the emitters idle for an interval, the emitters whose write failed
+ * being removed.
+ * <p>
+ * Without a sender executor the frames are sent by the scheduler thread: a blocking write
+ * (e.g. a stalled client with a full socket buffer) delays the heartbeat of all the other emitters.
+ * With a sender executor each frame is sent by a task, a new frame being sent to an emitter
+ * only once its previous frame is written.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class SseHeartbeatScheduler implements Closeable {
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("").build();
+
+    private final long intervalNanos;
+    private final List<Set<Registration>> wheel;
+    private final AtomicInteger placement = new AtomicInteger();
+    private final ScheduledExecutorService executor;
+    private final Executor sender;
+    private final boolean ownExecutor;
+    private final LongSupplier clock;
+    private int cursor;
+
+    /**
+     * @param interval
+     * @param wheelSize number of buckets
+     */
+    public SseHeartbeatScheduler(Duration interval, int wheelSize) {
+        this(interval, wheelSize, Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        }), Runnable::run, true, System::nanoTime);
+    }
+
+    /**
+     * @param interval
+     * @param wheelSize number of buckets
+     * @param executor
+     */
+    public SseHeartbeatScheduler(Duration interval, int wheelSize, ScheduledExecutorService executor) {
+        this(interval, wheelSize, executor, Runnable::run, false, System::nanoTime);
+    }
+
+    /**
+     * @param interval
+     * @param wheelSize number of buckets
+     * @param executor
+     * @param sender sends the frames, so that a blocking write does not delay the other emitters
+     */
+    public SseHeartbeatScheduler(Duration interval, int wheelSize, ScheduledExecutorService executor, Executor sender) {
+        this(interval, wheelSize, executor, sender, false, System::nanoTime);
+    }
+
+    SseHeartbeatScheduler(Duration interval, int wheelSize, ScheduledExecutorService executor, Executor sender, LongSupplier clock) {
+        this(interval, wheelSize, executor, sender, false, clock);
+    }
+
+    private SseHeartbeatScheduler(Duration interval, int wheelSize, ScheduledExecutorService executor, Executor sender, boolean ownExecutor, LongSupplier clock) {
+        this.intervalNanos = interval.toNanos();
+        this.wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            this.wheel.add(new HashSet<>());
+        }
+        this.executor = executor;
+        this.sender = sender;
+        this.ownExecutor = ownExecutor;
+        this.clock = clock;
+        final long tick = Math.max(1, this.intervalNanos / wheelSize);
+        executor.scheduleAtFixedRate(this::tick, tick, tick, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param timeout
+     * @return a registered emitter whose sends delay the heartbeat
+     */
+    public SseEmitter newEmitter(Long timeout) {
+        final ActivitySseEmitter emitter = new ActivitySseEmitter(timeout);
+        emitter.registration = register(emitter);
+        return emitter;
+    }
+
+    /**
+     * Registers an emitter until its completion, the heartbeat being delayed by {@link Registration#touch()}.
+     * 
+     * @param emitter
+     * @return
+     */
+    public Registration register(SseEmitter emitter) {
+        final Set<Registration> bucket = this.wheel.get(Math.floorMod(this.placement.getAndIncrement(), this.wheel.size()));
+        final Registration registration = new Registration(emitter, bucket, this.clock);
+        synchronized (bucket) {
+            bucket.add(registration);
+        }
+        emitter.onCompletion(registration::cancel);
+        emitter.onTimeout(registration::cancel);
+        emitter.onError(e -> registration.cancel());
+        return registration;
+    }
+
+    /**
+     * @return the number of emitters registered
+     */
+    public int size() {
+        int size = 0;
+        for (Set<Registration> bucket : this.wheel) {
+            synchronized (bucket) {
+                size += bucket.size();
+            }
+        }
+        return size;
+    }
+
+    void tick() {
+        try {
+            tick(this.wheel.get(this.cursor));
+        } catch (RuntimeException e) {
+            // A FAILED TICK MUST NOT CANCEL THE NEXT ONES
+        } finally {
+            this.cursor = (this.cursor + 1) % this.wheel.size();
+        }
+    }
+
+    private void tick(Set<Registration> bucket) {
+        final Registration[] registrations;
+        synchronized (bucket) {
+            registrations = bucket.toArray(new Registration[0]);
+        }
+        final long now = this.clock.getAsLong();
+        for (Registration registration : registrations) {
+            if (now - registration.lastActivity >= this.intervalNanos
+                    && registration.sending.compareAndSet(false, true)) {
+                try {
+                    this.sender.execute(() -> registration.heartbeat(now));
+                } catch (RejectedExecutionException e) {
+                    registration.sending.set(false);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.ownExecutor) {
+            this.executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Registration of an emitter.
+     */
+    public static final class Registration {
+
+        private final SseEmitter emitter;
+        private final Set<Registration> bucket;
+        private final LongSupplier clock;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile long lastActivity;
+
+        private Registration(SseEmitter emitter, Set<Registration> bucket, LongSupplier clock) {
+            this.emitter = emitter;
+            this.bucket = bucket;
+            this.clock = clock;
+            this.lastActivity = clock.getAsLong();
+        }
+
+        /**
+         * Delays the next heartbeat, to call when an event is sent.
+         */
+        public void touch() {
+            this.lastActivity = this.clock.getAsLong();
+        }
+
+        /**
+         * Stops the heartbeat of the emitter.
+         */
+        public void cancel() {
+            synchronized (this.bucket) {
+                this.bucket.remove(this);
+            }
+        }
+
+        private void heartbeat(long now) {
+            try {
+                this.emitter.send(HEARTBEAT);
+                this.lastActivity = now;
+            } catch (IOException | RuntimeException e) {
+                cancel();
+            } finally {
+                this.sending.set(false);
+            }
+        }
+
+    }
+
+    private static final class ActivitySseEmitter extends SseEmitter {
+
+        private Registration registration;
+
+        ActivitySseEmitter(Long timeout) {
+            super(timeout);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            super.send(builder);
+            this.registration.touch();
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            super.send(items);
+            if (items != HEARTBEAT) {
+                this.registration.touch();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.event;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Topic keeping the last events published in a ring buffer.
+ * <p>
+ * A client reconnecting with the <code>Last-Event-ID</code> header receives only the events
+ * it missed, then the live events, instead of the producer computing everything again.
+ * When the missed events are no longer in the buffer, or the id is unknown, the client receives
+ * a {@link #RESET_EVENT} event instead and must fetch the state again.
+ * The events are numbered by the buffer, or by the producer with {@link #publish(long, String, Object)}.
+ * With an {@link ObjectMapper}, each event is encoded once for all the emitters.
+ * <p>
+ * The events are queued by emitter and sent by the executor, in the order of publication:
+ * a slow client does not delay the publisher nor the other clients.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class SseReplayBuffer {
+
+    /**
+     * Header sent by the browser on reconnection
+     */
+    public static final String LAST_EVENT_ID = "Last-Event-ID";
+    /**
+     * Name of the event sent when the missed events cannot be replayed, its data being the id of the last event
+     */
+    public static final String RESET_EVENT = "reset";
+
+    private final Entry[] ring;
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final Set<Subscriber> subscribers = new LinkedHashSet<>();
+    private long count;
+    private long missedId;
+    private long lastId;
+
+    /**
+     * @param capacity number of events kept for the replay
+     */
+    public SseReplayBuffer(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * Buffer sending the events in the thread of the publisher.
+     * 
+     * @param capacity number of events kept for the replay
+     * @param objectMapper
+     */
+    public SseReplayBuffer(int capacity, ObjectMapper objectMapper) {
+        this(capacity, objectMapper, Runnable::run);
+    }
+
+    /**
+     * @param capacity number of events kept for the replay
+     * @param objectMapper
+     * @param executor sends the events to the emitters
+     */
+    public SseReplayBuffer(int capacity, ObjectMapper objectMapper, Executor executor) {
+        this.ring = new Entry[capacity];
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+    }
+
+    /**
+     * @param data
+     * @return the id of the event
+     * @throws JsonProcessingException
+     */
+    public long publish(Object data) throws JsonProcessingException {
+        return publish(null, data);
+    }
+
+    /**
+     * @param name
+     * @param data
+     * @return the id of the event
+     * @throws JsonProcessingException
+     */
+    public long publish(String name, Object data) throws JsonProcessingException {
+        return append(null, name, encode(data));
+    }
+
+    /**
+     * Publishes an event numbered by the producer, such as the sequence of an {@link SseEventBus},
+     * the ids not greater than the last id being ignored.
+     * <p>
+     * The events before the first event published are considered missed by the clients.
+     * 
+     * @param id
+     * @param name
+     * @param data
+     * @return false if the event has been ignored
+     * @throws JsonProcessingException
+     */
+    public boolean publish(long id, String name, Object data) throws JsonProcessingException {
+        return append(id, name, encode(data)) != -1;
+    }
+
+    private long append(Long id, String name, Object encoded) {
+        final List<Subscriber> targets = new ArrayList<>();
+        final long eventId;
+        synchronized (this) {
+            eventId = id == null ? this.lastId + 1 : id;
+            if (eventId <= this.lastId) {
+                return -1;
+            }
+            final SseEventBuilder builder = SseEmitter.event().id(Long.toString(eventId));
+            if (name != null) {
+                builder.name(name);
+            }
+            final Entry entry = new Entry(eventId, encoded instanceof String ? builder.data(encoded, MediaType.TEXT_PLAIN).build() : builder.data(encoded).build());
+            final int slot = (int) (this.count++ % this.ring.length);
+            if (this.ring[slot] != null) {
+                this.missedId = this.ring[slot].id;
+            } else if (this.count == 1) {
+                this.missedId = eventId - 1;
+            }
+            this.ring[slot] = entry;
+            this.lastId = eventId;
+            for (Subscriber subscriber : this.subscribers) {
+                if (subscriber.enqueue(entry)) {
+                    targets.add(subscriber);
+                }
+            }
+        }
+        for (Subscriber subscriber : targets) {
+            this.executor.execute(subscriber::drain);
+        }
+        return eventId;
+    }
+
+    /**
+     * Replays the events published after the last event id, then registers the emitter for the live events.
+     * 
+     * @param emitter
+     * @param lastEventId the <code>Last-Event-ID</code> header, null for a new client
+     */
+    public void subscribe(SseEmitter emitter, String lastEventId) {
+        final Subscriber subscriber = new Subscriber(emitter);
+        synchronized (this) {
+            subscriber.pending.addAll(since(parse(lastEventId)));
+            subscriber.draining = true;
+            this.subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscriber.drain();
+    }
+
+    /**
+     * Completes the emitters registered, e.g. when the topic is closed.
+     */
+    public void complete() {
+        final List<Subscriber> completed;
+        synchronized (this) {
+            completed = new ArrayList<>(this.subscribers);
+            this.subscribers.clear();
+        }
+        for (Subscriber subscriber : completed) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    /**
+     * @return the id of the last event published
+     */
+    public synchronized long getLastId() {
+        return lastId;
+    }
+
+    /**
+     * @return the number of emitters registered
+     */
+    public synchronized int getSubscriberCount() {
+        return this.subscribers.size();
+    }
+
+    private List<Entry> since(long id) {
+        if (id < 0) {
+            return List.of();
+        }
+        if (id > this.lastId
+                || id < this.missedId) {
+            final String last = Long.toString(this.lastId);
+            return List.of(new Entry(this.lastId, SseEmitter.event().id(last).name(RESET_EVENT).data(last, MediaType.TEXT_PLAIN).build()));
+        }
+        final List<Entry> entries = new ArrayList<>();
+        for (long i = Math.max(0, this.count - this.ring.length); i < this.count; i++) {
+            final Entry entry = this.ring[(int) (i % this.ring.length)];
+            if (entry.id > id) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private static long parse(String lastEventId) {
+        if (!StringUtils.hasLength(lastEventId)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private Object encode(Object data) throws JsonProcessingException {
+        return this.objectMapper == null || data instanceof String ? data : this.objectMapper.writeValueAsString(data);
+    }
+
+    private synchronized void remove(Subscriber subscriber) {
+        this.subscribers.remove(subscriber);
+    }
+
+    private static final class Entry {
+
+        private final long id;
+        private final Set<DataWithMediaType> data;
+
+        Entry(long id, Set<DataWithMediaType> data) {
+            this.id = id;
+            this.data = data;
+        }
+
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<Entry> pending = new ArrayDeque<>();
+        private boolean draining;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * @param entry
+         * @return true if the queue must be drained
+         */
+        synchronized boolean enqueue(Entry entry) {
+            this.pending.add(entry);
+            if (this.draining) {
+                return false;
+            }
+            this.draining = true;
+            return true;
+        }
+
+        void drain() {
+            Entry entry;
+            while ((entry = poll()) != null) {
+                if (!send(entry)) {
+                    synchronized (this) {
+                        this.pending.clear();
+                    }
+                }
+            }
+        }
+
+        private synchronized Entry poll() {
+            final Entry entry = this.pending.poll();
+            if (entry == null) {
+                this.draining = false;
+            }
+            return entry;
+        }
+
+        private boolean send(Entry entry) {
+            try {
+                this.emitter.send(entry.data);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                remove(this);
+                return false;
+            }
+        }
+
+    }
+
+}
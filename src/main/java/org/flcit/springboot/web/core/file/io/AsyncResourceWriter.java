@@ -0,0 +1,109 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+/**
+ * Non-blocking writer of a channel to a servlet response.
+ * <p>
+ * A chunk is read and written only while the output stream is ready,
+ * so a slow client does not hold a thread between two chunks.
+ * The channel is closed at the end of the channel, on error and on timeout.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class AsyncResourceWriter implements WriteListener, AsyncListener {
+
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream outputStream;
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * @param asyncContext
+     * @param outputStream
+     * @param channel
+     * @param chunkSize
+     */
+    public AsyncResourceWriter(AsyncContext asyncContext, ServletOutputStream outputStream, ReadableByteChannel channel, int chunkSize) {
+        this.asyncContext = asyncContext;
+        this.outputStream = outputStream;
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(chunkSize);
+    }
+
+    @Override
+    public void onWritePossible() throws IOException {
+        while (this.outputStream.isReady()) {
+            this.buffer.clear();
+            final int n = this.channel.read(this.buffer);
+            if (n == -1) {
+                close();
+                this.asyncContext.complete();
+                return;
+            }
+            this.outputStream.write(this.buffer.array(), 0, n);
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        close();
+        this.asyncContext.complete();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        close();
+        this.asyncContext.complete();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        close();
+        this.asyncContext.complete();
+    }
+
+    private void close() {
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            // CHANNEL RELEASED
+        }
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+        // Nothing to do
+    }
+
+}
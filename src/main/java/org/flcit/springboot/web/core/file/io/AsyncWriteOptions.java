@@ -0,0 +1,84 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.io;
+
+/**
+ * Options of an asynchronous file response.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class AsyncWriteOptions {
+
+    /**
+     * Default size of a chunk read from the resource: 64 KB
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int bufferSize = DEFAULT_CHUNK_SIZE;
+    private Long timeout;
+
+    /**
+     * @return
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Size of the chunks read from the resource and written to the response.
+     * 
+     * @param chunkSize
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Size of the response buffer held for each connection.
+     * 
+     * @param bufferSize
+     */
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * @return
+     */
+    public Long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Timeout of the asynchronous request in milliseconds, the container default if null.
+     * 
+     * @param timeout
+     */
+    public void setTimeout(Long timeout) {
+        this.timeout = timeout;
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Incremental computation of a content digest.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public interface ContentHasher {
+
+    /**
+     * @param b
+     * @param off
+     * @param len
+     */
+    void update(byte[] b, int off, int len);
+
+    /**
+     * Consumes the remaining bytes of the buffer.
+     * 
+     * @param buffer
+     */
+    void update(ByteBuffer buffer);
+
+    /**
+     * @return the digest, the hasher must not be used afterwards
+     */
+    byte[] digest();
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.io;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+/**
+ * Content digest algorithms.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public enum DigestAlgorithm {
+
+    /**
+     * CRC-32C, hardware accelerated checksum
+     */
+    CRC32C {
+        @Override
+        public ContentHasher newHasher() {
+            return new ChecksumHasher(new CRC32C());
+        }
+    },
+    /**
+     * SHA-256, cryptographic digest
+     */
+    SHA_256 {
+        @Override
+        public ContentHasher newHasher() {
+            try {
+                return new MessageDigestHasher(MessageDigest.getInstance("SHA-256"));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    },
+    /**
+     * XXH64, fast non-cryptographic hash
+     */
+    XXHASH64 {
+        @Override
+        public ContentHasher newHasher() {
+            return new XxHash64();
+        }
+    };
+
+    /**
+     * @return a new hasher
+     */
+    public abstract ContentHasher newHasher();
+
+    private static final class ChecksumHasher implements ContentHasher {
+
+        private final Checksum checksum;
+
+        ChecksumHasher(Checksum checksum) {
+            this.checksum = checksum;
+        }
+
+        @Override
+        public void update(byte[] b, int off, int len) {
+            this.checksum.update(b, off, len);
+        }
+
+        @Override
+        public void update(ByteBuffer buffer) {
+            this.checksum.update(buffer);
+        }
+
+        @Override
+        public byte[] digest() {
+            final long value = this.checksum.getValue();
+            return new byte[] { (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value };
+        }
+
+    }
+
+    private static final class MessageDigestHasher implements ContentHasher {
+
+        private final MessageDigest messageDigest;
+
+        MessageDigestHasher(MessageDigest messageDigest) {
+            this.messageDigest = messageDigest;
+        }
+
+        @Override
+        public void update(byte[] b, int off, int len) {
+            this.messageDigest.update(b, off, len);
+        }
+
+        @Override
+        public void update(ByteBuffer buffer) {
+            this.messageDigest.update(buffer);
+        }
+
+        @Override
+        public byte[] digest() {
+            return this.messageDigest.digest();
+        }
+
+    }
+
+}
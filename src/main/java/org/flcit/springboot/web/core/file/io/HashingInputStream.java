@@ -0,0 +1,98 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.io;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@link InputStream} computing a digest of the bytes read while the data is transferred.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class HashingInputStream extends FilterInputStream {
+
+    private final ContentHasher hasher;
+    private final byte[] single = new byte[1];
+
+    /**
+     * @param in
+     * @param algorithm
+     */
+    public HashingInputStream(InputStream in, DigestAlgorithm algorithm) {
+        super(in);
+        this.hasher = algorithm.newHasher();
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = super.read();
+        if (b != -1) {
+            this.single[0] = (byte) b;
+            this.hasher.update(this.single, 0, 1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int n = super.read(b, off, len);
+        if (n > 0) {
+            this.hasher.update(b, off, n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final byte[] b = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            final int read = read(b, 0, (int) Math.min(n - skipped, b.length));
+            if (read == -1) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        // Mark not supported: the digest can not be rewound
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * @return the digest of the bytes read, to call once the stream is fully read
+     */
+    public byte[] digest() {
+        return this.hasher.digest();
+    }
+
+}
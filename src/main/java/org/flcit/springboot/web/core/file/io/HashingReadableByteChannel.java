@@ -0,0 +1,73 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * {@link ReadableByteChannel} computing a digest of the bytes read while the data is transferred.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class HashingReadableByteChannel implements ReadableByteChannel {
+
+    private final ReadableByteChannel channel;
+    private final ContentHasher hasher;
+
+    /**
+     * @param channel
+     * @param algorithm
+     */
+    public HashingReadableByteChannel(ReadableByteChannel channel, DigestAlgorithm algorithm) {
+        this.channel = channel;
+        this.hasher = algorithm.newHasher();
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        final int position = dst.position();
+        final int n = this.channel.read(dst);
+        if (n > 0) {
+            final ByteBuffer read = dst.duplicate();
+            read.flip();
+            read.position(position);
+            this.hasher.update(read);
+        }
+        return n;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return this.channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * @return the digest of the bytes read, to call once the channel is fully read
+     */
+    public byte[] digest() {
+        return this.hasher.digest();
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.io;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.flcit.springboot.web.core.file.util.FileAssert;
+
+/**
+ * {@link InputStream} counting the bytes read and throwing a
+ * {@link org.flcit.springboot.web.core.exception.BadRequestException BadRequestException}
+ * as soon as the maximum length is reached, without waiting for the end of the stream.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class LimitedInputStream extends FilterInputStream {
+
+    private final long maxLength;
+    private final String messageErreur;
+    private long count;
+
+    /**
+     * @param in
+     * @param maxLength
+     * @param messageErreur
+     */
+    public LimitedInputStream(InputStream in, long maxLength, String messageErreur) {
+        super(in);
+        this.maxLength = maxLength;
+        this.messageErreur = messageErreur;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int n = super.read(b, off, len);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final long skipped = super.skip(n);
+        if (skipped > 0) {
+            count(skipped);
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        // Mark not supported: the count can not be rewound
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * @return
+     */
+    public long getCount() {
+        return count;
+    }
+
+    private void count(long n) {
+        this.count += n;
+        FileAssert.checkMaxLength(this.count, this.maxLength, this.messageErreur);
+    }
+
+}
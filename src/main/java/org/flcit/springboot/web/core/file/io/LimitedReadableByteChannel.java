@@ -0,0 +1,78 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+import org.flcit.springboot.web.core.file.util.FileAssert;
+
+/**
+ * {@link ReadableByteChannel} counting the bytes read and throwing a
+ * {@link org.flcit.springboot.web.core.exception.BadRequestException BadRequestException}
+ * as soon as the maximum length is reached.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class LimitedReadableByteChannel implements ReadableByteChannel {
+
+    private final ReadableByteChannel channel;
+    private final long maxLength;
+    private final String messageErreur;
+    private long count;
+
+    /**
+     * @param channel
+     * @param maxLength
+     * @param messageErreur
+     */
+    public LimitedReadableByteChannel(ReadableByteChannel channel, long maxLength, String messageErreur) {
+        this.channel = channel;
+        this.maxLength = maxLength;
+        this.messageErreur = messageErreur;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        final int n = this.channel.read(dst);
+        if (n > 0) {
+            this.count += n;
+            FileAssert.checkMaxLength(this.count, this.maxLength, this.messageErreur);
+        }
+        return n;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return this.channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * @return
+     */
+    public long getCount() {
+        return count;
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.io;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Streaming implementation of the XXH64 hash, seed 0.
+ * The digest is the big-endian representation of the 64 bits value.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public final class XxHash64 implements ContentHasher {
+
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+    private static final int STRIPE = 32;
+
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final byte[] buffer = new byte[STRIPE];
+    private int bufferLength;
+    private long totalLength;
+    private long v1 = PRIME64_1 + PRIME64_2;
+    private long v2 = PRIME64_2;
+    private long v3 = 0;
+    private long v4 = -PRIME64_1;
+
+    @Override
+    public void update(byte[] b, int off, int len) {
+        this.totalLength += len;
+        if (this.bufferLength > 0) {
+            final int n = Math.min(len, STRIPE - this.bufferLength);
+            System.arraycopy(b, off, this.buffer, this.bufferLength, n);
+            this.bufferLength += n;
+            off += n;
+            len -= n;
+            if (this.bufferLength < STRIPE) {
+                return;
+            }
+            stripe(this.buffer, 0);
+            this.bufferLength = 0;
+        }
+        final int end = off + len;
+        while (end - off >= STRIPE) {
+            stripe(b, off);
+            off += STRIPE;
+        }
+        if (off < end) {
+            System.arraycopy(b, off, this.buffer, 0, end - off);
+            this.bufferLength = end - off;
+        }
+    }
+
+    @Override
+    public void update(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            update(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            buffer.position(buffer.limit());
+            return;
+        }
+        final byte[] chunk = new byte[Math.min(buffer.remaining(), 8192)];
+        while (buffer.hasRemaining()) {
+            final int n = Math.min(buffer.remaining(), chunk.length);
+            buffer.get(chunk, 0, n);
+            update(chunk, 0, n);
+        }
+    }
+
+    private void stripe(byte[] b, int off) {
+        this.v1 = round(this.v1, (long) LONG_LE.get(b, off));
+        this.v2 = round(this.v2, (long) LONG_LE.get(b, off + 8));
+        this.v3 = round(this.v3, (long) LONG_LE.get(b, off + 16));
+        this.v4 = round(this.v4, (long) LONG_LE.get(b, off + 24));
+    }
+
+    /**
+     * @return the hash value
+     */
+    public long getValue() {
+        long h;
+        if (this.totalLength >= STRIPE) {
+            h = Long.rotateLeft(this.v1, 1) + Long.rotateLeft(this.v2, 7) + Long.rotateLeft(this.v3, 12) + Long.rotateLeft(this.v4, 18);
+            h = mergeRound(h, this.v1);
+            h = mergeRound(h, this.v2);
+            h = mergeRound(h, this.v3);
+            h = mergeRound(h, this.v4);
+        } else {
+            h = PRIME64_5;
+        }
+        h += this.totalLength;
+        int i = 0;
+        for (; i + 8 <= this.bufferLength; i += 8) {
+            h ^= round(0, (long) LONG_LE.get(this.buffer, i));
+            h = Long.rotateLeft(h, 27) * PRIME64_1 + PRIME64_4;
+        }
+        if (i + 4 <= this.bufferLength) {
+            h ^= (Integer.toUnsignedLong((int) INT_LE.get(this.buffer, i))) * PRIME64_1;
+            h = Long.rotateLeft(h, 23) * PRIME64_2 + PRIME64_3;
+            i += 4;
+        }
+        for (; i < this.bufferLength; i++) {
+            h ^= (this.buffer[i] & 0xFFL) * PRIME64_5;
+            h = Long.rotateLeft(h, 11) * PRIME64_1;
+        }
+        h ^= h >>> 33;
+        h *= PRIME64_2;
+        h ^= h >>> 29;
+        h *= PRIME64_3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    @Override
+    public byte[] digest() {
+        final long value = getValue();
+        final byte[] digest = new byte[8];
+        for (int i = 7; i >= 0; i--) {
+            digest[7 - i] = (byte) (value >>> (i * 8));
+        }
+        return digest;
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * PRIME64_2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME64_1;
+    }
+
+    private static long mergeRound(long acc, long value) {
+        acc ^= round(0, value);
+        return acc * PRIME64_1 + PRIME64_4;
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.resource;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.MediaType;
+
+/**
+ * File resource which can be opened several times, unlike {@link FileInputStreamResource}.
+ * <p>
+ * Backed by a {@link Path} or by an {@link InputStreamSource} returning a new stream on each call,
+ * see {@link #spill(InputStream, String, MediaType, long)} for a one-shot stream.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class ReusableFileResource extends AbstractResource implements Closeable {
+
+    private final Path path;
+    private final InputStreamSource source;
+    private final String filename;
+    private final MediaType contentType;
+    private final long contentLength;
+
+    /**
+     * @param path
+     */
+    public ReusableFileResource(Path path) {
+        this(path, path.getFileName().toString(), null);
+    }
+
+    /**
+     * @param path
+     * @param filename
+     * @param contentType
+     */
+    public ReusableFileResource(Path path, String filename, MediaType contentType) {
+        this(path, null, filename, contentType, -1);
+    }
+
+    /**
+     * @param source
+     * @param filename
+     * @param contentLength the length, or -1 if unknown
+     */
+    public ReusableFileResource(InputStreamSource source, String filename, long contentLength) {
+        this(source, filename, null, contentLength);
+    }
+
+    /**
+     * @param source
+     * @param filename
+     * @param contentType
+     * @param contentLength the length, or -1 if unknown
+     */
+    public ReusableFileResource(InputStreamSource source, String filename, MediaType contentType, long contentLength) {
+        this(null, source, filename, contentType, contentLength);
+    }
+
+    private ReusableFileResource(Path path, InputStreamSource source, String filename, MediaType contentType, long contentLength) {
+        this.path = path;
+        this.source = source;
+        this.filename = filename;
+        this.contentType = contentType;
+        this.contentLength = contentLength;
+    }
+
+    /**
+     * Reusable resource over a one-shot stream: the stream is copied to a temporary file
+     * while it is read the first time, deleted on {@link #close()}.
+     * 
+     * @param inputStream
+     * @param filename
+     * @param contentType
+     * @param contentLength the length, or -1 if unknown
+     * @return
+     * @throws IOException
+     */
+    public static ReusableFileResource spill(InputStream inputStream, String filename, MediaType contentType, long contentLength) throws IOException {
+        return new ReusableFileResource(new SpillInputStreamSource(inputStream), filename, contentType, contentLength);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return this.path != null ? Files.newInputStream(this.path) : this.source.getInputStream();
+    }
+
+    @Override
+    public ReadableByteChannel readableChannel() throws IOException {
+        return this.path != null ? FileChannel.open(this.path) : super.readableChannel();
+    }
+
+    @Override
+    public boolean exists() {
+        return this.path == null || Files.exists(this.path);
+    }
+
+    @Override
+    public boolean isFile() {
+        return this.path != null;
+    }
+
+    @Override
+    public File getFile() throws IOException {
+        return this.path != null ? this.path.toFile() : super.getFile();
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        if (this.path != null) {
+            return Files.size(this.path);
+        }
+        if (this.contentLength > -1) {
+            return this.contentLength;
+        }
+        return this.source instanceof SpillInputStreamSource spill ? spill.size() : super.contentLength();
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return this.path != null ? Files.getLastModifiedTime(this.path).toMillis() : super.lastModified();
+    }
+
+    @Override
+    public String getFilename() {
+        return this.filename;
+    }
+
+    /**
+     * @return
+     */
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return false;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Reusable file resource [" + (this.path != null ? this.path : this.filename) + "]";
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.source instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, source, filename, contentType, contentLength);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+        ReusableFileResource other = (ReusableFileResource) obj;
+        return contentLength == other.contentLength && Objects.equals(path, other.path)
+                && Objects.equals(source, other.source) && Objects.equals(filename, other.filename)
+                && Objects.equals(contentType, other.contentType);
+    }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.resource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.core.io.InputStreamSource;
+
+/**
+ * {@link InputStreamSource} over a one-shot {@link InputStream}.
+ * <p>
+ * The first stream returned reads the source and copies it to a temporary file at the same time.
+ * Every following stream reads the temporary file: if the first one was not fully read,
+ * the rest of the source is copied first and the first stream goes on reading from the file.
+ * The temporary file is deleted on {@link #close()}.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class SpillInputStreamSource implements InputStreamSource, Closeable {
+
+    private static final int SPILLED = -2;
+
+    private final InputStream source;
+    private final Path file;
+    private OutputStream spill;
+    private boolean started;
+    private boolean spilled;
+
+    /**
+     * @param source
+     * @throws IOException
+     */
+    public SpillInputStreamSource(InputStream source) throws IOException {
+        this(source, Files.createTempFile("spill", ".tmp"));
+    }
+
+    /**
+     * @param source
+     * @param file the temporary file, deleted on close
+     */
+    public SpillInputStreamSource(InputStream source, Path file) {
+        this.source = source;
+        this.file = file;
+    }
+
+    @Override
+    public synchronized InputStream getInputStream() throws IOException {
+        if (!this.started) {
+            this.started = true;
+            this.spill = Files.newOutputStream(this.file);
+            return new TeeInputStream();
+        }
+        if (!this.spilled) {
+            this.source.transferTo(this.spill);
+            finish();
+        }
+        return Files.newInputStream(this.file);
+    }
+
+    /**
+     * Copy the rest of the source to the temporary file if needed, only the first time.
+     * @return the length of the content
+     * @throws IOException
+     */
+    public synchronized long size() throws IOException {
+        if (!this.spilled) {
+            if (!this.started) {
+                this.started = true;
+                this.spill = Files.newOutputStream(this.file);
+            }
+            this.source.transferTo(this.spill);
+            finish();
+        }
+        return Files.size(this.file);
+    }
+
+    /**
+     * @return true if the source has been fully copied to the temporary file
+     */
+    public synchronized boolean isSpilled() {
+        return spilled;
+    }
+
+    /**
+     * @return
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    private void finish() throws IOException {
+        this.spilled = true;
+        try {
+            this.spill.close();
+        } finally {
+            this.source.close();
+        }
+    }
+
+    private synchronized int readSource(byte[] b, int off, int len) throws IOException {
+        if (this.spilled) {
+            return SPILLED;
+        }
+        final int n = this.source.read(b, off, len);
+        if (n == -1) {
+            finish();
+        } else {
+            this.spill.write(b, off, n);
+        }
+        return n;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (this.started && !this.spilled) {
+                finish();
+            } else if (!this.started) {
+                this.source.close();
+            }
+        } finally {
+            Files.deleteIfExists(this.file);
+        }
+    }
+
+    private class TeeInputStream extends InputStream {
+
+        private long position;
+        private FileChannel channel;
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            int n = this.channel == null ? readSource(b, off, len) : SPILLED;
+            if (n == SPILLED) {
+                if (this.channel == null) {
+                    this.channel = FileChannel.open(file);
+                }
+                n = this.channel.read(ByteBuffer.wrap(b, off, len), this.position);
+            }
+            if (n > 0) {
+                this.position += n;
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.channel != null) {
+                this.channel.close();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.source;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * File assembled by a {@link ChunkedUpload}, its working folder being deleted once the file is consumed:
+ * the file is moved by a transfer, and deleted by {@link #close()} otherwise.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class ChunkedMultipartFile extends FileMultipartFile implements Closeable {
+
+    private final Path folder;
+
+    /**
+     * @param file
+     * @param folder working folder of the upload
+     */
+    public ChunkedMultipartFile(File file, Path folder) {
+        super(file);
+        this.folder = folder;
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        transferTo(dest.toPath());
+    }
+
+    @Override
+    public void transferTo(Path dest) throws IOException {
+        Files.move(getFile().toPath(), dest, StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(this.folder);
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(getFile().toPath());
+        Files.deleteIfExists(this.folder);
+    }
+
+}
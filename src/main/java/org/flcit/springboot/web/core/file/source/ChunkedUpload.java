@@ -0,0 +1,281 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.source;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+import org.flcit.springboot.web.core.exception.BadRequestException;
+import org.flcit.springboot.web.core.exception.ConflictException;
+
+/**
+ * Upload of a file in numbered chunks, received in any order and in parallel.
+ * <p>
+ * The file is preallocated and each chunk is written at its offset with a positional write,
+ * the received chunks being tracked in a bitmap so an interrupted upload can be resumed
+ * with {@link #getMissingChunks()}.
+ * <p>
+ * A chunk is marked as received only once fully written: a chunk sent again is missing while it is written,
+ * and stays missing if the write fails.
+ * {@link #toMultipartFile()} waits for the writes in progress, the writes starting after it are rejected.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class ChunkedUpload implements Closeable {
+
+    private static final String MESSAGE_WRONG_CHUNK = "CHUNK %d NOT EXIST IN THE UPLOAD %s";
+    private static final String MESSAGE_WRONG_CHUNK_SIZE = "CHUNK %d OF THE UPLOAD %s MUST CONTAIN %d BYTES";
+    private static final String MESSAGE_NOT_COMPLETE = "UPLOAD %s NOT COMPLETE";
+    private static final String MESSAGE_CLOSED = "UPLOAD %s ALREADY CLOSED";
+    private static final String MESSAGE_TOO_MANY_CHUNKS = "UPLOAD %s HAS TOO MANY CHUNKS";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String id;
+    private final Path file;
+    private final long totalSize;
+    private final int chunkSize;
+    private final int chunkCount;
+    private final BitSet received;
+    private final FileChannel channel;
+    private int writers;
+    private boolean closed;
+    private volatile long lastAccess = System.nanoTime();
+
+    /**
+     * @param id
+     * @param file
+     * @param totalSize
+     * @param chunkSize
+     * @throws IOException
+     */
+    public ChunkedUpload(String id, Path file, long totalSize, int chunkSize) throws IOException {
+        if (totalSize < 0 || chunkSize <= 0) {
+            throw new BadRequestException();
+        }
+        this.id = id;
+        this.file = file;
+        this.totalSize = totalSize;
+        this.chunkSize = chunkSize;
+        final long count = Math.max(1, totalSize / chunkSize + (totalSize % chunkSize == 0 ? 0 : 1));
+        if (count > Integer.MAX_VALUE) {
+            throw new BadRequestException(String.format(MESSAGE_TOO_MANY_CHUNKS, id));
+        }
+        this.chunkCount = (int) count;
+        this.received = new BitSet(this.chunkCount);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(totalSize);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Writes a chunk at its offset, a chunk can be sent again.
+     * 
+     * @param index
+     * @param in
+     * @return true if all the chunks have been received
+     * @throws IOException
+     */
+    public boolean write(int index, InputStream in) throws IOException {
+        if (index < 0 || index >= this.chunkCount) {
+            throw new BadRequestException(String.format(MESSAGE_WRONG_CHUNK, index, this.id));
+        }
+        synchronized (this.received) {
+            if (this.closed) {
+                throw new ConflictException(String.format(MESSAGE_CLOSED, this.id));
+            }
+            this.writers++;
+            this.received.clear(index);
+        }
+        this.lastAccess = System.nanoTime();
+        try {
+            writeChunk(index, in);
+        } catch (IOException | RuntimeException e) {
+            end();
+            throw e;
+        }
+        synchronized (this.received) {
+            this.received.set(index);
+            end();
+            return this.received.cardinality() == this.chunkCount;
+        }
+    }
+
+    private void end() {
+        synchronized (this.received) {
+            this.writers--;
+            this.lastAccess = System.nanoTime();
+            this.received.notifyAll();
+        }
+    }
+
+    private void writeChunk(int index, InputStream in) throws IOException {
+        final long offset = (long) index * this.chunkSize;
+        final long length = Math.min(this.chunkSize, this.totalSize - offset);
+        final byte[] bytes = new byte[(int) Math.min(BUFFER_SIZE, Math.max(1, length))];
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long written = 0;
+        int n;
+        while ((n = in.read(bytes, 0, (int) Math.min(bytes.length, length - written + 1))) != -1) {
+            if (written + n > length) {
+                throw new BadRequestException(String.format(MESSAGE_WRONG_CHUNK_SIZE, index, this.id, length));
+            }
+            buffer.clear().limit(n);
+            while (buffer.hasRemaining()) {
+                this.channel.write(buffer, offset + written + buffer.position());
+            }
+            written += n;
+        }
+        if (written != length) {
+            throw new BadRequestException(String.format(MESSAGE_WRONG_CHUNK_SIZE, index, this.id, length));
+        }
+    }
+
+    /**
+     * @return
+     */
+    public boolean isComplete() {
+        synchronized (this.received) {
+            return this.received.cardinality() == this.chunkCount;
+        }
+    }
+
+    /**
+     * @return the indexes of the chunks not received yet
+     */
+    public int[] getMissingChunks() {
+        final BitSet missing;
+        synchronized (this.received) {
+            missing = (BitSet) this.received.clone();
+        }
+        missing.flip(0, this.chunkCount);
+        return missing.stream().toArray();
+    }
+
+    /**
+     * Flushes the assembled file and closes the upload.
+     * 
+     * @return
+     * @throws IOException
+     */
+    public FileMultipartFile toMultipartFile() throws IOException {
+        synchronized (this.received) {
+            if (this.closed) {
+                throw new ConflictException(String.format(MESSAGE_CLOSED, this.id));
+            }
+            this.closed = true;
+            try {
+                while (this.writers > 0) {
+                    this.received.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.closed = false;
+                throw new ConflictException(String.format(MESSAGE_NOT_COMPLETE, this.id));
+            }
+            if (this.received.cardinality() != this.chunkCount) {
+                this.closed = false;
+                throw new ConflictException(String.format(MESSAGE_NOT_COMPLETE, this.id));
+            }
+        }
+        this.channel.force(true);
+        close();
+        return new FileMultipartFile(this.file.toFile());
+    }
+
+    /**
+     * Closes the upload and deletes the file.
+     * 
+     * @throws IOException
+     */
+    public void abort() throws IOException {
+        synchronized (this.received) {
+            this.closed = true;
+        }
+        close();
+        Files.deleteIfExists(this.file);
+    }
+
+    /**
+     * Closes the upload if no chunk has been written for the timeout, the file being deleted by {@link #abort()}.
+     * 
+     * @param now {@link System#nanoTime()}
+     * @param timeoutNanos
+     * @return true if the upload has been closed
+     */
+    boolean expire(long now, long timeoutNanos) {
+        synchronized (this.received) {
+            if (this.closed
+                    || this.writers > 0
+                    || now - this.lastAccess < timeoutNanos) {
+                return false;
+            }
+            this.closed = true;
+            return true;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * @return the file being assembled
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return
+     */
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * @return
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return
+     */
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.source;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.flcit.springboot.web.core.exception.ConflictException;
+import org.flcit.springboot.web.core.exception.NotFoundException;
+
+/**
+ * Registry of the {@link ChunkedUpload} in progress, the files being created in a working directory.
+ * <p>
+ * With an idle timeout, the uploads without any chunk written for the timeout are aborted by {@link #expire()}.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class ChunkedUploadRegistry {
+
+    private static final String MESSAGE_NOT_FOUND = "UPLOAD %s NOT FOUND";
+
+    private final Path directory;
+    private final long idleTimeoutNanos;
+    private final Map<String, ChunkedUpload> uploads = new ConcurrentHashMap<>();
+
+    /**
+     * @param directory
+     */
+    public ChunkedUploadRegistry(Path directory) {
+        this.directory = directory;
+        this.idleTimeoutNanos = Long.MAX_VALUE;
+    }
+
+    /**
+     * @param directory
+     * @param idleTimeout
+     * @param scheduler running {@link #expire()} every half timeout
+     */
+    public ChunkedUploadRegistry(Path directory, Duration idleTimeout, ScheduledExecutorService scheduler) {
+        this.directory = directory;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        final long period = Math.max(1, this.idleTimeoutNanos / 2);
+        scheduler.scheduleAtFixedRate(this::expire, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param filename
+     * @param totalSize
+     * @param chunkSize
+     * @return the new upload
+     * @throws IOException
+     */
+    public ChunkedUpload start(String filename, long totalSize, int chunkSize) throws IOException {
+        final String id = UUID.randomUUID().toString();
+        final Path folder = this.directory.resolve(id);
+        Files.createDirectories(folder);
+        final ChunkedUpload upload;
+        try {
+            upload = new ChunkedUpload(id, folder.resolve(Path.of(filename).getFileName()), totalSize, chunkSize);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(folder.resolve(Path.of(filename).getFileName()));
+            Files.deleteIfExists(folder);
+            throw e;
+        }
+        this.uploads.put(id, upload);
+        return upload;
+    }
+
+    /**
+     * @param id
+     * @return
+     */
+    public ChunkedUpload get(String id) {
+        final ChunkedUpload upload = this.uploads.get(id);
+        if (upload == null) {
+            throw new NotFoundException(String.format(MESSAGE_NOT_FOUND, id));
+        }
+        return upload;
+    }
+
+    /**
+     * Writes a chunk, the assembled file being returned and the upload removed when it is the last chunk.
+     * <p>
+     * The assembled file must be transferred or closed to delete the working folder.
+     * 
+     * @param id
+     * @param index
+     * @param in
+     * @return the assembled file, or null if chunks are missing
+     * @throws IOException
+     */
+    public ChunkedMultipartFile write(String id, int index, InputStream in) throws IOException {
+        final ChunkedUpload upload = get(id);
+        if (!upload.write(index, in)
+                || this.uploads.remove(id) == null) {
+            return null;
+        }
+        try {
+            return new ChunkedMultipartFile(upload.toMultipartFile().getFile(), this.directory.resolve(id));
+        } catch (ConflictException e) {
+            this.uploads.putIfAbsent(id, upload);
+            throw e;
+        }
+    }
+
+    /**
+     * Aborts the uploads idle for the timeout.
+     * 
+     * @return the number of uploads aborted
+     */
+    public int expire() {
+        return expire(System.nanoTime());
+    }
+
+    int expire(long now) {
+        int count = 0;
+        for (ChunkedUpload upload : this.uploads.values()) {
+            if (upload.expire(now, this.idleTimeoutNanos)
+                    && this.uploads.remove(upload.getId(), upload)) {
+                count++;
+                try {
+                    delete(upload);
+                } catch (IOException e) {
+                    // FOLDER LEFT IN THE WORKING DIRECTORY
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param id
+     * @throws IOException
+     */
+    public void abort(String id) throws IOException {
+        final ChunkedUpload upload = this.uploads.remove(id);
+        if (upload != null) {
+            delete(upload);
+        }
+    }
+
+    private void delete(ChunkedUpload upload) throws IOException {
+        upload.abort();
+        Files.deleteIfExists(this.directory.resolve(upload.getId()));
+    }
+
+}
@@ -40,6 +40,13 @@ public class FileMultipartFile implements MultipartFile {
         this.file = file;
     }
 
+    /**
+     * @return
+     */
+    public File getFile() {
+        return file;
+    }
+
     @Override
     public String getName() {
         return this.file.getName();
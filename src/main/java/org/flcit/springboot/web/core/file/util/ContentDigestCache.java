@@ -0,0 +1,249 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+
+import org.flcit.springboot.web.core.file.io.ContentHasher;
+import org.flcit.springboot.web.core.file.io.DigestAlgorithm;
+import org.flcit.springboot.web.core.file.io.HashingInputStream;
+import org.flcit.springboot.web.core.file.source.FileMultipartFile;
+
+/**
+ * Bounded cache of file digests, keyed by path, last modified time and size:
+ * a file is hashed again only when it changes.
+ * Content without a file is hashed on each call.
+ * <p>
+ * An upload stored with {@link #transfer(InputStream, Path, DigestAlgorithm)} is hashed while it is written.
+ * A file not registered (written by another process, cache entry evicted) is read once more
+ * to compute its digest on the first call: an <code>ETag</code> header is sent before the body,
+ * so it can not be computed while the file is downloaded.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class ContentDigestCache {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Map<Key, String> cache;
+
+    /**
+     * @param maxEntries
+     */
+    public ContentDigestCache(final int maxEntries) {
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @param path
+     * @param algorithm
+     * @return the hexadecimal digest
+     * @throws IOException
+     */
+    public String digest(Path path, DigestAlgorithm algorithm) throws IOException {
+        final Key key = key(path, algorithm);
+        String digest = get(key);
+        if (digest == null) {
+            digest = hash(path, algorithm);
+            put(key, digest);
+        }
+        return digest;
+    }
+
+    /**
+     * Registers a digest computed while the file was written, e.g. during an upload.
+     * 
+     * @param path
+     * @param algorithm
+     * @param digest
+     * @throws IOException
+     */
+    public void put(Path path, DigestAlgorithm algorithm, byte[] digest) throws IOException {
+        put(key(path, algorithm), HexFormat.of().formatHex(digest));
+    }
+
+    /**
+     * Copies the content to the file while its digest is computed, then registers the digest:
+     * no separate read of the file is needed for the <code>ETag</code>.
+     * 
+     * @param in closed by the caller
+     * @param target replaced if it exists
+     * @param algorithm
+     * @return the hexadecimal digest
+     * @throws IOException
+     */
+    public String transfer(InputStream in, Path target, DigestAlgorithm algorithm) throws IOException {
+        final HashingInputStream hashing = new HashingInputStream(in, algorithm);
+        Files.copy(hashing, target, StandardCopyOption.REPLACE_EXISTING);
+        final byte[] digest = hashing.digest();
+        put(target, algorithm, digest);
+        return HexFormat.of().formatHex(digest);
+    }
+
+    /**
+     * @param file uploaded file
+     * @param target replaced if it exists
+     * @param algorithm
+     * @return the hexadecimal digest
+     * @throws IOException
+     * @see #transfer(InputStream, Path, DigestAlgorithm)
+     */
+    public String transfer(MultipartFile file, Path target, DigestAlgorithm algorithm) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return transfer(in, target, algorithm);
+        }
+    }
+
+    /**
+     * @param resource
+     * @param algorithm
+     * @return the hexadecimal digest
+     * @throws IOException
+     */
+    public String digest(Resource resource, DigestAlgorithm algorithm) throws IOException {
+        if (resource.isFile()) {
+            return digest(resource.getFile().toPath(), algorithm);
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return hash(in, algorithm);
+        }
+    }
+
+    /**
+     * Digest usable as a deduplication key of an upload.
+     * 
+     * @param file
+     * @param algorithm
+     * @return the hexadecimal digest
+     * @throws IOException
+     */
+    public String digest(MultipartFile file, DigestAlgorithm algorithm) throws IOException {
+        if (file instanceof FileMultipartFile fileMultipartFile) {
+            return digest(fileMultipartFile.getFile().toPath(), algorithm);
+        }
+        try (InputStream in = file.getInputStream()) {
+            return hash(in, algorithm);
+        }
+    }
+
+    /**
+     * @param resource
+     * @param algorithm
+     * @return the strong ETag of a file resource, null for other resources which can not be read twice.
+     * The file is read to compute the digest if it is not in the cache
+     * @throws IOException
+     */
+    public String eTag(Resource resource, DigestAlgorithm algorithm) throws IOException {
+        return resource.isFile() ? '"' + digest(resource, algorithm) + '"' : null;
+    }
+
+    /**
+     * @param in
+     * @param algorithm
+     * @return the hexadecimal digest
+     * @throws IOException
+     */
+    public static String hash(InputStream in, DigestAlgorithm algorithm) throws IOException {
+        final ContentHasher hasher = algorithm.newHasher();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            hasher.update(buffer, 0, n);
+        }
+        return HexFormat.of().formatHex(hasher.digest());
+    }
+
+    private static String hash(Path path, DigestAlgorithm algorithm) throws IOException {
+        final ContentHasher hasher = algorithm.newHasher();
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(path)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                hasher.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(hasher.digest());
+    }
+
+    private static Key key(Path path, DigestAlgorithm algorithm) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return new Key(path.toAbsolutePath().normalize(), attributes.lastModifiedTime().toMillis(), attributes.size(), algorithm);
+    }
+
+    private synchronized String get(Key key) {
+        return this.cache.get(key);
+    }
+
+    private synchronized void put(Key key, String digest) {
+        this.cache.put(key, digest);
+    }
+
+    private static final class Key {
+
+        private final Path path;
+        private final long lastModified;
+        private final long size;
+        private final DigestAlgorithm algorithm;
+
+        Key(Path path, long lastModified, long size, DigestAlgorithm algorithm) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, lastModified, size, algorithm);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null || getClass() != obj.getClass())
+                return false;
+            Key other = (Key) obj;
+            return lastModified == other.lastModified && size == other.size
+                    && algorithm == other.algorithm && Objects.equals(path, other.path);
+        }
+
+    }
+
+}
@@ -17,8 +17,15 @@
 package org.flcit.springboot.web.core.file.util;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 import org.flcit.springboot.web.core.exception.BadRequestException;
+import org.flcit.springboot.web.core.file.io.LimitedInputStream;
+import org.flcit.springboot.web.core.file.io.LimitedReadableByteChannel;
+import org.flcit.springboot.web.core.file.resource.FileInputStreamResource;
 import org.springframework.core.io.Resource;
 
 /**
@@ -51,4 +58,57 @@ public final class FileAssert {
         }
     }
 
+    /**
+     * Early check on the <code>Content-Length</code> header, before the body is read.
+     * An unknown length (chunked transfer) is accepted and must be limited while streaming.
+     * 
+     * @param request
+     * @param maxLength
+     * @param messageErreur
+     */
+    public static void checkMaxLength(final HttpServletRequest request, final long maxLength, final String messageErreur) {
+        final long contentLength = request.getContentLengthLong();
+        if (contentLength > -1) {
+            checkMaxLength(contentLength, maxLength, messageErreur);
+        }
+    }
+
+    /**
+     * @param inputStream
+     * @param maxLength
+     * @param messageErreur
+     * @return
+     */
+    public static InputStream limit(final InputStream inputStream, final long maxLength, final String messageErreur) {
+        return new LimitedInputStream(inputStream, maxLength, messageErreur);
+    }
+
+    /**
+     * @param channel
+     * @param maxLength
+     * @param messageErreur
+     * @return
+     */
+    public static ReadableByteChannel limit(final ReadableByteChannel channel, final long maxLength, final String messageErreur) {
+        return new LimitedReadableByteChannel(channel, maxLength, messageErreur);
+    }
+
+    /**
+     * Checks the declared length when it is known without reading the resource,
+     * then returns a stream limited to the maximum length.
+     * 
+     * @param resource
+     * @param maxLength
+     * @param messageErreur
+     * @return
+     * @throws IOException
+     */
+    public static InputStream getInputStream(final Resource resource, final long maxLength, final String messageErreur) throws IOException {
+        if (resource instanceof FileInputStreamResource
+                || resource.isFile()) {
+            checkMaxLength(resource, maxLength, messageErreur);
+        }
+        return limit(resource.getInputStream(), maxLength, messageErreur);
+    }
+
 }
@@ -16,15 +16,27 @@
 
 package org.flcit.springboot.web.core.file.util;
 
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import org.flcit.commons.core.file.util.ContentTypeUtils;
 import org.flcit.commons.core.file.util.FileUtils;
 import org.flcit.commons.core.file.util.WebFileUtils;
+import org.flcit.springboot.web.core.file.io.AsyncResourceWriter;
+import org.flcit.springboot.web.core.file.io.AsyncWriteOptions;
+import org.flcit.springboot.web.core.file.io.DigestAlgorithm;
+import org.flcit.springboot.web.core.file.resource.FileInputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 /**
@@ -73,6 +85,29 @@ public final class ResponseFileUtils {
                         getContentType(resource));
     }
 
+    /**
+     * Same as {@link #get(Resource, String)} with a strong <code>ETag</code> for file resources,
+     * the digest being cached until the file changes.
+     * A file not stored with {@link ContentDigestCache#transfer(java.io.InputStream, java.nio.file.Path, DigestAlgorithm)}
+     * is read once to compute the digest before the first download.
+     * 
+     * @param resource
+     * @param newName
+     * @param digestCache
+     * @param algorithm
+     * @return
+     * @throws IOException
+     */
+    public static ResponseEntity<Resource> get(Resource resource, String newName, ContentDigestCache digestCache, DigestAlgorithm algorithm) throws IOException {
+        final String eTag = digestCache.eTag(resource, algorithm);
+        final ResponseEntity<Resource> response = get(resource, newName);
+        return eTag == null ? response : ResponseEntity
+                .ok()
+                .headers(response.getHeaders())
+                .eTag(eTag)
+                .body(resource);
+    }
+
     /**
      * @param response
      * @param filename
@@ -91,6 +126,44 @@ public final class ResponseFileUtils {
         response.addHeader(HttpHeaders.CONTENT_TYPE, contentType);
     }
 
+    /**
+     * Writes the resource with the Servlet non-blocking I/O: the request thread is released
+     * and the chunks are written only when the client can receive them.
+     * The handler must return <code>void</code>.
+     * 
+     * @param request
+     * @param response
+     * @param resource
+     * @param filename
+     * @param options
+     * @throws IOException
+     */
+    public static void writeAsync(HttpServletRequest request, HttpServletResponse response, Resource resource, String filename, AsyncWriteOptions options) throws IOException {
+        Assert.isTrue(options.getChunkSize() > 0, "chunkSize must be positive");
+        Assert.isTrue(options.getChunkSize() <= options.getBufferSize(), "chunkSize must not exceed bufferSize");
+        final String name = StringUtils.hasLength(filename) ? filename : resource.getFilename();
+        set(response, name, ContentTypeUtils.get(name));
+        if (resource instanceof FileInputStreamResource
+                || resource.isFile()) {
+            response.setContentLengthLong(resource.contentLength());
+        }
+        response.setBufferSize(options.getBufferSize());
+        final ReadableByteChannel channel = resource.isFile() ? FileChannel.open(resource.getFile().toPath()) : resource.readableChannel();
+        try {
+            final AsyncContext asyncContext = request.startAsync();
+            if (options.getTimeout() != null) {
+                asyncContext.setTimeout(options.getTimeout());
+            }
+            final ServletOutputStream outputStream = response.getOutputStream();
+            final AsyncResourceWriter writer = new AsyncResourceWriter(asyncContext, outputStream, channel, options.getChunkSize());
+            asyncContext.addListener(writer);
+            outputStream.setWriteListener(writer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
     private static String getContentType(Resource resource) {
         return ContentTypeUtils.get(resource.getFilename());      
     }
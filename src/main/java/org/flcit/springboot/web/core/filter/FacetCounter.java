@@ -0,0 +1,199 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.flcit.springboot.web.core.exception.WrongFilterColumnException;
+import org.flcit.springboot.web.core.util.PropertyAccessor;
+import org.flcit.springboot.web.core.util.PropertyAccessors;
+
+/**
+ * Count of the values of several properties under a filter, computed in one pass over the rows.
+ * <p>
+ * The count of a facet ignores the criteria on its own property: a row rejected only by these criteria
+ * is still counted for the facet, e.g. all the status of the rows matching the other filters.
+ * The null values are not counted.
+ * The values of a facet are ordered by {@link #FACET_ORDER}.
+ * 
+ * @param <T>
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public final class FacetCounter<T> {
+
+    private static final int NO_FACET = -1;
+    private static final int ALL_FACETS = -2;
+
+    /**
+     * Order of the values of a facet: the most frequent value first,
+     * then the values of a same count by their natural order when comparable with each other,
+     * by class name and string value otherwise, so that the order does not depend on the hash of the values.
+     */
+    public static final Comparator<Map.Entry<Object, Long>> FACET_ORDER = Map.Entry.<Object, Long>comparingByValue().reversed()
+            .thenComparing(Map.Entry::getKey, FacetCounter::compareValues);
+
+    private final List<FilterPredicate<T>> conditions;
+    private final int[] conditionFacets;
+    private final String[] facets;
+    private final PropertyAccessor[] accessors;
+
+    private FacetCounter(List<FilterCriterion> criteria, Class<T> type, String... facets) {
+        this.facets = facets;
+        this.accessors = new PropertyAccessor[facets.length];
+        for (int i = 0; i < facets.length; i++) {
+            this.accessors[i] = PropertyAccessors.of(type, facets[i]);
+            if (this.accessors[i] == null) {
+                throw new WrongFilterColumnException(facets[i]);
+            }
+        }
+        this.conditions = new ArrayList<>(criteria.size());
+        this.conditionFacets = new int[criteria.size()];
+        for (int i = 0; i < this.conditionFacets.length; i++) {
+            final FilterCriterion criterion = criteria.get(i);
+            this.conditions.add(FilterPredicate.of(Collections.singletonList(criterion), type));
+            this.conditionFacets[i] = indexOf(facets, criterion.getProperty());
+        }
+    }
+
+    private static int indexOf(String[] facets, String property) {
+        for (int i = 0; i < facets.length; i++) {
+            if (facets[i].equals(property)) {
+                return i;
+            }
+        }
+        return NO_FACET;
+    }
+
+    /**
+     * @param <T>
+     * @param filter filter object, see {@link FilterCriteria}
+     * @param type
+     * @param facets properties to count
+     * @return
+     */
+    public static <T> FacetCounter<T> of(Object filter, Class<T> type, String... facets) {
+        return of(FilterCriteria.of(filter), type, facets);
+    }
+
+    /**
+     * @param <T>
+     * @param criteria no filter when null
+     * @param type
+     * @param facets properties to count
+     * @return
+     */
+    public static <T> FacetCounter<T> of(List<FilterCriterion> criteria, Class<T> type, String... facets) {
+        return new FacetCounter<>(criteria != null ? criteria : Collections.emptyList(), type, facets);
+    }
+
+    /**
+     * @param rows
+     * @return the count of each value by facet, the most frequent value first
+     */
+    public Map<String, Map<Object, Long>> count(Iterable<? extends T> rows) {
+        return count(rows, null);
+    }
+
+    /**
+     * @param rows
+     * @param matching receives the rows matching all the criteria during the same pass, may be null
+     * @return the count of each value by facet, the most frequent value first
+     */
+    public Map<String, Map<Object, Long>> count(Iterable<? extends T> rows, Consumer<? super T> matching) {
+        final List<Map<Object, long[]>> counts = new ArrayList<>(this.facets.length);
+        for (int i = 0; i < this.facets.length; i++) {
+            counts.add(new HashMap<>());
+        }
+        for (T row : rows) {
+            if (row == null) {
+                continue;
+            }
+            final int facet = rejectedFacet(row);
+            if (facet == ALL_FACETS) {
+                for (int i = 0; i < this.facets.length; i++) {
+                    increment(counts.get(i), this.accessors[i].get(row));
+                }
+                if (matching != null) {
+                    matching.accept(row);
+                }
+            } else if (facet != NO_FACET) {
+                increment(counts.get(facet), this.accessors[facet].get(row));
+            }
+        }
+        final Map<String, Map<Object, Long>> result = new LinkedHashMap<>();
+        for (int i = 0; i < this.facets.length; i++) {
+            result.put(this.facets[i], sort(counts.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * @return {@link #ALL_FACETS} if the row matches all the criteria,
+     * the facet whose criteria are the only ones rejecting the row,
+     * {@link #NO_FACET} otherwise
+     */
+    private int rejectedFacet(T row) {
+        int facet = ALL_FACETS;
+        for (int i = 0; i < this.conditionFacets.length; i++) {
+            if (!this.conditions.get(i).test(row)) {
+                if (this.conditionFacets[i] == NO_FACET
+                        || (facet != ALL_FACETS && facet != this.conditionFacets[i])) {
+                    return NO_FACET;
+                }
+                facet = this.conditionFacets[i];
+            }
+        }
+        return facet;
+    }
+
+    private static void increment(Map<Object, long[]> counts, Object value) {
+        if (value != null) {
+            counts.computeIfAbsent(value, k -> new long[1])[0]++;
+        }
+    }
+
+    private static Map<Object, Long> sort(Map<Object, long[]> counts) {
+        final List<Map.Entry<Object, Long>> entries = new ArrayList<>(counts.size());
+        for (Map.Entry<Object, long[]> entry : counts.entrySet()) {
+            entries.add(Map.entry(entry.getKey(), entry.getValue()[0]));
+        }
+        entries.sort(FACET_ORDER);
+        final Map<Object, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<Object, Long> entry : entries) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int compareValues(Object value1, Object value2) {
+        if (value1 instanceof Comparable && value1.getClass() == value2.getClass()) {
+            return ((Comparable) value1).compareTo(value2);
+        }
+        final int result = value1.getClass().getName().compareTo(value2.getClass().getName());
+        return result != 0 ? result : String.valueOf(value1).compareTo(String.valueOf(value2));
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.filter;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Range;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+import org.flcit.springboot.web.core.util.PropertyAccessor;
+import org.flcit.springboot.web.core.util.PropertyAccessors;
+
+/**
+ * Read the criteria of a filter object.
+ * <p>
+ * Every readable property of the filter object is a criterion, configured by {@link FilterField}.
+ * The null, empty and unbounded values are ignored.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public final class FilterCriteria {
+
+    private static final ClassValue<List<FilterProperty>> PROPERTIES = new ClassValue<>() {
+        @Override
+        protected List<FilterProperty> computeValue(Class<?> type) {
+            return properties(type);
+        }
+    };
+
+    private FilterCriteria() { }
+
+    /**
+     * @param filter
+     * @param propertiesToExclude
+     * @return the criteria of the filter, the most selective first
+     */
+    public static List<FilterCriterion> of(Object filter, String... propertiesToExclude) {
+        if (filter == null) {
+            return List.of();
+        }
+        final List<FilterCriterion> criteria = new ArrayList<>();
+        for (FilterProperty property : PROPERTIES.get(filter.getClass())) {
+            if (org.springframework.util.ObjectUtils.containsElement(propertiesToExclude, property.name)) {
+                continue;
+            }
+            final Object value = property.accessor.get(filter);
+            if (!isEmpty(value)) {
+                criteria.add(new FilterCriterion(property.path, property.operator, value, property.ignoreCase, property.selectivity));
+            }
+        }
+        criteria.sort(Comparator.comparingDouble(FilterCriterion::getSelectivity));
+        return criteria;
+    }
+
+    private static boolean isEmpty(Object value) {
+        if (value == null) {
+            return true;
+        } else if (value instanceof CharSequence sequence) {
+            return sequence.length() == 0;
+        } else if (value instanceof Collection<?> collection) {
+            return collection.isEmpty();
+        } else if (value.getClass().isArray()) {
+            return org.springframework.util.ObjectUtils.isEmpty(value);
+        } else if (value instanceof Range<?> range) {
+            return !range.getLowerBound().isBounded()
+                    && !range.getUpperBound().isBounded();
+        } else {
+            return false;
+        }
+    }
+
+    private static List<FilterProperty> properties(Class<?> type) {
+        final List<FilterProperty> properties = new ArrayList<>();
+        if (type.isRecord()) {
+            for (RecordComponent component : type.getRecordComponents()) {
+                properties.add(new FilterProperty(component.getName(), component.getAccessor(), annotation(type, component.getName(), component.getAccessor())));
+            }
+        } else {
+            for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(type)) {
+                final Method method = descriptor.getReadMethod();
+                if (method != null
+                        && method.getDeclaringClass() != Object.class) {
+                    properties.add(new FilterProperty(descriptor.getName(), method, annotation(type, descriptor.getName(), method)));
+                }
+            }
+        }
+        return List.copyOf(properties);
+    }
+
+    private static FilterField annotation(Class<?> type, String name, Method method) {
+        final FilterField annotation = method.getAnnotation(FilterField.class);
+        if (annotation != null) {
+            return annotation;
+        }
+        final Field field = ReflectionUtils.findField(type, name);
+        return field != null ? field.getAnnotation(FilterField.class) : null;
+    }
+
+    private static final class FilterProperty {
+
+        private final String name;
+        private final PropertyAccessor accessor;
+        private final String path;
+        private final FilterOperator operator;
+        private final boolean ignoreCase;
+        private final double selectivity;
+
+        FilterProperty(String name, Method method, FilterField annotation) {
+            this.name = name;
+            this.accessor = PropertyAccessors.of(method);
+            this.path = annotation != null && StringUtils.hasLength(annotation.value()) ? annotation.value() : name;
+            this.operator = annotation != null ? annotation.operator() : FilterOperator.AUTO;
+            this.ignoreCase = annotation == null || annotation.ignoreCase();
+            this.selectivity = annotation != null ? annotation.selectivity() : -1;
+        }
+
+    }
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.filter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.data.domain.Range;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Condition on a property: path, operator and value.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public final class FilterCriterion {
+
+    private static final String WRONG_VALUE = "VALUE OF %s MUST BE %s FOR THE OPERATOR %s";
+
+    private final String property;
+    private final FilterOperator operator;
+    private final Object value;
+    private final boolean ignoreCase;
+    private final double selectivity;
+
+    /**
+     * @param property
+     * @param operator
+     * @param value
+     */
+    public FilterCriterion(String property, FilterOperator operator, Object value) {
+        this(property, operator, value, true, -1);
+    }
+
+    /**
+     * @param property path of the property (e.g. {@code parent.name})
+     * @param operator
+     * @param value not null
+     * @param ignoreCase
+     * @param selectivity estimated ratio of rows accepted, the selectivity of the operator when negative
+     */
+    public FilterCriterion(String property, FilterOperator operator, Object value, boolean ignoreCase, double selectivity) {
+        Assert.hasLength(property, "property must not be empty");
+        Assert.notNull(value, "value must not be null");
+        this.property = property;
+        this.operator = resolve(operator, value);
+        this.value = this.operator == FilterOperator.IN ? toCollection(value) : value;
+        this.ignoreCase = ignoreCase;
+        this.selectivity = selectivity >= 0 ? selectivity : selectivity(this.operator, this.value);
+        check();
+    }
+
+    private static FilterOperator resolve(FilterOperator operator, Object value) {
+        if (operator != null
+                && operator != FilterOperator.AUTO) {
+            return operator;
+        }
+        if (value instanceof Range) {
+            return FilterOperator.BETWEEN;
+        } else if (value instanceof Collection
+                || value.getClass().isArray()) {
+            return FilterOperator.IN;
+        } else if (value instanceof CharSequence) {
+            return FilterOperator.CONTAINS;
+        } else {
+            return FilterOperator.EQUAL;
+        }
+    }
+
+    private static Collection<?> toCollection(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return collection;
+        }
+        if (value.getClass().isArray()) {
+            final Object[] values = ObjectUtils.toObjectArray(value);
+            final List<Object> list = new ArrayList<>(values.length);
+            Collections.addAll(list, values);
+            return list;
+        }
+        return Collections.singletonList(value);
+    }
+
+    private static double selectivity(FilterOperator operator, Object value) {
+        if (operator == FilterOperator.IN) {
+            return Math.min(1, operator.getSelectivity() * ((Collection<?>) value).size());
+        }
+        return operator.getSelectivity();
+    }
+
+    private void check() {
+        switch (this.operator) {
+        case BETWEEN:
+            check(this.value instanceof Range, "A RANGE");
+            break;
+        case IS_NULL:
+            check(this.value instanceof Boolean, "A BOOLEAN");
+            break;
+        case GREATER_THAN, GREATER_THAN_OR_EQUAL, LESS_THAN, LESS_THAN_OR_EQUAL:
+            check(this.value instanceof Comparable, "COMPARABLE");
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void check(boolean valid, String expected) {
+        if (!valid) {
+            throw new IllegalArgumentException(String.format(WRONG_VALUE, this.property, expected, this.operator));
+        }
+    }
+
+    /**
+     * @return
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * @return the operator, never {@link FilterOperator#AUTO}
+     */
+    public FilterOperator getOperator() {
+        return operator;
+    }
+
+    /**
+     * @return the value, a collection for {@link FilterOperator#IN}
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * @return
+     */
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    /**
+     * @return
+     */
+    public double getSelectivity() {
+        return selectivity;
+    }
+
+    /**
+     * The criteria are equal if they accept the same rows:
+     * the values of {@link FilterOperator#IN} are compared in any order,
+     * the texts ignoring the case are compared in lower case. The selectivity is ignored.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+        FilterCriterion other = (FilterCriterion) obj;
+        return ignoreCase == other.ignoreCase && operator == other.operator
+                && property.equals(other.property) && normalizedValue().equals(other.normalizedValue());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(property, operator, ignoreCase, normalizedValue());
+    }
+
+    private Object normalizedValue() {
+        if (this.operator == FilterOperator.IN) {
+            final Set<Object> values = new HashSet<>();
+            for (Object v : (Collection<?>) this.value) {
+                values.add(normalize(v));
+            }
+            return values;
+        }
+        return normalize(this.value);
+    }
+
+    private Object normalize(Object v) {
+        return this.ignoreCase && v instanceof String string ? string.toLowerCase(Locale.ROOT) : v;
+    }
+
+    @Override
+    public String toString() {
+        return property + " " + operator + " " + value;
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.filter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Configuration of a property of a filter object, on the field or on the getter.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface FilterField {
+
+    /**
+     * @return the path of the filtered property (e.g. {@code parent.name}), the name of the annotated property by default
+     */
+    String value() default "";
+
+    /**
+     * @return
+     */
+    FilterOperator operator() default FilterOperator.AUTO;
+
+    /**
+     * @return true to compare character sequences ignoring the case
+     */
+    boolean ignoreCase() default true;
+
+    /**
+     * @return the estimated ratio of rows accepted, the selectivity of the operator when negative
+     */
+    double selectivity() default -1;
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.filter;
+
+/**
+ * Operator applied by a property of a filter object.
+ * <p>
+ * The selectivity is the estimated ratio of rows accepted by the operator,
+ * used to evaluate the most discriminating criteria first.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public enum FilterOperator {
+
+    /**
+     * {@link #BETWEEN} for a {@link org.springframework.data.domain.Range},
+     * {@link #IN} for a collection or an array,
+     * {@link #CONTAINS} for a character sequence,
+     * {@link #EQUAL} otherwise
+     */
+    AUTO(1),
+    EQUAL(0.05),
+    /**
+     * selectivity by value of the collection
+     */
+    IN(0.05),
+    STARTS_WITH(0.1),
+    BETWEEN(0.25),
+    CONTAINS(0.3),
+    GREATER_THAN(0.5),
+    GREATER_THAN_OR_EQUAL(0.5),
+    LESS_THAN(0.5),
+    LESS_THAN_OR_EQUAL(0.5),
+    /**
+     * filter value {@link Boolean#TRUE} for null, {@link Boolean#FALSE} for not null
+     */
+    IS_NULL(0.5);
+
+    private final double selectivity;
+
+    FilterOperator(double selectivity) {
+        this.selectivity = selectivity;
+    }
+
+    /**
+     * @return the estimated ratio of rows accepted
+     */
+    public double getSelectivity() {
+        return selectivity;
+    }
+
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.filter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Range.Bound;
+import org.springframework.util.StringUtils;
+import org.flcit.springboot.web.core.exception.WrongFilterColumnException;
+import org.flcit.springboot.web.core.util.PropertyAccessor;
+import org.flcit.springboot.web.core.util.PropertyAccessors;
+
+/**
+ * In memory evaluation of filter criteria.
+ * <p>
+ * The criteria are compiled once and evaluated the most selective first,
+ * the evaluation of a row stops at the first rejecting criterion.
+ * 
+ * @param <T>
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public final class FilterPredicate<T> implements Predicate<T> {
+
+    private final Condition[] conditions;
+
+    private FilterPredicate(Condition[] conditions) {
+        this.conditions = conditions;
+    }
+
+    /**
+     * @param <T>
+     * @param filter filter object, see {@link FilterCriteria}
+     * @param type
+     * @param propertiesToExclude
+     * @return
+     */
+    public static <T> FilterPredicate<T> of(Object filter, Class<T> type, String... propertiesToExclude) {
+        return of(FilterCriteria.of(filter, propertiesToExclude), type);
+    }
+
+    /**
+     * @param <T>
+     * @param criteria evaluated in the order of the list
+     * @param type
+     * @return
+     */
+    public static <T> FilterPredicate<T> of(List<FilterCriterion> criteria, Class<T> type) {
+        final Condition[] conditions = new Condition[criteria.size()];
+        for (int i = 0; i < conditions.length; i++) {
+            conditions[i] = new Condition(type, criteria.get(i));
+        }
+        return new FilterPredicate<>(conditions);
+    }
+
+    /**
+     * @param value
+     * @return true if the value matches all the criteria
+     */
+    @Override
+    public boolean test(T value) {
+        if (value == null) {
+            return false;
+        }
+        for (Condition condition : this.conditions) {
+            if (!condition.test(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param values
+     * @return the values matching all the criteria
+     */
+    public List<T> filter(Collection<? extends T> values) {
+        final List<T> result = new ArrayList<>();
+        for (T value : values) {
+            if (test(value)) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    private static final class Condition {
+
+        private final PropertyAccessor[] path;
+        private final Predicate<Object> predicate;
+
+        Condition(Class<?> type, FilterCriterion criterion) {
+            this.path = path(type, criterion.getProperty());
+            this.predicate = predicate(criterion);
+        }
+
+        boolean test(Object value) {
+            Object current = value;
+            for (PropertyAccessor accessor : this.path) {
+                if (current == null) {
+                    break;
+                }
+                current = accessor.get(current);
+            }
+            return this.predicate.test(current);
+        }
+
+        private static PropertyAccessor[] path(Class<?> type, String property) {
+            final String[] names = StringUtils.delimitedListToStringArray(property, ".");
+            final PropertyAccessor[] accessors = new PropertyAccessor[names.length];
+            Class<?> current = type;
+            for (int i = 0; i < names.length; i++) {
+                accessors[i] = PropertyAccessors.of(current, names[i]);
+                if (accessors[i] == null) {
+                    throw new WrongFilterColumnException(property);
+                }
+                current = accessors[i].getType();
+            }
+            return accessors;
+        }
+
+    }
+
+    private static Predicate<Object> predicate(FilterCriterion criterion) {
+        final Object test = criterion.getValue();
+        final boolean ignoreCase = criterion.isIgnoreCase();
+        switch (criterion.getOperator()) {
+        case IN:
+            return in((Collection<?>) test, ignoreCase);
+        case STARTS_WITH:
+            final String prefix = test.toString();
+            return value -> value != null && value.toString().regionMatches(ignoreCase, 0, prefix, 0, prefix.length());
+        case CONTAINS:
+            final String part = test.toString();
+            return value -> value != null && contains(value.toString(), part, ignoreCase);
+        case BETWEEN:
+            final Range<?> range = (Range<?>) test;
+            return value -> value != null && lower(range.getLowerBound(), value) && upper(range.getUpperBound(), value);
+        case GREATER_THAN:
+            return value -> value != null && compare(value, test) > 0;
+        case GREATER_THAN_OR_EQUAL:
+            return value -> value != null && compare(value, test) >= 0;
+        case LESS_THAN:
+            return value -> value != null && compare(value, test) < 0;
+        case LESS_THAN_OR_EQUAL:
+            return value -> value != null && compare(value, test) <= 0;
+        case IS_NULL:
+            final boolean isNull = (Boolean) test;
+            return value -> (value == null) == isNull;
+        default:
+            if (ignoreCase
+                    && test instanceof String string) {
+                return value -> value instanceof String s && s.equalsIgnoreCase(string);
+            }
+            return value -> value != null && equals(value, test);
+        }
+    }
+
+    private static Predicate<Object> in(Collection<?> values, boolean ignoreCase) {
+        final Set<Object> set = new HashSet<>((int) (values.size() / 0.75f) + 1);
+        for (Object value : values) {
+            set.add(normalize(value, ignoreCase));
+        }
+        return value -> value != null && set.contains(normalize(value, ignoreCase));
+    }
+
+    private static Object normalize(Object value, boolean ignoreCase) {
+        if (ignoreCase
+                && value instanceof String string) {
+            return string.toLowerCase(Locale.ROOT);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        } else if (value instanceof Float f) {
+            return f.doubleValue();
+        } else if (value instanceof Date date
+                && date.getClass() != Date.class) {
+            return new Date(date.getTime());
+        }
+        return value;
+    }
+
+    private static boolean contains(String value, String part, boolean ignoreCase) {
+        if (!ignoreCase) {
+            return value.contains(part);
+        }
+        final int max = value.length() - part.length();
+        for (int i = 0; i <= max; i++) {
+            if (value.regionMatches(true, i, part, 0, part.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean lower(Bound<?> bound, Object value) {
+        if (!bound.isBounded()) {
+            return true;
+        }
+        final int compare = compare(value, bound.getValue().get());
+        return bound.isInclusive() ? compare >= 0 : compare > 0;
+    }
+
+    private static boolean upper(Bound<?> bound, Object value) {
+        if (!bound.isBounded()) {
+            return true;
+        }
+        final int compare = compare(value, bound.getValue().get());
+        return bound.isInclusive() ? compare <= 0 : compare < 0;
+    }
+
+    private static boolean equals(Object value, Object test) {
+        if (value.equals(test)) {
+            return true;
+        }
+        if ((value instanceof Number && test instanceof Number)
+                || (value instanceof Date && test instanceof Date)) {
+            return compare(value, test) == 0;
+        }
+        return false;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int compare(Object value, Object test) {
+        if (value instanceof Number number
+                && test instanceof Number numberTest
+                && value.getClass() != test.getClass()) {
+            return compare(number, numberTest);
+        }
+        if (value instanceof Date date
+                && test instanceof Date dateTest) {
+            return Long.compare(date.getTime(), dateTest.getTime());
+        }
+        return ((Comparable) value).compareTo(test);
+    }
+
+    private static int compare(Number value, Number test) {
+        if (isIntegral(value) && isIntegral(test)) {
+            return Long.compare(value.longValue(), test.longValue());
+        }
+        if (value instanceof BigDecimal || value instanceof BigInteger
+                || test instanceof BigDecimal || test instanceof BigInteger) {
+            return new BigDecimal(value.toString()).compareTo(new BigDecimal(test.toString()));
+        }
+        return Double.compare(value.doubleValue(), test.doubleValue());
+    }
+
+    private static boolean isIntegral(Number value) {
+        return value instanceof Long
+                || value instanceof Integer
+                || value instanceof Short
+                || value instanceof Byte;
+    }
+
+}
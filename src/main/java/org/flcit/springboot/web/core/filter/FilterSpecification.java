@@ -0,0 +1,172 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.filter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Range.Bound;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+/**
+ * JPA {@link Specification} of filter criteria, the predicates are combined with AND in order of selectivity.
+ * 
+ * @param <T>
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public final class FilterSpecification<T> implements Specification<T> {
+
+    private static final long serialVersionUID = 1L;
+    private static final char ESCAPE = '\\';
+
+    private final transient List<FilterCriterion> criteria;
+
+    private FilterSpecification(List<FilterCriterion> criteria) {
+        this.criteria = criteria;
+    }
+
+    /**
+     * @param <T>
+     * @param filter filter object, see {@link FilterCriteria}
+     * @param propertiesToExclude
+     * @return
+     */
+    public static <T> FilterSpecification<T> of(Object filter, String... propertiesToExclude) {
+        return of(FilterCriteria.of(filter, propertiesToExclude));
+    }
+
+    /**
+     * @param <T>
+     * @param criteria
+     * @return
+     */
+    public static <T> FilterSpecification<T> of(List<FilterCriterion> criteria) {
+        return new FilterSpecification<>(List.copyOf(criteria));
+    }
+
+    @Override
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        final Predicate[] predicates = new Predicate[this.criteria.size()];
+        for (int i = 0; i < predicates.length; i++) {
+            predicates[i] = predicate(root, criteriaBuilder, this.criteria.get(i));
+        }
+        return criteriaBuilder.and(predicates);
+    }
+
+    private static Path<?> path(Root<?> root, String property) {
+        Path<?> path = root;
+        for (String name : StringUtils.delimitedListToStringArray(property, ".")) {
+            path = path.get(name);
+        }
+        return path;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Predicate predicate(Root<?> root, CriteriaBuilder criteriaBuilder, FilterCriterion criterion) {
+        final Path path = path(root, criterion.getProperty());
+        final Object value = criterion.getValue();
+        final boolean ignoreCase = criterion.isIgnoreCase();
+        switch (criterion.getOperator()) {
+        case IN:
+            return ignoreCase && isStrings((Collection<?>) value)
+                    ? criteriaBuilder.lower(path).in(lower((Collection<?>) value))
+                    : path.in((Collection<?>) value);
+        case STARTS_WITH:
+            return like(criteriaBuilder, path, escape(value.toString(), ignoreCase) + "%", ignoreCase);
+        case CONTAINS:
+            return like(criteriaBuilder, path, "%" + escape(value.toString(), ignoreCase) + "%", ignoreCase);
+        case BETWEEN:
+            return between(criteriaBuilder, path, (Range<?>) value);
+        case GREATER_THAN:
+            return criteriaBuilder.greaterThan(path, (Comparable) value);
+        case GREATER_THAN_OR_EQUAL:
+            return criteriaBuilder.greaterThanOrEqualTo(path, (Comparable) value);
+        case LESS_THAN:
+            return criteriaBuilder.lessThan(path, (Comparable) value);
+        case LESS_THAN_OR_EQUAL:
+            return criteriaBuilder.lessThanOrEqualTo(path, (Comparable) value);
+        case IS_NULL:
+            return Boolean.TRUE.equals(value) ? criteriaBuilder.isNull(path) : criteriaBuilder.isNotNull(path);
+        default:
+            return ignoreCase && value instanceof String string
+                    ? criteriaBuilder.equal(criteriaBuilder.lower(path), string.toLowerCase(Locale.ROOT))
+                    : criteriaBuilder.equal(path, value);
+        }
+    }
+
+    private static Predicate like(CriteriaBuilder criteriaBuilder, Expression<String> path, String pattern, boolean ignoreCase) {
+        return criteriaBuilder.like(ignoreCase ? criteriaBuilder.lower(path) : path, pattern, ESCAPE);
+    }
+
+    private static String escape(String value, boolean ignoreCase) {
+        final StringBuilder sb = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                sb.append(ESCAPE);
+            }
+            sb.append(c);
+        }
+        return ignoreCase ? sb.toString().toLowerCase(Locale.ROOT) : sb.toString();
+    }
+
+    private static boolean isStrings(Collection<?> values) {
+        for (Object value : values) {
+            if (!(value instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> lower(Collection<?> values) {
+        final List<String> list = new ArrayList<>(values.size());
+        for (Object value : values) {
+            list.add(((String) value).toLowerCase(Locale.ROOT));
+        }
+        return list;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Predicate between(CriteriaBuilder criteriaBuilder, Path path, Range<?> range) {
+        final Bound<?> lower = range.getLowerBound();
+        final Bound<?> upper = range.getUpperBound();
+        final List<Predicate> predicates = new ArrayList<>(2);
+        if (lower.isBounded()) {
+            final Comparable value = (Comparable) lower.getValue().get();
+            predicates.add(lower.isInclusive() ? criteriaBuilder.greaterThanOrEqualTo(path, value) : criteriaBuilder.greaterThan(path, value));
+        }
+        if (upper.isBounded()) {
+            final Comparable value = (Comparable) upper.getValue().get();
+            predicates.add(upper.isInclusive() ? criteriaBuilder.lessThanOrEqualTo(path, value) : criteriaBuilder.lessThan(path, value));
+        }
+        return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.util;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link CollationKey} of the texts of a language, computed once and kept while the texts are sorted again.
+ * <p>
+ * The keys are computed with a collator per thread, so the threads sorting with the same cache do not wait for each other.
+ * When the cache reaches its maximum size, an eighth of the keys is evicted.
+ * The shared caches are created by locale of {@link Collator#getAvailableLocales()}, the other locales
+ * (e.g. the tags sent by the clients) being resolved to their language, or to the root locale.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public final class CollationKeyCache {
+
+    private static final int DEFAULT_MAX_SIZE = 100_000;
+    private static final int EVICTION_RATIO = 8;
+    private static final Map<String, CollationKeyCache> CACHES = new ConcurrentHashMap<>();
+    private static final Set<Locale> AVAILABLE_LOCALES = new HashSet<>(Arrays.asList(Collator.getAvailableLocales()));
+
+    private final Collator collator;
+    private final int maxSize;
+    private final ThreadLocal<Collator> collators = ThreadLocal.withInitial(this::newCollator);
+    private final Map<String, CollationKey> keys = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    /**
+     * @param locale
+     * @param ignoreCase
+     * @param maxSize
+     */
+    public CollationKeyCache(Locale locale, boolean ignoreCase, int maxSize) {
+        this.collator = Collator.getInstance(locale);
+        this.collator.setStrength(ignoreCase ? Collator.SECONDARY : Collator.TERTIARY);
+        this.collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param locale
+     * @param ignoreCase
+     * @return the shared cache of the language
+     */
+    public static CollationKeyCache of(Locale locale, boolean ignoreCase) {
+        final Locale resolved = resolve(locale);
+        return CACHES.computeIfAbsent(resolved.toLanguageTag() + (ignoreCase ? "|i" : "|c"), k -> new CollationKeyCache(resolved, ignoreCase, DEFAULT_MAX_SIZE));
+    }
+
+    /**
+     * @param locale
+     * @return the locale, its language and country, or its language if it has a collator, the root locale otherwise
+     */
+    public static Locale resolve(Locale locale) {
+        if (AVAILABLE_LOCALES.contains(locale)) {
+            return locale;
+        }
+        final Locale country = new Locale(locale.getLanguage(), locale.getCountry());
+        if (AVAILABLE_LOCALES.contains(country)) {
+            return country;
+        }
+        final Locale language = new Locale(locale.getLanguage());
+        return AVAILABLE_LOCALES.contains(language) ? language : Locale.ROOT;
+    }
+
+    /**
+     * @return a new collator with the rules of the cache, to compare texts without the lock of the cache
+     */
+    public Collator newCollator() {
+        synchronized (this.collator) {
+            return (Collator) this.collator.clone();
+        }
+    }
+
+    /**
+     * @param value
+     * @return the key of the value, null if the value is null
+     */
+    public CollationKey getKey(String value) {
+        if (value == null) {
+            return null;
+        }
+        CollationKey key = this.keys.get(value);
+        if (key == null) {
+            key = this.collators.get().getCollationKey(value);
+            if (this.keys.size() >= this.maxSize) {
+                evict();
+            }
+            this.keys.put(value, key);
+        }
+        return key;
+    }
+
+    private void evict() {
+        if (!this.evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            final Iterator<String> iterator = this.keys.keySet().iterator();
+            for (int i = Math.max(1, this.maxSize / EVICTION_RATIO); i > 0 && iterator.hasNext(); i--) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            this.evicting.set(false);
+        }
+    }
+
+    /**
+     * @return number of keys in the cache
+     */
+    public int size() {
+        return this.keys.size();
+    }
+
+}
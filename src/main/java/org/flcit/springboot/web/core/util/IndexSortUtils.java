@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.util;
+
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Stable sort of row indices by primitive keys, without boxing nor comparator calls.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public final class IndexSortUtils {
+
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private IndexSortUtils() { }
+
+    /**
+     * @param keys
+     * @return the indices of the keys in ascending order, equal keys keep their original order
+     */
+    public static int[] sort(long[] keys) {
+        final int[] indices = new int[keys.length];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        return sort(keys, indices);
+    }
+
+    /**
+     * @param keys
+     * @param indices indices of the keys to sort, sorted in place
+     * @return the indices in ascending order of their key, equal keys keep their original order
+     */
+    public static int[] sort(long[] keys, int[] indices) {
+        if (indices.length > 1) {
+            mergeSort(keys, indices, indices.clone(), 0, indices.length);
+        }
+        return indices;
+    }
+
+    private static void mergeSort(long[] keys, int[] dest, int[] src, int from, int to) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(keys, dest, from, to);
+            return;
+        }
+        final int mid = (from + to) >>> 1;
+        mergeSort(keys, src, dest, from, mid);
+        mergeSort(keys, src, dest, mid, to);
+        if (keys[src[mid - 1]] <= keys[src[mid]]) {
+            System.arraycopy(src, from, dest, from, to - from);
+            return;
+        }
+        for (int i = from, p = from, q = mid; i < to; i++) {
+            if (q >= to || (p < mid && keys[src[p]] <= keys[src[q]])) {
+                dest[i] = src[p++];
+            } else {
+                dest[i] = src[q++];
+            }
+        }
+    }
+
+    private static void insertionSort(long[] keys, int[] indices, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            final int index = indices[i];
+            final long key = keys[index];
+            int j = i - 1;
+            while (j >= from && keys[indices[j]] > key) {
+                indices[j + 1] = indices[j];
+                j--;
+            }
+            indices[j + 1] = index;
+        }
+    }
+
+    /**
+     * @param value
+     * @return a long key with the same order as {@link Double#compare(double, double)}
+     */
+    public static long sortableKey(double value) {
+        final long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * @param <T>
+     * @param list
+     * @param order indices of the elements in their new order
+     * @return the list reordered in place
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> reorder(List<T> list, int[] order) {
+        final Object[] values = list.toArray();
+        final ListIterator<T> iterator = list.listIterator();
+        for (int index : order) {
+            iterator.next();
+            iterator.set((T) values[index]);
+        }
+        return list;
+    }
+
+}
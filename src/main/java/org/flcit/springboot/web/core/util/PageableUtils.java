@@ -17,19 +17,40 @@
 package org.flcit.springboot.web.core.util;
 
 import java.lang.reflect.Method;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Locale;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.domain.Sort.NullHandling;
+import org.springframework.data.domain.Sort.Order;
 import org.springframework.util.StringUtils;
 import org.flcit.commons.core.util.ObjectUtils;
 import org.flcit.commons.core.util.ReflectionUtils;
+import org.flcit.springboot.web.core.domain.CollatedOrder;
 import org.flcit.springboot.web.core.exception.WrongOrderColumnException;
 
 /**
@@ -39,6 +60,10 @@ import org.flcit.springboot.web.core.exception.WrongOrderColumnException;
  */
 public final class PageableUtils {
 
+    private static final long MIN_NANO_SECONDS = Long.MIN_VALUE / 1_000_000_000L;
+    private static final long MAX_NANO_SECONDS = Long.MAX_VALUE / 1_000_000_000L - 1;
+    private static final long SECONDS_PER_DAY = 86_400L;
+
     private PageableUtils() { }
 
     /**
@@ -46,8 +71,67 @@ public final class PageableUtils {
      * @param value
      * @return
      */
-    @SuppressWarnings("deprecation")
     public static boolean containsDate(Date test, Date value) {
+        return containsDay(test, value, ZoneId.systemDefault());
+    }
+
+    /**
+     * @param test
+     * @param value
+     * @param zone
+     * @return
+     */
+    public static boolean containsDate(Date test, Date value, ZoneId zone) {
+        return containsDay(test, value, zone);
+    }
+
+    /**
+     * @param test
+     * @param value
+     * @param zone
+     * @return
+     */
+    public static boolean containsDate(Instant test, Instant value, ZoneId zone) {
+        return containsDay(test, value, zone);
+    }
+
+    /**
+     * @param test
+     * @param value
+     * @return
+     */
+    public static boolean containsDate(LocalDate test, LocalDate value) {
+        return containsDay(test, value, null);
+    }
+
+    /**
+     * @param test
+     * @param value
+     * @return
+     */
+    public static boolean containsDate(LocalDateTime test, LocalDateTime value) {
+        return containsDay(test, value, null);
+    }
+
+    /**
+     * @param test
+     * @param value
+     * @return
+     */
+    public static boolean containsDate(OffsetDateTime test, OffsetDateTime value) {
+        return containsDay(test, value, null);
+    }
+
+    /**
+     * @param test
+     * @param value
+     * @return
+     */
+    public static boolean containsDate(ZonedDateTime test, ZonedDateTime value) {
+        return containsDay(test, value, null);
+    }
+
+    private static boolean containsDay(Object test, Object value, ZoneId zone) {
         if (test == null
                 || test == value) {
             return true;
@@ -55,9 +139,31 @@ public final class PageableUtils {
         if (value == null) {
             return false;
         }
-        return test.getYear() == value.getYear()
-                && test.getMonth() == value.getMonth()
-                && test.getDate() ==  value.getDate();
+        final ZoneRules rules = zone != null ? zone.getRules() : null;
+        return epochDay(test, rules) == epochDay(value, rules);
+    }
+
+    private static boolean isDay(Class<?> clazz) {
+        return clazz == Date.class
+                || clazz == LocalDate.class
+                || clazz == LocalDateTime.class
+                || clazz == OffsetDateTime.class
+                || clazz == ZonedDateTime.class
+                || clazz == Instant.class;
+    }
+
+    private static long epochDay(Object value, ZoneRules rules) {
+        if (value instanceof LocalDate date) {
+            return date.toEpochDay();
+        } else if (value instanceof LocalDateTime date) {
+            return date.toLocalDate().toEpochDay();
+        } else if (value instanceof OffsetDateTime date) {
+            return date.toLocalDate().toEpochDay();
+        } else if (value instanceof ZonedDateTime date) {
+            return date.toLocalDate().toEpochDay();
+        }
+        final Instant instant = value instanceof Instant i ? i : Instant.ofEpochMilli(((Date) value).getTime());
+        return Math.floorDiv(instant.getEpochSecond() + rules.getOffset(instant).getTotalSeconds(), SECONDS_PER_DAY);
     }
 
     private static boolean equals(Object test, Object value) {
@@ -87,9 +193,8 @@ public final class PageableUtils {
         return value.toLowerCase().contains(test.toLowerCase());
     }
 
-    private static boolean expired(Date dateDebut, Date dateFin) {
-        final Date current = new Date();
-        return current.before(dateDebut) || current.after(dateFin);
+    private static boolean expired(Date dateDebut, Date dateFin, long now) {
+        return now < dateDebut.getTime() || now > dateFin.getTime();
     }
 
     private static String toString(final Object value) {
@@ -138,6 +243,18 @@ public final class PageableUtils {
         }
     }
 
+    private static int compare(String value1, String value2, Collator collator, Direction direction, NullHandling nullHandling) {
+        if (value1 == null && value2 == null) {
+            return 0;
+        } else if (value1 == null) {
+            return compareNull1(nullHandling, direction);
+        } else if (value2 == null) {
+            return compareNull2(nullHandling, direction);
+        } else {
+            return compare(collator.compare(value1, value2), direction);
+        }
+    }
+
     private static int compareNull1(NullHandling nullHandling, Direction direction) {
         return compare(nullHandling == NullHandling.NULLS_FIRST ? -1 : 1, direction);
     }
@@ -160,8 +277,22 @@ public final class PageableUtils {
      * @return
      */
     public static int compareExpired(Date dateDebut1, Date dateDebut2, Date dateFin1, Date dateFin2, Direction direction, NullHandling nullHandling) {
-        final boolean expired1 = expired(dateDebut1, dateFin1);
-        final boolean expired2 = expired(dateDebut2, dateFin2);
+        return compareExpired(dateDebut1, dateDebut2, dateFin1, dateFin2, direction, nullHandling, System.currentTimeMillis());
+    }
+
+    /**
+     * @param dateDebut1
+     * @param dateDebut2
+     * @param dateFin1
+     * @param dateFin2
+     * @param direction
+     * @param nullHandling
+     * @param now current time in milliseconds, shared by all the comparisons of a sort
+     * @return
+     */
+    public static int compareExpired(Date dateDebut1, Date dateDebut2, Date dateFin1, Date dateFin2, Direction direction, NullHandling nullHandling, long now) {
+        final boolean expired1 = expired(dateDebut1, dateFin1, now);
+        final boolean expired2 = expired(dateDebut2, dateFin2, now);
         if (expired1 && !expired2) {
             return compare(-1, direction);
         } else if (!expired1 && expired2) {
@@ -178,16 +309,56 @@ public final class PageableUtils {
      * @return
      */
     public static boolean filterExpired(Boolean expired, Date dateDebut, Date dateFin) {
+        return filterExpired(expired, dateDebut, dateFin, System.currentTimeMillis());
+    }
+
+    /**
+     * @param expired
+     * @param dateDebut
+     * @param dateFin
+     * @param now current time in milliseconds, shared by all the rows of a filter
+     * @return
+     */
+    public static boolean filterExpired(Boolean expired, Date dateDebut, Date dateFin, long now) {
         if (expired == null) {
             return false;
         }
-        final Date date = new Date();
         return (Boolean.TRUE.equals(expired)
-                && dateDebut.compareTo(date) <= 0
-                && dateFin.compareTo(date) >= 0)
+                && dateDebut.getTime() <= now
+                && dateFin.getTime() >= now)
                 || (Boolean.FALSE.equals(expired)
-                        && (dateDebut.compareTo(date) > 0
-                                || dateFin.compareTo(date) < 0));
+                        && (dateDebut.getTime() > now
+                                || dateFin.getTime() < now));
+    }
+
+    /**
+     * @param <T>
+     * @param expired
+     * @param dateDebut
+     * @param dateFin
+     * @param clock read once, when the predicate is created
+     * @return a predicate true for the rows to exclude
+     */
+    public static <T> Predicate<T> filteringExpired(Boolean expired, Function<? super T, Date> dateDebut, Function<? super T, Date> dateFin, Clock clock) {
+        if (expired == null) {
+            return value -> false;
+        }
+        final long now = clock.millis();
+        return value -> filterExpired(expired, dateDebut.apply(value), dateFin.apply(value), now);
+    }
+
+    /**
+     * @param <T>
+     * @param dateDebut
+     * @param dateFin
+     * @param direction
+     * @param nullHandling
+     * @param clock read once, when the comparator is created
+     * @return
+     */
+    public static <T> Comparator<T> comparingExpired(Function<? super T, Date> dateDebut, Function<? super T, Date> dateFin, Direction direction, NullHandling nullHandling, Clock clock) {
+        final long now = clock.millis();
+        return (v1, v2) -> compareExpired(dateDebut.apply(v1), dateDebut.apply(v2), dateFin.apply(v1), dateFin.apply(v2), direction, nullHandling, now);
     }
 
     /**
@@ -197,10 +368,51 @@ public final class PageableUtils {
      * @return
      */
     public static <T> Page<T> page(List<T> list, Pageable pageable) {
-        final int begin = (int) pageable.getOffset();
+        final int begin = (int) Math.min(pageable.getOffset(), list.size());
         return new PageImpl<>(list.subList(begin, Math.min(list.size(), begin + pageable.getPageSize())), pageable, list.size());
     }
 
+    /**
+     * @param <S>
+     * @param <T>
+     * @param list
+     * @param pageable
+     * @param mapper called only for the rows of the page
+     * @return
+     */
+    public static <S, T> Page<T> page(List<S> list, Pageable pageable, Function<? super S, ? extends T> mapper) {
+        final Page<S> page = pageable == null || pageable.isUnpaged() ? new PageImpl<>(list) : page(list, pageable);
+        return page.map(mapper);
+    }
+
+    /**
+     * Filter and sort the source rows, then map only the rows of the page.
+     * @param <S>
+     * @param <T>
+     * @param pageable
+     * @param list source rows, not modified
+     * @param clazz
+     * @param customComparators
+     * @param filter rows to keep, all the rows if null
+     * @param mapper called only for the rows of the page
+     * @return
+     */
+    public static <S, T> Page<T> page(Pageable pageable, List<S> list, Class<S> clazz, Map<String, Comparator<S>> customComparators,
+            Predicate<? super S> filter, Function<? super S, ? extends T> mapper) {
+        final List<S> rows;
+        if (filter == null) {
+            rows = new ArrayList<>(list);
+        } else {
+            rows = new ArrayList<>();
+            for (S value : list) {
+                if (filter.test(value)) {
+                    rows.add(value);
+                }
+            }
+        }
+        return page(sort(pageable, rows, clazz, customComparators), pageable, mapper);
+    }
+
     /**
      * @param filter
      * @param value
@@ -208,60 +420,100 @@ public final class PageableUtils {
      * @return
      */
     public static boolean filter(Object filter, Object value, String... methodsToExclude) {
-        if (value == null) {
-            return true;
-        }
-        if (filter == null) {
-            return false;
-        }
-        return filter(filter.getClass(), filter, value, methodsToExclude);
+        return filter(filter, value, ZoneId.systemDefault(), methodsToExclude);
     }
 
-    private static boolean filter(Class<?> clazz, Object filter, Object value, String... methodsToExclude) {
-        for (Method methodFilter : clazz.getDeclaredMethods()) {
-            if (!org.springframework.util.ObjectUtils.containsElement(methodsToExclude, methodFilter.getName())
-                    && filterValue(methodFilter, filter, value.getClass(), value)) {
-                return true;
-            }
-        }
-        return ReflectionUtils.hasSuperClass(clazz)
-                && filter(clazz.getSuperclass(), filter, value);
+    /**
+     * @param filter
+     * @param value
+     * @param zone time zone of the day of {@link Date} and {@link Instant} values
+     * @param methodsToExclude
+     * @return
+     */
+    public static boolean filter(Object filter, Object value, ZoneId zone, String... methodsToExclude) {
+        return !matcher(filter, zone, methodsToExclude).test(value);
     }
 
-    private static boolean filterValue(Method method, Object filter, Class<?> clazz, Object value) {
-        try {
-            return filterValue(method, filter, clazz.getDeclaredMethod(method.getName()), value);
-        } catch (ReflectiveOperationException e) {
-            return ReflectionUtils.hasSuperClass(clazz) && filterValue(method, filter, clazz.getSuperclass(), value);
+    /**
+     * Same criteria as {@link #filter(Object, Object, ZoneId, String...)}, the values of the filter
+     * (and the epoch day of its dates) being read once for all the rows tested.
+     * 
+     * @param <T>
+     * @param filter
+     * @param zone time zone of the day of {@link Date} and {@link Instant} values
+     * @param methodsToExclude
+     * @return the predicate of the rows kept by the filter, e.g. for {@link #page(Pageable, List, Class, Map, Predicate, Function)}
+     */
+    public static <T> Predicate<T> matcher(Object filter, ZoneId zone, String... methodsToExclude) {
+        final List<FilterValue> values = new ArrayList<>();
+        if (filter != null) {
+            filterValues(filter.getClass(), filter, zone != null ? zone.getRules() : null, values, methodsToExclude);
         }
+        return value -> {
+            if (value == null) {
+                return false;
+            }
+            for (FilterValue filterValue : values) {
+                if (filterValue.rejects(value)) {
+                    return false;
+                }
+            }
+            return true;
+        };
     }
 
-    private static boolean isFilterMethod(Method method) {
-        if (method.getParameterCount() > 0) {
-            return false;
+    private static void filterValues(Class<?> clazz, Object filter, ZoneRules rules, List<FilterValue> values, String... methodsToExclude) {
+        for (PropertyAccessor accessorFilter : PropertyAccessors.declared(clazz)) {
+            if (!org.springframework.util.ObjectUtils.containsElement(methodsToExclude, accessorFilter.getName())
+                    && accessorFilter.isReadable()) {
+                values.add(new FilterValue(accessorFilter, accessorFilter.get(filter), rules));
+            }
+        }
+        if (ReflectionUtils.hasSuperClass(clazz)) {
+            filterValues(clazz.getSuperclass(), filter, rules, values);
         }
-        final Class<?> responseClass = method.getReturnType();
-        return responseClass != void.class
-                && responseClass != Void.class;
     }
 
-    private static boolean filterValue(Method methodFilter, Object filter, Method methodValue, Object value) throws ReflectiveOperationException {
-        if (!isFilterMethod(methodFilter)
-                || !isFilterMethod(methodValue)) {
-            return false;
+    /**
+     * Value of a filter property, with its epoch day for a date.
+     */
+    private static final class FilterValue {
+
+        private final String name;
+        private final Class<?> type;
+        private final Object test;
+        private final boolean day;
+        private final long epochDay;
+        private final ZoneRules rules;
+
+        FilterValue(PropertyAccessor accessor, Object test, ZoneRules rules) {
+            this.name = accessor.getName();
+            this.type = accessor.getType();
+            this.test = test;
+            this.day = test != null && isDay(this.type);
+            this.epochDay = this.day ? epochDay(test, rules) : 0;
+            this.rules = rules;
         }
-        if (!methodValue.getReturnType().equals(methodFilter.getReturnType())) {
-            return !equals(methodFilter.invoke(filter), methodValue.invoke(value));
-        } else {
-            switch (methodFilter.getReturnType().getName()) {
-            case "java.lang.String":
-                return !containsIgnoreCase((String) methodFilter.invoke(filter), (String) methodValue.invoke(value));
-            case "java.util.Date":
-                return !containsDate((Date) methodFilter.invoke(filter), (Date) methodValue.invoke(value));
-            default:
-                return !equals(methodFilter.invoke(filter), methodValue.invoke(value));
+
+        boolean rejects(Object row) {
+            final PropertyAccessor accessorValue = PropertyAccessors.declared(row.getClass(), this.name);
+            if (accessorValue == null
+                    || !accessorValue.isReadable()) {
+                return false;
+            }
+            final Object value = accessorValue.get(row);
+            if (!accessorValue.getType().equals(this.type)) {
+                return !PageableUtils.equals(this.test, value);
+            } else if (this.type == String.class) {
+                return !containsIgnoreCase((String) this.test, (String) value);
+            } else if (this.day) {
+                return this.test != value
+                        && (value == null || this.epochDay != epochDay(value, this.rules));
+            } else {
+                return !PageableUtils.equals(this.test, value);
             }
         }
+
     }
 
     /**
@@ -277,6 +529,7 @@ public final class PageableUtils {
     private static boolean isCompareMethod(Method method) {
         final Class<?> responseClass = method.getReturnType();
         return String.class.isAssignableFrom(responseClass)
+                || (responseClass.isPrimitive() && responseClass != void.class)
                 || responseClass.isEnum()
                 || Comparable.class.isAssignableFrom(responseClass);
     }
@@ -293,17 +546,18 @@ public final class PageableUtils {
      */
     public static <E> Integer compare(Method method, E entry1, E entry2,
             boolean ignoreCase, Direction direction, NullHandling nullHandling) {
-        if (method == null) {
+        return method == null ? null : compare(PropertyAccessors.of(method), entry1, entry2, ignoreCase, direction, nullHandling);
+    }
+
+    private static <E> Integer compare(PropertyAccessor accessor, E entry1, E entry2,
+            boolean ignoreCase, Direction direction, NullHandling nullHandling) {
+        if (accessor == null) {
             return null;
         }
-        try {
-            if (String.class.isAssignableFrom(method.getReturnType())) {
-                return compare((String) method.invoke(entry1), (String) method.invoke(entry2), ignoreCase, direction, nullHandling);
-            } else {
-                return compareValue(method.getReturnType(), method.invoke(entry1), method.invoke(entry2), ignoreCase, direction, nullHandling);
-            }
-        } catch (ReflectiveOperationException e) {
-            return null;
+        if (String.class.isAssignableFrom(accessor.getType())) {
+            return compare((String) accessor.get(entry1), (String) accessor.get(entry2), ignoreCase, direction, nullHandling);
+        } else {
+            return compareValue(accessor.getType(), accessor.get(entry1), accessor.get(entry2), ignoreCase, direction, nullHandling);
         }
     }
 
@@ -311,7 +565,8 @@ public final class PageableUtils {
     private static <T> Integer compareValue(Class<?> clazz, T entry1, T entry2, boolean ignoreCase, Direction direction, NullHandling nullHandling) {
         if (clazz.isEnum()) {
             return compare(toString(entry1), toString(entry2), ignoreCase, direction, nullHandling);
-        } else if (Comparable.class.isAssignableFrom(clazz)) {
+        } else if (Comparable.class.isAssignableFrom(clazz)
+                || clazz.isPrimitive()) {
             return compare((Comparable<T>) entry1, entry2, direction, nullHandling);
         } else {
             return null;
@@ -327,26 +582,368 @@ public final class PageableUtils {
      * @return
      */
     public static <T> List<T> sort(Pageable pageable, List<T> list, Class<T> clazz, Map<String, Comparator<T>> customComparators) {
+        return sort(pageable, list, clazz, customComparators, null);
+    }
+
+    /**
+     * Same as {@link #sort(Pageable, List, Class, Map)}, the text properties are sorted by the rules of the language
+     * of a {@link CollatedOrder} or of the locale.
+     * @param <T>
+     * @param pageable
+     * @param list
+     * @param clazz
+     * @param customComparators
+     * @param locale language of the request (e.g. {@link org.springframework.context.i18n.LocaleContextHolder#getLocale()}),
+     * binary order of the characters when null
+     * @return
+     */
+    public static <T> List<T> sort(Pageable pageable, List<T> list, Class<T> clazz, Map<String, Comparator<T>> customComparators, Locale locale) {
         if (pageable == null
                 || pageable.getSort().isUnsorted()) {
             return list;
         }
-        final String property = pageable.getSort().toList().get(0).getProperty();
-        final Direction direction = pageable.getSort().toList().get(0).getDirection();
-        final boolean ignoreCase = pageable.getSort().toList().get(0).isIgnoreCase();
-        final NullHandling nullHandling = pageable.getSort().toList().get(0).getNullHandling();
+        final Order order = pageable.getSort().toList().get(0);
+        final Locale collationLocale = order instanceof CollatedOrder collatedOrder ? collatedOrder.getLocale() : locale;
+        final String property = order.getProperty();
+        final Direction direction = order.getDirection();
+        final boolean ignoreCase = order.isIgnoreCase();
+        final NullHandling nullHandling = order.getNullHandling();
         final Comparator<T> customComparator = customComparators != null ? customComparators.get(property) : null;
         final Method method = customComparator == null ? getCompareMethod(property, clazz) : null;
+        final PropertyAccessor accessor = method != null ? PropertyAccessors.of(method) : null;
         if (customComparator == null
-                && method == null) {
+                && accessor == null) {
             throw new WrongOrderColumnException(property);
         }
         if (customComparator != null) {
             list.sort(customComparator);
-        } else {
-            list.sort((v1, v2) -> ObjectUtils.getOrDefault(compare(method, v1, v2, ignoreCase, direction, nullHandling), 0));
+        } else if (collationLocale != null
+                && (accessor.getType() == String.class || accessor.getType().isEnum())) {
+            sortByCollationKeys(list, accessor, CollationKeyCache.of(collationLocale, ignoreCase), direction, nullHandling);
+        } else if (!sortByKeys(list, accessor, direction, nullHandling)) {
+            list.sort((v1, v2) -> ObjectUtils.getOrDefault(compare(accessor, v1, v2, ignoreCase, direction, nullHandling), 0));
         }
         return list;
     }
 
+    /**
+     * Sorts the list by all the orders of the sort, with the rules of {@link #comparator(Sort, Class, Map, Locale)},
+     * the collation keys of the text properties being computed once per row instead of at each comparison.
+     * @param <T>
+     * @param list
+     * @param sort
+     * @param clazz
+     * @param customComparators
+     * @param locale language of the text properties, binary order of the characters when null
+     * @return the list sorted in place
+     */
+    public static <T> List<T> sort(List<T> list, Sort sort, Class<T> clazz, Map<String, Comparator<T>> customComparators, Locale locale) {
+        if (sort == null
+                || sort.isUnsorted()
+                || list.size() < 2) {
+            return list;
+        }
+        final List<Order> orders = sort.toList();
+        final List<Function<T, CollationKey>> keyExtractors = new ArrayList<>(orders.size());
+        Comparator<CollatedRow<T>> comparator = null;
+        for (Order order : orders) {
+            final Comparator<CollatedRow<T>> orderComparator;
+            final Function<T, CollationKey> keyExtractor = keyExtractor(order, clazz, customComparators, locale);
+            if (keyExtractor != null) {
+                final int index = keyExtractors.size();
+                keyExtractors.add(keyExtractor);
+                orderComparator = (r1, r2) -> compare(r1.keys[index], r2.keys[index], order.getDirection(), order.getNullHandling());
+            } else {
+                final Comparator<T> valueComparator = comparator(order, clazz, customComparators, locale);
+                orderComparator = (r1, r2) -> valueComparator.compare(r1.value, r2.value);
+            }
+            comparator = comparator == null ? orderComparator : comparator.thenComparing(orderComparator);
+        }
+        final List<CollatedRow<T>> rows = new ArrayList<>(list.size());
+        for (T value : list) {
+            final CollationKey[] keys = new CollationKey[keyExtractors.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = keyExtractors.get(i).apply(value);
+            }
+            rows.add(new CollatedRow<>(value, keys));
+        }
+        rows.sort(comparator);
+        final ListIterator<T> iterator = list.listIterator();
+        for (CollatedRow<T> row : rows) {
+            iterator.next();
+            iterator.set(row.value);
+        }
+        return list;
+    }
+
+    /**
+     * @return the collation key of the text property of the order, null if the order is not collated
+     */
+    private static <T> Function<T, CollationKey> keyExtractor(Order order, Class<T> clazz, Map<String, Comparator<T>> customComparators, Locale locale) {
+        final Locale collationLocale = order instanceof CollatedOrder collatedOrder ? collatedOrder.getLocale() : locale;
+        if (collationLocale == null
+                || (customComparators != null && customComparators.containsKey(order.getProperty()))) {
+            return null;
+        }
+        final Method method = getCompareMethod(order.getProperty(), clazz);
+        final PropertyAccessor accessor = method != null ? PropertyAccessors.of(method) : null;
+        if (accessor == null
+                || (accessor.getType() != String.class && !accessor.getType().isEnum())) {
+            return null;
+        }
+        final Collator collator = CollationKeyCache.of(collationLocale, order.isIgnoreCase()).newCollator();
+        return value -> {
+            final String text = toString(accessor.get(value));
+            return text == null ? null : collator.getCollationKey(text);
+        };
+    }
+
+    /**
+     * Comparator of all the orders of the sort, for the rows which can not be sorted in a list
+     * (e.g. {@link org.flcit.springboot.web.core.dataset.ExternalSorter}).
+     * @param <T>
+     * @param sort
+     * @param clazz
+     * @param customComparators
+     * @param locale language of the text properties, binary order of the characters when null
+     * @return
+     */
+    public static <T> Comparator<T> comparator(Sort sort, Class<T> clazz, Map<String, Comparator<T>> customComparators, Locale locale) {
+        Comparator<T> comparator = null;
+        for (Order order : sort == null ? Sort.unsorted() : sort) {
+            final Comparator<T> orderComparator = comparator(order, clazz, customComparators, locale);
+            comparator = comparator == null ? orderComparator : comparator.thenComparing(orderComparator);
+        }
+        return comparator != null ? comparator : (v1, v2) -> 0;
+    }
+
+    private static <T> Comparator<T> comparator(Order order, Class<T> clazz, Map<String, Comparator<T>> customComparators, Locale locale) {
+        final Locale collationLocale = order instanceof CollatedOrder collatedOrder ? collatedOrder.getLocale() : locale;
+        final String property = order.getProperty();
+        final Direction direction = order.getDirection();
+        final boolean ignoreCase = order.isIgnoreCase();
+        final NullHandling nullHandling = order.getNullHandling();
+        final Comparator<T> customComparator = customComparators != null ? customComparators.get(property) : null;
+        if (customComparator != null) {
+            return customComparator;
+        }
+        final Method method = getCompareMethod(property, clazz);
+        if (method == null) {
+            throw new WrongOrderColumnException(property);
+        }
+        final PropertyAccessor accessor = PropertyAccessors.of(method);
+        if (collationLocale != null
+                && (accessor.getType() == String.class || accessor.getType().isEnum())) {
+            final Collator collator = CollationKeyCache.of(collationLocale, ignoreCase).newCollator();
+            return (v1, v2) -> compare(toString(accessor.get(v1)), toString(accessor.get(v2)), collator, direction, nullHandling);
+        }
+        return (v1, v2) -> ObjectUtils.getOrDefault(compare(accessor, v1, v2, ignoreCase, direction, nullHandling), 0);
+    }
+
+    private static boolean isNullsFirst(Direction direction, NullHandling nullHandling) {
+        return (nullHandling == NullHandling.NULLS_FIRST) == (direction == null || direction.isAscending());
+    }
+
+    private static <T> Comparator<T> nullHandling(Comparator<T> comparator, Direction direction, NullHandling nullHandling) {
+        return isNullsFirst(direction, nullHandling) ? Comparator.nullsFirst(comparator) : Comparator.nullsLast(comparator);
+    }
+
+    /**
+     * @param <T>
+     * @param keyExtractor
+     * @param direction
+     * @return
+     */
+    public static <T> Comparator<T> comparingInt(ToIntFunction<? super T> keyExtractor, Direction direction) {
+        return comparingInt(keyExtractor, direction, null);
+    }
+
+    /**
+     * @param <T>
+     * @param keyExtractor
+     * @param direction
+     * @param nullHandling position of the null entries
+     * @return
+     */
+    public static <T> Comparator<T> comparingInt(ToIntFunction<? super T> keyExtractor, Direction direction, NullHandling nullHandling) {
+        final Comparator<T> comparator = direction == null || direction.isAscending()
+                ? (v1, v2) -> Integer.compare(keyExtractor.applyAsInt(v1), keyExtractor.applyAsInt(v2))
+                : (v1, v2) -> Integer.compare(keyExtractor.applyAsInt(v2), keyExtractor.applyAsInt(v1));
+        return nullHandling(comparator, direction, nullHandling);
+    }
+
+    /**
+     * @param <T>
+     * @param keyExtractor
+     * @param direction
+     * @return
+     */
+    public static <T> Comparator<T> comparingLong(ToLongFunction<? super T> keyExtractor, Direction direction) {
+        return comparingLong(keyExtractor, direction, null);
+    }
+
+    /**
+     * @param <T>
+     * @param keyExtractor
+     * @param direction
+     * @param nullHandling position of the null entries
+     * @return
+     */
+    public static <T> Comparator<T> comparingLong(ToLongFunction<? super T> keyExtractor, Direction direction, NullHandling nullHandling) {
+        final Comparator<T> comparator = direction == null || direction.isAscending()
+                ? (v1, v2) -> Long.compare(keyExtractor.applyAsLong(v1), keyExtractor.applyAsLong(v2))
+                : (v1, v2) -> Long.compare(keyExtractor.applyAsLong(v2), keyExtractor.applyAsLong(v1));
+        return nullHandling(comparator, direction, nullHandling);
+    }
+
+    /**
+     * @param <T>
+     * @param keyExtractor
+     * @param direction
+     * @return
+     */
+    public static <T> Comparator<T> comparingDouble(ToDoubleFunction<? super T> keyExtractor, Direction direction) {
+        return comparingDouble(keyExtractor, direction, null);
+    }
+
+    /**
+     * @param <T>
+     * @param keyExtractor
+     * @param direction
+     * @param nullHandling position of the null entries
+     * @return
+     */
+    public static <T> Comparator<T> comparingDouble(ToDoubleFunction<? super T> keyExtractor, Direction direction, NullHandling nullHandling) {
+        final Comparator<T> comparator = direction == null || direction.isAscending()
+                ? (v1, v2) -> Double.compare(keyExtractor.applyAsDouble(v1), keyExtractor.applyAsDouble(v2))
+                : (v1, v2) -> Double.compare(keyExtractor.applyAsDouble(v2), keyExtractor.applyAsDouble(v1));
+        return nullHandling(comparator, direction, nullHandling);
+    }
+
+    private static boolean isKeyType(Class<?> clazz) {
+        return (clazz.isPrimitive() && clazz != void.class)
+                || clazz == Long.class
+                || clazz == Integer.class
+                || clazz == Short.class
+                || clazz == Byte.class
+                || clazz == Double.class
+                || clazz == Float.class
+                || clazz == Boolean.class
+                || clazz == Character.class
+                || clazz == Date.class
+                || clazz == Instant.class;
+    }
+
+    private static <T> boolean sortByKeys(List<T> list, PropertyAccessor accessor, Direction direction, NullHandling nullHandling) {
+        if (list.size() < 2
+                || !isKeyType(accessor.getType())) {
+            return false;
+        }
+        final long[] keys = new long[list.size()];
+        final boolean[] nulls = new boolean[keys.length];
+        final int nullCount = accessor.getType().isPrimitive() && accessor.getType() != boolean.class
+                ? primitiveKeys(list, accessor, keys)
+                : keys(list, accessor, keys, nulls);
+        if (nullCount < 0) {
+            return false;
+        }
+        if (direction != null
+                && direction.isDescending()) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = ~keys[i];
+            }
+        }
+        final boolean nullsFirst = isNullsFirst(direction, nullHandling);
+        final int[] indices = new int[keys.length - nullCount];
+        final int[] order = new int[keys.length];
+        int n = 0;
+        int position = nullsFirst ? 0 : indices.length;
+        for (int i = 0; i < keys.length; i++) {
+            if (nulls[i]) {
+                order[position++] = i;
+            } else {
+                indices[n++] = i;
+            }
+        }
+        IndexSortUtils.sort(keys, indices);
+        System.arraycopy(indices, 0, order, nullsFirst ? nullCount : 0, indices.length);
+        IndexSortUtils.reorder(list, order);
+        return true;
+    }
+
+    private static <T> int primitiveKeys(List<T> list, PropertyAccessor accessor, long[] keys) {
+        final Class<?> type = accessor.getType();
+        int i = 0;
+        if (type == long.class) {
+            for (T value : list) {
+                keys[i++] = accessor.getLong(value);
+            }
+        } else if (type == double.class || type == float.class) {
+            for (T value : list) {
+                keys[i++] = IndexSortUtils.sortableKey(accessor.getDouble(value));
+            }
+        } else {
+            for (T value : list) {
+                keys[i++] = accessor.getInt(value);
+            }
+        }
+        return 0;
+    }
+
+    private static <T> int keys(List<T> list, PropertyAccessor accessor, long[] keys, boolean[] nulls) {
+        int nullCount = 0;
+        int i = 0;
+        for (T value : list) {
+            final Object key = accessor.get(value);
+            if (key == null) {
+                nulls[i] = true;
+                nullCount++;
+            } else if (key instanceof Double || key instanceof Float) {
+                keys[i] = IndexSortUtils.sortableKey(((Number) key).doubleValue());
+            } else if (key instanceof Number number) {
+                keys[i] = number.longValue();
+            } else if (key instanceof Boolean bool) {
+                keys[i] = bool ? 1 : 0;
+            } else if (key instanceof Character character) {
+                keys[i] = character;
+            } else if (key.getClass() == Date.class) {
+                keys[i] = ((Date) key).getTime();
+            } else if (key instanceof Instant instant
+                    && instant.getEpochSecond() > MIN_NANO_SECONDS
+                    && instant.getEpochSecond() < MAX_NANO_SECONDS) {
+                keys[i] = instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+            } else {
+                // Date subclass or Instant out of the nanosecond range: compared with compareTo
+                return -1;
+            }
+            i++;
+        }
+        return nullCount;
+    }
+
+    private static <T> void sortByCollationKeys(List<T> list, PropertyAccessor accessor, CollationKeyCache cache, Direction direction, NullHandling nullHandling) {
+        final List<CollatedRow<T>> rows = new ArrayList<>(list.size());
+        for (T value : list) {
+            rows.add(new CollatedRow<>(value, new CollationKey[] { cache.getKey(toString(accessor.get(value))) }));
+        }
+        rows.sort((r1, r2) -> compare(r1.keys[0], r2.keys[0], direction, nullHandling));
+        final ListIterator<T> iterator = list.listIterator();
+        for (CollatedRow<T> row : rows) {
+            iterator.next();
+            iterator.set(row.value);
+        }
+    }
+
+    private static final class CollatedRow<T> {
+
+        private final T value;
+        private final CollationKey[] keys;
+
+        CollatedRow(T value, CollationKey[] keys) {
+            this.value = value;
+            this.keys = keys;
+        }
+
+    }
+
 }
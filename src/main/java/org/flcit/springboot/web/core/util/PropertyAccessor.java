@@ -0,0 +1,179 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Getter of a property, generated with {@link LambdaMetafactory} so the JIT can inline the call.
+ * <p>
+ * A getter returning a primitive is also exposed without boxing by {@link #getInt(Object)},
+ * {@link #getLong(Object)} or {@link #getDouble(Object)}.
+ * When the lambda can not be generated (e.g. class loaded by another class loader), reflection is used.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public final class PropertyAccessor {
+
+    private final Method method;
+    private final Class<?> type;
+    private final Function<Object, Object> getter;
+    private final ToIntFunction<Object> intGetter;
+    private final ToLongFunction<Object> longGetter;
+    private final ToDoubleFunction<Object> doubleGetter;
+
+    @SuppressWarnings("unchecked")
+    PropertyAccessor(Method method) {
+        this.method = method;
+        this.type = method.getReturnType();
+        final MethodHandles.Lookup lookup = lookup(method);
+        this.getter = lookup != null ? (Function<Object, Object>) lambda(lookup, method, Function.class, "apply", Object.class) : null;
+        this.intGetter = lookup != null && isInt(this.type) ? (ToIntFunction<Object>) lambda(lookup, method, ToIntFunction.class, "applyAsInt", int.class) : null;
+        this.longGetter = lookup != null && this.type == long.class ? (ToLongFunction<Object>) lambda(lookup, method, ToLongFunction.class, "applyAsLong", long.class) : null;
+        this.doubleGetter = lookup != null && (this.type == double.class || this.type == float.class) ? (ToDoubleFunction<Object>) lambda(lookup, method, ToDoubleFunction.class, "applyAsDouble", double.class) : null;
+    }
+
+    private static boolean isInt(Class<?> type) {
+        return type == int.class || type == short.class || type == byte.class || type == char.class;
+    }
+
+    private static MethodHandles.Lookup lookup(Method method) {
+        if (Modifier.isStatic(method.getModifiers())
+                || method.getReturnType() == void.class) {
+            return null;
+        }
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            return lookup.hasFullPrivilegeAccess() ? lookup : null;
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Object lambda(MethodHandles.Lookup lookup, Method method, Class<?> functionalInterface, String name, Class<?> returnType) {
+        try {
+            final MethodHandle handle = lookup.unreflect(method);
+            final Class<?> instantiatedReturnType = returnType == Object.class ? MethodType.methodType(method.getReturnType()).wrap().returnType() : returnType;
+            final CallSite site = LambdaMetafactory.metafactory(lookup,
+                    name,
+                    MethodType.methodType(functionalInterface),
+                    MethodType.methodType(returnType, Object.class),
+                    handle,
+                    MethodType.methodType(instantiatedReturnType, method.getDeclaringClass()));
+            return site.getTarget().invoke();
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param bean
+     * @return the value of the property
+     */
+    public Object get(Object bean) {
+        return this.getter != null ? this.getter.apply(bean) : invoke(bean);
+    }
+
+    /**
+     * @param bean
+     * @return the value of a property of type int, short, byte or char
+     */
+    public int getInt(Object bean) {
+        return this.intGetter != null ? this.intGetter.applyAsInt(bean) : toInt(get(bean));
+    }
+
+    /**
+     * @param bean
+     * @return the value of a property of type long
+     */
+    public long getLong(Object bean) {
+        return this.longGetter != null ? this.longGetter.applyAsLong(bean) : ((Number) get(bean)).longValue();
+    }
+
+    /**
+     * @param bean
+     * @return the value of a property of type double or float
+     */
+    public double getDouble(Object bean) {
+        return this.doubleGetter != null ? this.doubleGetter.applyAsDouble(bean) : ((Number) get(bean)).doubleValue();
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Character c ? c : ((Number) value).intValue();
+    }
+
+    private Object invoke(Object bean) {
+        try {
+            return this.method.invoke(bean);
+        } catch (InvocationTargetException e) {
+            if (e.getTargetException() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getTargetException() instanceof Error error) {
+                throw error;
+            }
+            throw new UndeclaredThrowableException(e.getTargetException());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the return type of the getter
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return
+     */
+    public String getName() {
+        return method.getName();
+    }
+
+    /**
+     * @return true if the getter is public, has no parameter and a return type, the only ones usable to filter
+     */
+    public boolean isReadable() {
+        return Modifier.isPublic(this.method.getModifiers())
+                && this.method.getParameterCount() == 0
+                && this.type != void.class
+                && this.type != Void.class;
+    }
+
+}
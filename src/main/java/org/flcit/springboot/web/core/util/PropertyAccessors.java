@@ -0,0 +1,116 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.util;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.flcit.commons.core.util.ReflectionUtils;
+
+/**
+ * Cache of the {@link PropertyAccessor}, created once per class and property.
+ * 
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public final class PropertyAccessors {
+
+    private static final ClassValue<ClassAccessors> CACHE = new ClassValue<>() {
+        @Override
+        protected ClassAccessors computeValue(Class<?> type) {
+            return new ClassAccessors(type);
+        }
+    };
+
+    private PropertyAccessors() { }
+
+    /**
+     * @param clazz
+     * @param property
+     * @return the accessor of the getter of the property, null if not found
+     */
+    public static PropertyAccessor of(Class<?> clazz, String property) {
+        return CACHE.get(clazz).properties.computeIfAbsent(property, p -> Optional.ofNullable(ReflectionUtils.getterMethod(clazz, p)).map(PropertyAccessors::of)).orElse(null);
+    }
+
+    /**
+     * @param method
+     * @return the accessor of the method
+     */
+    public static PropertyAccessor of(Method method) {
+        return CACHE.get(method.getDeclaringClass()).methods.computeIfAbsent(method, PropertyAccessor::new);
+    }
+
+    /**
+     * @param clazz
+     * @param name
+     * @return the accessor of the method without parameter declared by the class or the nearest superclass, null if not found
+     */
+    public static PropertyAccessor declared(Class<?> clazz, String name) {
+        return CACHE.get(clazz).declared.computeIfAbsent(name, n -> Optional.ofNullable(findDeclared(clazz, n))).orElse(null);
+    }
+
+    /**
+     * @param clazz
+     * @return the accessors of the methods declared by the class
+     */
+    public static List<PropertyAccessor> declared(Class<?> clazz) {
+        return CACHE.get(clazz).declaredMethods();
+    }
+
+    private static PropertyAccessor findDeclared(Class<?> clazz, String name) {
+        try {
+            return of(clazz.getDeclaredMethod(name));
+        } catch (NoSuchMethodException e) {
+            return ReflectionUtils.hasSuperClass(clazz) ? declared(clazz.getSuperclass(), name) : null;
+        }
+    }
+
+    private static final class ClassAccessors {
+
+        private final Class<?> type;
+        private final Map<String, Optional<PropertyAccessor>> properties = new ConcurrentHashMap<>();
+        private final Map<String, Optional<PropertyAccessor>> declared = new ConcurrentHashMap<>();
+        private final Map<Method, PropertyAccessor> methods = new ConcurrentHashMap<>();
+        private volatile List<PropertyAccessor> declaredMethods;
+
+        ClassAccessors(Class<?> type) {
+            this.type = type;
+        }
+
+        List<PropertyAccessor> declaredMethods() {
+            List<PropertyAccessor> accessors = this.declaredMethods;
+            if (accessors == null) {
+                final Method[] methods = this.type.getDeclaredMethods();
+                accessors = new ArrayList<>(methods.length);
+                for (Method method : methods) {
+                    accessors.add(of(method));
+                }
+                accessors = Collections.unmodifiableList(accessors);
+                this.declaredMethods = accessors;
+            }
+            return accessors;
+        }
+
+    }
+
+}
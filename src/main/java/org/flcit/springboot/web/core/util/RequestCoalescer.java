@@ -0,0 +1,237 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.util;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.util.Assert;
+
+/**
+ * Single flight execution of identical concurrent requests: the first request of a key computes the result,
+ * the requests of the same key arriving during the computation wait for it and share the same result.
+ * <p>
+ * With a time to live, the result is also returned to the requests of the key arriving after the computation,
+ * until it expires. A failure is never kept: it is thrown to the waiting requests and the next request computes again.
+ * The kept results are bounded by a maximum size: the expired results are removed when a result is computed,
+ * in the order of their computation, then the oldest results when the maximum size is reached.
+ * The shared result must not be modified by the callers (e.g. {@link org.flcit.springboot.web.core.domain.WrapperBootstrapTable}).
+ * <p>
+ * Typical key: {@link org.flcit.springboot.web.core.domain.PageableFilterKey}, one coalescer by endpoint.
+ * 
+ * @param <K>
+ * @param <V>
+ * @since 1.0.1
+ * @author Florian Lestic
+ */
+public class RequestCoalescer<K, V> {
+
+    /**
+     * Maximum number of kept results by default.
+     */
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private final ConcurrentMap<K, Flight<K, V>> flights = new ConcurrentHashMap<>();
+    private final Deque<Flight<K, V>> kept = new ArrayDeque<>();
+    private int keptSize;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final LongSupplier clock;
+
+    /**
+     * Coalescer sharing only the computations in progress.
+     */
+    public RequestCoalescer() {
+        this(Duration.ZERO);
+    }
+
+    /**
+     * @param ttl time to live of a result after its computation, zero to share only the computations in progress
+     */
+    public RequestCoalescer(Duration ttl) {
+        this(ttl, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param ttl time to live of a result after its computation, zero to share only the computations in progress
+     * @param maxSize maximum number of kept results
+     */
+    public RequestCoalescer(Duration ttl, int maxSize) {
+        this(ttl, maxSize, System::nanoTime);
+    }
+
+    RequestCoalescer(Duration ttl, int maxSize, LongSupplier clock) {
+        Assert.isTrue(ttl != null && !ttl.isNegative(), "ttl must not be negative");
+        Assert.isTrue(maxSize > 0, "maxSize must be positive");
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * @param key
+     * @param computation executed by the calling thread if no computation of the key is in progress or kept,
+     * must not call {@link #get(Object, Supplier)} with the same key: the call would wait for its own result forever
+     * @return the result of the computation
+     */
+    public V get(K key, Supplier<? extends V> computation) {
+        while (true) {
+            final Flight<K, V> flight = this.flights.get(key);
+            if (flight != null
+                    && !flight.isExpired(this.clock.getAsLong())) {
+                return join(flight.result);
+            }
+            final Flight<K, V> leader = new Flight<>(key);
+            if (flight == null) {
+                if (this.flights.putIfAbsent(key, leader) == null) {
+                    return compute(key, leader, computation);
+                }
+            } else if (this.flights.replace(key, flight, leader)) {
+                release(flight);
+                return compute(key, leader, computation);
+            }
+        }
+    }
+
+    private V compute(K key, Flight<K, V> flight, Supplier<? extends V> computation) {
+        final V value;
+        try {
+            value = computation.get();
+        } catch (RuntimeException | Error e) {
+            this.flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        if (this.ttlNanos > 0) {
+            keep(flight);
+        } else {
+            this.flights.remove(key, flight);
+        }
+        flight.result.complete(value);
+        return value;
+    }
+
+    /**
+     * The results expire in the order of their computation:
+     * only the expired, released or oldest results at the head of the queue are visited.
+     * The results released before their turn (invalidated or replaced) do not count in the maximum size,
+     * the queue being compacted when they are as many as the maximum size.
+     */
+    private void keep(Flight<K, V> flight) {
+        synchronized (this.kept) {
+            final long now = this.clock.getAsLong();
+            flight.expiresAt = now + this.ttlNanos;
+            flight.kept = true;
+            this.kept.addLast(flight);
+            this.keptSize++;
+            Flight<K, V> head;
+            while ((head = this.kept.peekFirst()) != null
+                    && (!head.kept || this.keptSize > this.maxSize || now - head.expiresAt >= 0)) {
+                this.kept.pollFirst();
+                if (head.kept) {
+                    head.kept = false;
+                    this.keptSize--;
+                    this.flights.remove(head.key, head);
+                }
+            }
+            if (this.kept.size() - this.keptSize >= this.maxSize) {
+                this.kept.removeIf(f -> !f.kept);
+            }
+        }
+    }
+
+    private void release(Flight<K, V> flight) {
+        synchronized (this.kept) {
+            if (flight.kept) {
+                flight.kept = false;
+                this.keptSize--;
+            }
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Remove the kept result of the key, e.g. after an update of the data.
+     * A computation in progress is not interrupted.
+     * @param key
+     */
+    public void invalidate(K key) {
+        final Flight<K, V> flight = this.flights.get(key);
+        if (flight != null
+                && flight.result.isDone()
+                && this.flights.remove(key, flight)) {
+            release(flight);
+        }
+    }
+
+    /**
+     * Remove all the kept results.
+     */
+    public void clear() {
+        synchronized (this.kept) {
+            this.kept.forEach(flight -> flight.kept = false);
+            this.kept.clear();
+            this.keptSize = 0;
+        }
+        this.flights.values().removeIf(flight -> flight.result.isDone());
+    }
+
+    /**
+     * @return the number of computations in progress and results kept
+     */
+    public int size() {
+        return this.flights.size();
+    }
+
+    private static final class Flight<K, V> {
+
+        private final K key;
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private volatile long expiresAt;
+        private boolean kept;
+
+        Flight(K key) {
+            this.key = key;
+        }
+
+        boolean isExpired(long now) {
+            return this.result.isDone() && now - this.expiresAt >= 0;
+        }
+
+    }
+
+}
@@ -16,10 +16,13 @@
 
 package org.flcit.springboot.web.core.util;
 
+import java.util.Map;
+
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import org.flcit.springboot.web.core.aggregate.Aggregate;
 import org.flcit.springboot.web.core.domain.WrapperBootstrapTable;
 
 /**
@@ -57,4 +60,35 @@ public final class ResponseEntityUtils {
         return page == null ? ResponseEntity.status(HttpStatus.NOT_FOUND).build() : ResponseEntity.ok(new WrapperBootstrapTable<>(page));
     }
 
+    /**
+     * @param <T>
+     * @param page
+     * @param eTag version of the data, e.g. {@link org.flcit.springboot.web.core.dataset.Snapshot#getETag()}
+     * @return
+     */
+    public static <T> ResponseEntity<WrapperBootstrapTable<T>> bootstrapTableWithETag(Page<T> page, String eTag) {
+        return page == null ? ResponseEntity.status(HttpStatus.NOT_FOUND).build() : ResponseEntity.ok().eTag(eTag).body(new WrapperBootstrapTable<>(page));
+    }
+
+    /**
+     * @param <T>
+     * @param page
+     * @param facets count of each value by facet, e.g. {@link org.flcit.springboot.web.core.filter.FacetCounter}
+     * @return
+     */
+    public static <T> ResponseEntity<WrapperBootstrapTable<T>> bootstrapTableWithFacets(Page<T> page, Map<String, Map<Object, Long>> facets) {
+        return page == null ? ResponseEntity.status(HttpStatus.NOT_FOUND).build() : ResponseEntity.ok(new WrapperBootstrapTable<>(page, facets));
+    }
+
+    /**
+     * @param <T>
+     * @param page
+     * @param facets count of each value by facet, may be null
+     * @param aggregates aggregate of each column over all the rows, e.g. {@link org.flcit.springboot.web.core.aggregate.AggregateSpecification}
+     * @return
+     */
+    public static <T> ResponseEntity<WrapperBootstrapTable<T>> bootstrapTableWithAggregates(Page<T> page, Map<String, Map<Object, Long>> facets, Map<String, Aggregate> aggregates) {
+        return page == null ? ResponseEntity.status(HttpStatus.NOT_FOUND).build() : ResponseEntity.ok(new WrapperBootstrapTable<>(page, facets, aggregates));
+    }
+
 }
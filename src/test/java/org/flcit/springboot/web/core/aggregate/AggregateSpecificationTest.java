@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.aggregate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.flcit.springboot.web.core.exception.WrongAggregateColumnException;
+
+class AggregateSpecificationTest {
+
+    private static final Row ROW1 = new Row("a", 1, 10L, 0.5, new BigDecimal("1.25"));
+    private static final Row ROW2 = new Row("b", 5, null, 1.5, null);
+    private static final Row ROW3 = new Row("c", -2, 30L, 2.0, new BigDecimal("2.75"));
+
+    @Test
+    void aggregateTest() {
+        final AggregateSpecification<Row> specification = AggregateSpecification.of(Row.class, "quantity", "total", "price", "amount");
+        final Map<String, Aggregate> aggregates = specification.aggregate(Arrays.asList(ROW1, ROW2, null, ROW3));
+        assertIterableEquals(Arrays.asList("quantity", "total", "price", "amount"), aggregates.keySet());
+        final Aggregate quantity = aggregates.get("quantity");
+        assertEquals(3, quantity.getCount());
+        assertEquals(4L, quantity.getSum());
+        assertEquals(-2L, quantity.getMin());
+        assertEquals(5L, quantity.getMax());
+        assertEquals(4d / 3, quantity.getAverage().doubleValue());
+        final Aggregate total = aggregates.get("total");
+        assertEquals(2, total.getCount());
+        assertEquals(40L, total.getSum());
+        assertEquals(20d, total.getAverage().doubleValue());
+        assertEquals(4d, aggregates.get("price").getSum());
+        assertEquals(2d, aggregates.get("price").getMax());
+        assertEquals(new BigDecimal("4.00"), aggregates.get("amount").getSum());
+        assertEquals(new BigDecimal("1.25"), aggregates.get("amount").getMin());
+        assertEquals(new BigDecimal("2.75"), aggregates.get("amount").getMax());
+        assertEquals(2d, aggregates.get("amount").getAverage().doubleValue());
+
+        final Aggregate empty = specification.aggregate(List.of()).get("total");
+        assertEquals(0, empty.getCount());
+        assertEquals(0L, empty.getSum());
+        assertNull(empty.getMin());
+        assertNull(empty.getAverage());
+
+        assertThrows(WrongAggregateColumnException.class, () -> AggregateSpecification.of(Row.class, "name"));
+        assertThrows(WrongAggregateColumnException.class, () -> AggregateSpecification.of(Row.class, "unknown"));
+    }
+
+    @Test
+    void decimalTest() {
+        final AggregateSpecification<Row> specification = AggregateSpecification.of(Row.class, "amount");
+        final List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rows.add(new Row("n", i, null, 0, new BigDecimal("0.1")));
+        }
+        rows.add(new Row("n", 0, null, 0, new BigDecimal("0.2")));
+        assertEquals(new BigDecimal("1.2"), specification.aggregate(rows).get("amount").getSum());
+        assertEquals(new BigDecimal("1.2"), rows.parallelStream().collect(specification.collector()).get("amount").getSum());
+        assertEquals(BigDecimal.ZERO, specification.aggregate(List.of()).get("amount").getSum());
+    }
+
+    @Test
+    void filterTest() {
+        final AggregateSpecification<Row> specification = AggregateSpecification.of(Row.class, "quantity", "price");
+        final List<Row> matching = new ArrayList<>();
+        final Map<String, Aggregate> aggregates = specification.aggregate(Arrays.asList(ROW1, ROW2, ROW3), row -> row.getQuantity() > 0, matching::add);
+        assertIterableEquals(Arrays.asList(ROW1, ROW2), matching);
+        assertEquals(6L, aggregates.get("quantity").getSum());
+        assertEquals(2d, aggregates.get("price").getSum());
+    }
+
+    @Test
+    void parallelTest() {
+        final AggregateSpecification<Row> specification = AggregateSpecification.of(Row.class, "quantity", "total", "price");
+        final List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            rows.add(new Row("n", i % 100, i % 3 == 0 ? null : (long) i, i * 0.1, null));
+        }
+        final Map<String, Aggregate> sequential = specification.aggregate(rows);
+        final Map<String, Aggregate> parallel = rows.parallelStream().collect(specification.collector());
+        for (String property : sequential.keySet()) {
+            assertEquals(sequential.get(property).getCount(), parallel.get(property).getCount());
+            assertEquals(sequential.get(property).getMin(), parallel.get(property).getMin());
+            assertEquals(sequential.get(property).getMax(), parallel.get(property).getMax());
+            assertEquals(sequential.get(property).getSum().doubleValue(), parallel.get(property).getSum().doubleValue(), 1e-6);
+        }
+        assertThrows(IllegalArgumentException.class, () -> specification.aggregator().combine(AggregateSpecification.of(Row.class, "quantity", "total", "price").aggregator()));
+    }
+
+    static class Row {
+        private final String name;
+        private final int quantity;
+        private final Long total;
+        private final double price;
+        private final BigDecimal amount;
+        Row(final String name, final int quantity, final Long total, final double price, final BigDecimal amount) {
+            this.name = name;
+            this.quantity = quantity;
+            this.total = total;
+            this.price = price;
+            this.amount = amount;
+        }
+        public String getName() {
+            return name;
+        }
+        public int getQuantity() {
+            return quantity;
+        }
+        public Long getTotal() {
+            return total;
+        }
+        public double getPrice() {
+            return price;
+        }
+        public BigDecimal getAmount() {
+            return amount;
+        }
+    }
+
+}
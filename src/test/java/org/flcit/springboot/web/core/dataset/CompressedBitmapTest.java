@@ -0,0 +1,83 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.dataset;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CompressedBitmapTest {
+
+    @Test
+    void addRemoveTest() {
+        final CompressedBitmap bitmap = CompressedBitmap.of(1, 70_000, 5);
+        assertArrayEquals(new int[] { 1, 5, 70_000 }, bitmap.toArray());
+        assertTrue(bitmap.contains(70_000));
+        assertFalse(bitmap.contains(70_001));
+        assertFalse(bitmap.contains(-1));
+        bitmap.remove(70_000);
+        bitmap.remove(-1);
+        assertEquals(2, bitmap.cardinality());
+        bitmap.clear();
+        assertTrue(bitmap.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+    }
+
+    @Test
+    void operationsTest() {
+        final Random random = new Random(3);
+        for (int bound : new int[] { 1_000, 20_000, 300_000 }) {
+            final BitSet set1 = new BitSet();
+            final BitSet set2 = new BitSet();
+            final CompressedBitmap bitmap1 = new CompressedBitmap();
+            final CompressedBitmap bitmap2 = new CompressedBitmap();
+            for (int i = 0; i < 30_000; i++) {
+                final int value1 = random.nextInt(bound);
+                final int value2 = random.nextInt(bound / 2);
+                set1.set(value1);
+                bitmap1.add(value1);
+                set2.set(value2);
+                bitmap2.add(value2);
+            }
+            for (int i = 0; i < 5_000; i++) {
+                final int value = random.nextInt(bound);
+                set1.clear(value);
+                bitmap1.remove(value);
+            }
+            assertArrayEquals(set1.stream().toArray(), bitmap1.toArray());
+            assertEquals(set1.cardinality(), bitmap1.cardinality());
+            final BitSet and = (BitSet) set1.clone();
+            and.and(set2);
+            assertArrayEquals(and.stream().toArray(), bitmap1.and(bitmap2).toArray());
+            final BitSet or = (BitSet) set1.clone();
+            or.or(set2);
+            assertArrayEquals(or.stream().toArray(), bitmap1.or(bitmap2).toArray());
+            final BitSet andNot = (BitSet) set1.clone();
+            andNot.andNot(set2);
+            assertArrayEquals(andNot.stream().toArray(), bitmap1.andNot(bitmap2).toArray());
+            assertEquals(bitmap1, bitmap1.copy());
+        }
+    }
+
+}
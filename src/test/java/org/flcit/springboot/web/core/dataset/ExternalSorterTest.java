@@ -0,0 +1,115 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.dataset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.data.util.CloseableIterator;
+import org.flcit.springboot.web.core.exception.WrongOrderColumnException;
+import org.flcit.springboot.web.core.util.PageableUtils;
+
+class ExternalSorterTest {
+
+    private static final RowCodec<Row> CODEC = new RowCodec<>() {
+        @Override
+        public void write(DataOutput out, Row row) throws IOException {
+            out.writeBoolean(row.getName() != null);
+            if (row.getName() != null) {
+                out.writeUTF(row.getName());
+            }
+            out.writeInt(row.getRank());
+        }
+        @Override
+        public Row read(DataInput in) throws IOException {
+            return new Row(in.readBoolean() ? in.readUTF() : null, in.readInt());
+        }
+    };
+
+    @Test
+    void sortTest() throws IOException {
+        final Path directory = Files.createTempDirectory("sort");
+        final Random random = new Random(42);
+        final List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(new Row(i % 7 == 0 ? null : "name" + random.nextInt(20), i));
+        }
+        final Sort sort = Sort.by(Order.desc("name").nullsFirst(), Order.asc("rank"));
+        final Comparator<Row> comparator = Comparator.comparing(Row::getName, Comparator.nullsLast(Comparator.<String>reverseOrder()))
+                .thenComparingInt(Row::getRank);
+        final List<Row> expected = new ArrayList<>(rows);
+        expected.sort(comparator);
+        final ExternalSorter<Row> sorter = new ExternalSorter<>(PageableUtils.comparator(sort, Row.class, null, null), CODEC, 30, 4, directory);
+        final List<Row> sorted = new ArrayList<>();
+        try (CloseableIterator<Row> iterator = sorter.sort(rows.stream())) {
+            iterator.forEachRemaining(sorted::add);
+            assertEquals(expected.size(), sorted.size());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getName(), sorted.get(i).getName());
+            assertEquals(expected.get(i).getRank(), sorted.get(i).getRank());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertFalse(files.findAny().isPresent());
+        }
+    }
+
+    @Test
+    void sortInMemoryTest() throws IOException {
+        final ExternalSorter<Row> sorter = ExternalSorter.of(Sort.by(Direction.DESC, "rank"), Row.class, null, CODEC, 10);
+        try (CloseableIterator<Row> iterator = sorter.sort(List.of(new Row("a", 1), new Row("b", 3), new Row("c", 2)).iterator())) {
+            assertEquals(3, iterator.next().getRank());
+            assertEquals(2, iterator.next().getRank());
+            assertEquals(1, iterator.next().getRank());
+            assertFalse(iterator.hasNext());
+        }
+        assertThrows(WrongOrderColumnException.class, () -> ExternalSorter.of(Sort.by("unknown"), Row.class, null, CODEC, 10));
+        assertThrows(IllegalArgumentException.class, () -> new ExternalSorter<>(Comparator.<Row>comparingInt(Row::getRank), CODEC, 0));
+    }
+
+    static class Row {
+        private final String name;
+        private final int rank;
+        Row(final String name, final int rank) {
+            this.name = name;
+            this.rank = rank;
+        }
+        public String getName() {
+            return name;
+        }
+        public int getRank() {
+            return rank;
+        }
+    }
+
+}
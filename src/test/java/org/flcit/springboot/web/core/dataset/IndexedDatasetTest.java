@@ -0,0 +1,252 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.dataset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.NullHandling;
+import org.springframework.data.domain.Sort.Order;
+import org.flcit.springboot.web.core.exception.WrongFilterColumnException;
+import org.flcit.springboot.web.core.exception.WrongOrderColumnException;
+import org.flcit.springboot.web.core.filter.FacetCounter;
+import org.flcit.springboot.web.core.filter.FilterField;
+import org.flcit.springboot.web.core.filter.FilterOperator;
+import org.flcit.springboot.web.core.util.PageableUtils;
+
+class IndexedDatasetTest {
+
+    @Test
+    void pageTest() {
+        final IndexedDataset<Integer, Row> dataset = new IndexedDataset<>(Row.class, Row::getId, "name", "rank");
+        final Random random = new Random(7);
+        for (int i = 0; i < 300; i++) {
+            dataset.put(new Row(i, random.nextInt(5) == 0 ? null : "n" + random.nextInt(100_000), random.nextInt(5) == 0 ? null : (long) random.nextInt(100_000)));
+        }
+        for (int i = 0; i < 100; i++) {
+            dataset.put(new Row(random.nextInt(300), "u" + random.nextInt(100_000), (long) random.nextInt(100_000)));
+            dataset.remove(random.nextInt(300));
+        }
+        for (Order order : List.of(Order.asc("name"), Order.desc("name"), Order.asc("rank").with(NullHandling.NULLS_FIRST), Order.desc("rank").with(NullHandling.NULLS_FIRST), Order.desc("rank"))) {
+            for (int page = 0; page < 30; page++) {
+                final Pageable pageable = PageRequest.of(page, 11, Sort.by(order));
+                final List<Row> expected = PageableUtils.sort(pageable, new ArrayList<>(dataset.values()), Row.class, null);
+                final Page<Row> result = dataset.page(pageable);
+                assertIterableEquals(PageableUtils.page(expected, pageable).getContent(), result.getContent());
+                assertEquals(dataset.size(), result.getTotalElements());
+            }
+        }
+    }
+
+    @Test
+    void descendingDuplicatesTest() {
+        final IndexedDataset<Integer, Row> dataset = new IndexedDataset<>(Row.class, Row::getId, "name", "rank");
+        for (int i = 0; i < 40; i++) {
+            dataset.put(new Row(i, i % 7 == 0 ? null : "N" + (i % 3), i % 9 == 0 ? null : (long) (i % 4)));
+        }
+        final Order indexed = Order.desc("rank");
+        final Order fallback = Order.desc("name").ignoreCase();
+        for (Order order : List.of(indexed, fallback, Order.desc("name"), Order.desc("rank").with(NullHandling.NULLS_FIRST))) {
+            for (int size : new int[] { 3, 7, 40 }) {
+                for (int page = 0; page * size < 40; page++) {
+                    final Pageable pageable = PageRequest.of(page, size, Sort.by(order));
+                    final List<Row> expected = PageableUtils.sort(pageable, new ArrayList<>(dataset.values()), Row.class, null);
+                    assertIterableEquals(PageableUtils.page(expected, pageable).getContent(), dataset.page(pageable).getContent());
+                }
+            }
+        }
+        assertIterableEquals(List.of(27, 36, 3), dataset.page(PageRequest.of(1, 3, Sort.by(indexed))).map(Row::getId).getContent());
+        assertIterableEquals(List.of(7, 11, 15), dataset.page(PageRequest.of(2, 3, Sort.by(indexed))).map(Row::getId).getContent());
+        assertIterableEquals(List.of(2, 5, 8), dataset.page(PageRequest.of(2, 3, Sort.by(fallback))).map(Row::getId).getContent());
+        assertIterableEquals(List.of(2, 5, 8), dataset.page(null, PageRequest.of(2, 3, Sort.by(fallback))).map(Row::getId).getContent());
+    }
+
+    @Test
+    void putTest() {
+        final IndexedDataset<Integer, Row> dataset = new IndexedDataset<>(Row.class, Row::getId, Collections.singletonMap("custom", Comparator.comparing(Row::getId).reversed()), "rank");
+        assertTrue(dataset.isIndexed("custom"));
+        assertFalse(dataset.isIndexed("name"));
+        final Row row1 = new Row(1, "b", 2L);
+        final Row row2 = new Row(2, "a", 1L);
+        assertNull(dataset.put(row1));
+        dataset.put(row2);
+        assertIterableEquals(List.of(row2, row1), dataset.page(PageRequest.of(0, 5, Direction.ASC, "rank")).getContent());
+        final Row row1Bis = new Row(1, "c", 0L);
+        assertEquals(row1, dataset.put(row1Bis));
+        assertIterableEquals(List.of(row1Bis, row2), dataset.page(PageRequest.of(0, 5, Direction.ASC, "rank")).getContent());
+        assertIterableEquals(List.of(row1Bis, row2), dataset.values());
+        assertIterableEquals(List.of(row2, row1Bis), dataset.page(PageRequest.of(0, 5, Direction.ASC, "custom")).getContent());
+        assertIterableEquals(List.of(row2, row1Bis), dataset.page(PageRequest.of(0, 5, Direction.DESC, "custom")).getContent());
+        assertIterableEquals(List.of(row2, row1Bis), dataset.page(Pageable.unpaged(Sort.by("custom"))).getContent());
+        assertIterableEquals(List.of(row2, row1Bis), dataset.page(PageRequest.of(0, 5, Direction.ASC, "name")).getContent());
+        assertEquals(row2, dataset.remove(2));
+        assertNull(dataset.get(2));
+        assertIterableEquals(List.of(row1Bis), dataset.page(PageRequest.of(0, 5)).getContent());
+        dataset.clear();
+        assertEquals(0, dataset.size());
+        assertThrows(WrongOrderColumnException.class, () -> new IndexedDataset<>(Row.class, Row::getId, "unknown"));
+    }
+
+    @Test
+    void filterTest() {
+        final IndexedDataset<Integer, Item> dataset = new IndexedDataset<Integer, Item>(Item.class, Item::getId, "name").bitmapIndex("status", "active");
+        final List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final Item item = new Item(i, "name" + (i % 7), Status.values()[i % 3], i % 5 == 0 ? null : i % 2 == 0);
+            items.add(item);
+            dataset.put(item);
+        }
+        dataset.remove(3);
+        items.remove(3);
+        final Item updated = new Item(6, "updated", Status.C, Boolean.FALSE);
+        dataset.put(updated);
+        items.set(5, updated);
+        assertIterableEquals(items.stream().filter(i -> i.getStatus() == Status.A && Boolean.TRUE.equals(i.getActive())).toList(),
+                dataset.filter(new ItemFilter(null, Status.A, Boolean.TRUE, null, null)));
+        assertIterableEquals(items.stream().filter(i -> i.getStatus() != Status.B && i.getActive() == null && i.getName().equals("name0")).toList(),
+                dataset.filter(new ItemFilter("name0", null, null, List.of(Status.A, Status.C), Boolean.TRUE)));
+        assertIterableEquals(items.stream().filter(i -> i.getStatus() == Status.C && i.getActive() != null && i.getName().contains("upd")).toList(),
+                dataset.filter(new ItemFilter("upd", Status.C, null, null, Boolean.FALSE)));
+        assertIterableEquals(items, dataset.filter(new ItemFilter(null, null, null, null, null)));
+        final Page<Item> page = dataset.page(new ItemFilter(null, Status.B, null, null, null), PageRequest.of(1, 10, Direction.DESC, "name"));
+        final List<Item> expected = PageableUtils.sort(PageRequest.of(1, 10, Direction.DESC, "name"), new ArrayList<>(items.stream().filter(i -> i.getStatus() == Status.B).toList()), Item.class, null);
+        assertIterableEquals(expected.subList(10, 20), page.getContent());
+        assertEquals(expected.size(), page.getTotalElements());
+        assertThrows(IllegalArgumentException.class, () -> dataset.bitmapIndex("name"));
+    }
+
+    @Test
+    void facetsTest() {
+        final IndexedDataset<Integer, Item> dataset = new IndexedDataset<Integer, Item>(Item.class, Item::getId).bitmapIndex("status", "active");
+        final List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final Item item = new Item(i, "name" + (i % 4), Status.values()[i % 3], i % 5 == 0 ? null : i % 2 == 0);
+            items.add(item);
+            dataset.put(item);
+        }
+        final Map<String, Map<Object, Long>> facets = dataset.facets(new ItemFilter(null, Status.A, Boolean.TRUE, null, null), "status", "active");
+        assertEquals(count(items.stream().filter(i -> Boolean.TRUE.equals(i.getActive())).map(i -> (Object) i.getStatus())), facets.get("status"));
+        assertEquals(count(items.stream().filter(i -> i.getStatus() == Status.A).map(i -> (Object) i.getActive())), facets.get("active"));
+        assertEquals(FacetCounter.of(new ItemFilter(null, Status.A, Boolean.TRUE, null, null), Item.class, "status", "active").count(items), facets);
+
+        final Map<String, Map<Object, Long>> nameFacets = dataset.facets(new ItemFilter("name1", null, null, List.of(Status.B, Status.C), null), "status", "name");
+        assertEquals(count(items.stream().filter(i -> i.getName().contains("name1")).map(i -> (Object) i.getStatus())), nameFacets.get("status"));
+        assertEquals(count(items.stream().filter(i -> i.getStatus() != Status.A).map(i -> (Object) i.getName())), nameFacets.get("name"));
+        assertThrows(WrongFilterColumnException.class, () -> dataset.facets(null, "unknown"));
+    }
+
+    @Test
+    void facetTiesTest() {
+        final IndexedDataset<Integer, Item> dataset = new IndexedDataset<Integer, Item>(Item.class, Item::getId).bitmapIndex("status", "active");
+        final List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            final Item item = new Item(i, "name" + (5 - i % 6), Status.values()[2 - i % 3], i % 2 == 0);
+            items.add(item);
+            dataset.put(item);
+        }
+        final Map<String, Map<Object, Long>> facets = dataset.facets(null, "status", "active");
+        assertEquals(List.of(Status.A, Status.B, Status.C), new ArrayList<>(facets.get("status").keySet()));
+        assertEquals(List.of(Boolean.FALSE, Boolean.TRUE), new ArrayList<>(facets.get("active").keySet()));
+        final Map<String, Map<Object, Long>> scan = FacetCounter.of(null, Item.class, "status", "active", "name").count(items);
+        assertEquals(List.of("name0", "name1", "name2", "name3", "name4", "name5"), new ArrayList<>(scan.get("name").keySet()));
+        for (String facet : List.of("status", "active")) {
+            assertEquals(new ArrayList<>(scan.get(facet).entrySet()), new ArrayList<>(facets.get(facet).entrySet()));
+        }
+    }
+
+    private static Map<Object, Long> count(Stream<Object> values) {
+        return values.filter(Objects::nonNull).collect(Collectors.groupingBy(Function.<Object>identity(), Collectors.counting()));
+    }
+
+    static enum Status {
+        A, B, C;
+    }
+
+    static class Item {
+        private final Integer id;
+        private final String name;
+        private final Status status;
+        private final Boolean active;
+        Item(final Integer id, final String name, final Status status, final Boolean active) {
+            this.id = id;
+            this.name = name;
+            this.status = status;
+            this.active = active;
+        }
+        public Integer getId() {
+            return id;
+        }
+        public String getName() {
+            return name;
+        }
+        public Status getStatus() {
+            return status;
+        }
+        public Boolean getActive() {
+            return active;
+        }
+    }
+
+    record ItemFilter(String name,
+            Status status,
+            Boolean active,
+            @FilterField("status") List<Status> statuses,
+            @FilterField(value = "active", operator = FilterOperator.IS_NULL) Boolean noActive) {
+    }
+
+    static class Row {
+        private final Integer id;
+        private final String name;
+        private final Long rank;
+        Row(final Integer id, final String name, final Long rank) {
+            this.id = id;
+            this.name = name;
+            this.rank = rank;
+        }
+        public Integer getId() {
+            return id;
+        }
+        public String getName() {
+            return name;
+        }
+        public Long getRank() {
+            return rank;
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.dataset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.flcit.springboot.web.core.exception.WrongFilterColumnException;
+
+class PrefixIndexTest {
+
+    @Test
+    void searchTest() {
+        final Row elise = new Row("\u00c9lise", "Lyon", 5);
+        final Row elodie = new Row("elodie", "Paris", 9);
+        final Row ellen = new Row("Ellen", "Elbeuf", null);
+        final Row paul = new Row("Paul", "Paris", 7);
+        final PrefixIndex<Row> index = new PrefixIndex<>(Row.class, "score", 3, "name", "city");
+        index.rebuild(List.of(elise, elodie, ellen, paul));
+        assertEquals(4, index.size());
+        assertIterableEquals(List.of(elodie, elise, ellen), index.search("EL", 10));
+        assertIterableEquals(List.of(elise), index.search("eli", 10));
+        assertIterableEquals(List.of(elise), index.search("\u00e9LI", 10));
+        assertIterableEquals(List.of(elodie, paul), index.search("pa", 10));
+        assertIterableEquals(List.of(elodie), index.search("pa", 1));
+        assertIterableEquals(List.of(elodie, paul, elise), index.search("", 10));
+        assertIterableEquals(List.of(), index.search("elx", 10));
+        assertIterableEquals(List.of(), index.search("elodies", 10));
+        assertEquals("elise", PrefixIndex.fold("\u00c9LISE"));
+        assertThrows(WrongFilterColumnException.class, () -> new PrefixIndex<>(Row.class, "score", 3, "score"));
+        assertThrows(WrongFilterColumnException.class, () -> new PrefixIndex<>(Row.class, "name", 3, "city"));
+    }
+
+    @Test
+    void randomTest() {
+        final Random random = new Random(7);
+        final List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            rows.add(new Row(word(random), word(random), random.nextInt(50)));
+        }
+        final PrefixIndex<Row> index = new PrefixIndex<>(Row.class, "score", 8, "name", "city");
+        index.rebuild(rows);
+        final List<Row> byScore = new ArrayList<>(rows);
+        byScore.sort(Comparator.comparing(Row::getScore).reversed());
+        for (String prefix : List.of("", "a", "b", "ab", "ba", "cab", "abca", "cc")) {
+            final List<Row> expected = byScore.stream()
+                    .filter(row -> row.getName().startsWith(prefix) || row.getCity().startsWith(prefix))
+                    .limit(8)
+                    .toList();
+            assertIterableEquals(expected, index.search(prefix, 8));
+        }
+    }
+
+    @Test
+    void rebuildAsyncTest() {
+        final List<Runnable> tasks = new ArrayList<>();
+        final PrefixIndex<Row> index = new PrefixIndex<>(Row.class, null, 10, "name");
+        final CompletableFuture<Void> future = index.rebuildAsync(() -> List.of(new Row("old", null, null)), tasks::add);
+        assertEquals(0, index.size());
+        index.rebuild(List.of(new Row("new", null, null), new Row("newer", null, null)));
+        tasks.forEach(Runnable::run);
+        assertTrue(future.isDone());
+        assertEquals(2, index.size());
+        assertIterableEquals(List.of(), index.search("old", 10));
+        index.rebuildAsync(() -> List.of(new Row("last", null, null)), Runnable::run);
+        assertEquals("last", index.search("l", 10).get(0).getName());
+    }
+
+    private static String word(Random random) {
+        final StringBuilder sb = new StringBuilder();
+        final int length = 1 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(3)));
+        }
+        return sb.toString();
+    }
+
+    static class Row {
+        private final String name;
+        private final String city;
+        private final Integer score;
+        Row(final String name, final String city, final Integer score) {
+            this.name = name;
+            this.city = city;
+            this.score = score;
+        }
+        public String getName() {
+            return name;
+        }
+        public String getCity() {
+            return city;
+        }
+        public Integer getScore() {
+            return score;
+        }
+    }
+
+}
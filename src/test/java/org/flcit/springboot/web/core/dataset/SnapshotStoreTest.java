@@ -0,0 +1,137 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.dataset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.NullHandling;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.http.ResponseEntity;
+import org.flcit.springboot.web.core.domain.WrapperBootstrapTable;
+import org.flcit.springboot.web.core.util.ResponseEntityUtils;
+
+class SnapshotStoreTest {
+
+    @Test
+    void publishTest() {
+        final SnapshotStore<Row> store = new SnapshotStore<>(Row.class);
+        assertEquals(0, store.getVersion());
+        final Row row1 = new Row("b", 2);
+        final Row row2 = new Row("a", 1);
+        final Row row3 = new Row("c", 3);
+        final List<Row> rows = new ArrayList<>(List.of(row1, row2));
+        final Snapshot<Row> snapshot = store.publish(rows);
+        rows.add(row3);
+        assertEquals(1, snapshot.getVersion());
+        assertEquals(2, snapshot.size());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getRows().add(row3));
+
+        final List<Row> sorted = snapshot.sort(PageRequest.of(0, 1, Direction.ASC, "name"));
+        assertIterableEquals(List.of(row2, row1), sorted);
+        assertSame(sorted, snapshot.sort(PageRequest.of(1, 1, Direction.ASC, "name")));
+        assertIterableEquals(List.of(row1, row2), snapshot.getRows());
+
+        final Snapshot<Row> next = store.update(current -> {
+            final List<Row> list = new ArrayList<>(current);
+            list.add(row3);
+            return list;
+        });
+        assertEquals(2, next.getVersion());
+        assertSame(next, store.get());
+        assertEquals(2, snapshot.size());
+        assertNotEquals(snapshot.getETag(), next.getETag());
+
+        final Page<Row> page = next.page(PageRequest.of(0, 2, Direction.DESC, "rank"));
+        assertIterableEquals(List.of(row3, row1), page.getContent());
+        assertEquals(3, page.getTotalElements());
+        final ResponseEntity<WrapperBootstrapTable<Row>> response = ResponseEntityUtils.bootstrapTableWithETag(page, next.getETag());
+        assertEquals(next.getETag(), response.getHeaders().getETag());
+    }
+
+    @Test
+    void filterTest() {
+        final SnapshotStore<Row> store = new SnapshotStore<>(Row.class);
+        final List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            rows.add(new Row(i % 2 == 0 ? "even" : "odd", i));
+        }
+        final Snapshot<Row> snapshot = store.publish(rows);
+        final Page<Row> page = snapshot.page(new RowFilter("EVEN"), PageRequest.of(1, 10, Direction.DESC, "rank"));
+        assertEquals(25, page.getTotalElements());
+        assertEquals(28, page.getContent().get(0).getRank());
+        assertEquals(10, page.getContent().size());
+        assertEquals(25, snapshot.page(new RowFilter("even"), null).getTotalElements());
+    }
+
+    @Test
+    void sortCacheTest() {
+        final Snapshot<Row> snapshot = new SnapshotStore<>(Row.class).publish(List.of(new Row("b", 2), new Row("a", 1)));
+        final List<Pageable> orders = new ArrayList<>();
+        for (String property : List.of("name", "rank")) {
+            for (Direction direction : Direction.values()) {
+                for (NullHandling nullHandling : NullHandling.values()) {
+                    orders.add(Pageable.unpaged(Sort.by(new Order(direction, property, nullHandling))));
+                    orders.add(Pageable.unpaged(Sort.by(new Order(direction, property, nullHandling).ignoreCase())));
+                }
+            }
+        }
+        final List<List<Row>> sorted = new ArrayList<>();
+        for (Pageable pageable : orders.subList(0, 16)) {
+            sorted.add(snapshot.sort(pageable));
+        }
+        assertSame(sorted.get(0), snapshot.sort(orders.get(0)));
+        final List<Row> last = snapshot.sort(orders.get(16));
+        assertSame(last, snapshot.sort(orders.get(16)));
+        assertSame(sorted.get(0), snapshot.sort(orders.get(0)));
+        final List<Row> resorted = snapshot.sort(orders.get(1));
+        assertNotSame(sorted.get(1), resorted);
+        assertSame(resorted, snapshot.sort(orders.get(1)));
+    }
+
+    static class Row {
+        private final String name;
+        private final int rank;
+        Row(final String name, final int rank) {
+            this.name = name;
+            this.rank = rank;
+        }
+        public String getName() {
+            return name;
+        }
+        public int getRank() {
+            return rank;
+        }
+    }
+
+    record RowFilter(String name) {
+    }
+
+}
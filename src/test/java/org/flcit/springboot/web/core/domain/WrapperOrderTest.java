@@ -17,11 +17,15 @@
 package org.flcit.springboot.web.core.domain;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
+import java.util.Locale;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.Order;
 
 class WrapperOrderTest {
 
@@ -35,6 +39,11 @@ class WrapperOrderTest {
         assertNotNull(order.asOrder());
         assertEquals(Direction.ASC, order.getDirection());
         assertEquals("name", order.getName());
+        order.setLocale(Locale.FRENCH);
+        assertEquals(Locale.FRENCH, order.getLocale());
+        assertEquals(Locale.FRENCH, ((CollatedOrder) order.asOrder()).getLocale());
+        assertEquals(Direction.DESC, ((CollatedOrder) order.asOrder().with(Direction.DESC)).getDirection());
+        assertNotEquals(order.asOrder(), Order.asc("name"));
     }
 
 }
\ No newline at end of file
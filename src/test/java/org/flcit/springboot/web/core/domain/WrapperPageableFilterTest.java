@@ -18,10 +18,14 @@ package org.flcit.springboot.web.core.domain;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort.Direction;
 
 class WrapperPageableFilterTest {
 
@@ -51,4 +55,36 @@ class WrapperPageableFilterTest {
         assertTrue(pageable.hasSearch());
     }
 
-}
\ No newline at end of file
+    @Test
+    void keyTest() {
+        final PageableFilterKey key = PageableFilterKey.of(request(new Filter("Open", List.of("a", "b")), "Search", 1, Direction.ASC));
+        assertEquals(key, PageableFilterKey.of(request(new Filter("open", List.of("b", "a")), "search", 1, Direction.ASC)));
+        assertEquals(key.hashCode(), PageableFilterKey.of(request(new Filter("open", List.of("b", "a")), "search", 1, Direction.ASC)).hashCode());
+        assertNotEquals(key, PageableFilterKey.of(request(new Filter("open", List.of("b", "a")), "search", 2, Direction.ASC)));
+        assertNotEquals(key, PageableFilterKey.of(request(new Filter("open", List.of("b", "a")), "search", 1, Direction.DESC)));
+        assertNotEquals(key, PageableFilterKey.of(request(new Filter("open", List.of("b")), "search", 1, Direction.ASC)));
+        assertNotEquals(key, PageableFilterKey.of(request(new Filter("open", List.of("b", "a")), null, 1, Direction.ASC)));
+        assertEquals(PageableFilterKey.of(new WrapperPageableFilter<>()), PageableFilterKey.of(request(new Filter("", null), null, 0, null)));
+    }
+
+    private static WrapperPageableFilter<Filter> request(Filter filter, String search, int pageNumber, Direction direction) {
+        final WrapperPageableFilter<Filter> request = new WrapperPageableFilter<>();
+        request.setFilter(filter);
+        request.setSearch(search);
+        if (direction != null) {
+            final WrapperPageable pageable = new WrapperPageable();
+            pageable.setPageNumber(pageNumber);
+            pageable.setPageSize(20);
+            final WrapperOrder order = new WrapperOrder();
+            order.setName("name");
+            order.setDirection(direction);
+            pageable.setOrders(new WrapperOrder[] { order });
+            request.setPageable(pageable);
+        }
+        return request;
+    }
+
+    record Filter(String name, List<String> codes) {
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class BatchingSseEmitterTest {
+
+    @Test
+    void batch() throws IOException {
+        final RecordingEmitter emitter = new RecordingEmitter();
+        final BatchingSseEmitter batching = new BatchingSseEmitter(emitter, 3, Duration.ofHours(1));
+        batching.send("a");
+        batching.send("progress", 1);
+        batching.send("progress", 2);
+        assertEquals(0, emitter.writes.size());
+        batching.send("b");
+        assertEquals(1, emitter.writes.size());
+        assertEquals("data:a\n\ndata:2\n\ndata:b\n\n", emitter.writes.get(0));
+        batching.send("c");
+        batching.flush();
+        batching.flush();
+        assertEquals(2, emitter.writes.size());
+        assertEquals("data:c\n\n", emitter.writes.get(1));
+    }
+
+    @Test
+    void window() throws IOException {
+        final RecordingEmitter emitter = new RecordingEmitter();
+        final BatchingSseEmitter batching = new BatchingSseEmitter(emitter, 100, Duration.ZERO);
+        batching.send("a");
+        batching.send("b");
+        assertEquals(2, emitter.writes.size());
+    }
+
+    @Test
+    void replaceByEqualKey() throws IOException {
+        final RecordingEmitter emitter = new RecordingEmitter();
+        final BatchingSseEmitter batching = new BatchingSseEmitter(emitter, 10, Duration.ofHours(1));
+        batching.send(new String("progress"), 1);
+        batching.send("a");
+        batching.send(new String("progress"), 2);
+        batching.flush();
+        assertEquals("data:2\n\ndata:a\n\n", emitter.writes.get(0));
+    }
+
+    @Test
+    void scheduledWindow() throws Exception {
+        final RecordingEmitter emitter = new RecordingEmitter();
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            final BatchingSseEmitter batching = new BatchingSseEmitter(emitter, 100, Duration.ofMillis(20), scheduler);
+            batching.send("a");
+            assertEquals(0, emitter.size());
+            final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (emitter.size() == 0 && System.nanoTime() < end) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, emitter.size());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> writes = new ArrayList<>();
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) {
+            final StringBuilder sb = new StringBuilder();
+            for (DataWithMediaType item : items) {
+                sb.append(item.getData());
+            }
+            writes.add(sb.toString());
+        }
+
+        synchronized int size() {
+            return writes.size();
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+
+class JsonStreamServiceTest {
+
+    private static String write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void ndjson() throws IOException {
+        final ResponseEntity<StreamingResponseBody> response = JsonStreamService.sendNdjson(writer -> {
+            writer.write(Map.of("id", 1));
+            writer.flush();
+            writer.write(Map.of("id", 2));
+        });
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", write(response));
+    }
+
+    @Test
+    void jsonArray() throws IOException {
+        assertEquals("[1,\"a\",{\"id\":3}]", write(JsonStreamService.sendJsonArray(writer -> {
+            writer.write(1);
+            writer.write("a");
+            writer.write(Map.of("id", 3));
+        })));
+        assertEquals("[]", write(JsonStreamService.sendJsonArray(writer -> { })));
+    }
+
+    @Test
+    void error() {
+        final ResponseEntity<StreamingResponseBody> response = JsonStreamService.sendNdjson(writer -> {
+            throw new Exception();
+        });
+        assertThrows(IllegalStateException.class, () -> write(response));
+    }
+
+    @Test
+    void errorAfterValues() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final StreamingResponseBody body = JsonStreamService.body(new ObjectMapper(), false, writer -> {
+            for (int i = 1; i <= 3; i++) {
+                writer.write(i);
+            }
+            throw new IllegalArgumentException();
+        });
+        assertThrows(IllegalArgumentException.class, () -> body.writeTo(out));
+        assertEquals("[1,2,3", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void contextObjectMapper() throws IOException {
+        final GenericWebApplicationContext context = new GenericWebApplicationContext();
+        context.registerBean(ObjectMapper.class, () -> new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE));
+        context.refresh();
+        final HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { HttpServletRequest.class },
+                (proxy, method, args) -> "getAttribute".equals(method.getName()) && DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE.equals(args[0]) ? context : null);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            assertEquals("{\"first_name\":\"a\"}\n", write(JsonStreamService.sendNdjson(writer -> writer.write(new Person("a")))));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+            context.close();
+        }
+        assertEquals("{\"firstName\":\"a\"}\n", write(JsonStreamService.sendNdjson(writer -> writer.write(new Person("a")))));
+    }
+
+    public static final class Person {
+
+        private final String firstName;
+
+        Person(String firstName) {
+            this.firstName = firstName;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+    }
+
+}
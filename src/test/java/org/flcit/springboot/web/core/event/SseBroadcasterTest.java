@@ -0,0 +1,135 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.flcit.springboot.web.core.event.SseEventBus.Subscription;
+import org.flcit.springboot.web.core.event.SseReplayBufferTest.RecordingEmitter;
+
+class SseBroadcasterTest {
+
+    @Test
+    void busBatches() {
+        final List<Runnable> tasks = new ArrayList<>();
+        final InMemorySseEventBus bus = new InMemorySseEventBus(tasks::add, 2);
+        final List<List<String>> batches = new ArrayList<>();
+        final Subscription subscription = bus.subscribe("topic", events -> batches.add(events.stream().map(e -> e.getId() + "=" + e.getData()).toList()));
+        bus.publish("topic", 1);
+        bus.publish("topic", 2);
+        bus.publish("topic", 3);
+        bus.publish("other", 4);
+        assertEquals(2, tasks.size());
+        tasks.forEach(Runnable::run);
+        assertIterableEquals(List.of(List.of("1=1", "2=2"), List.of("3=3")), batches);
+        subscription.cancel();
+        bus.publish("topic", 5);
+        tasks.get(tasks.size() - 1).run();
+        assertEquals(2, batches.size());
+    }
+
+    @Test
+    void fanOutOncePerNode() {
+        final InMemorySseEventBus bus = new InMemorySseEventBus();
+        final SseBroadcaster node1 = new SseBroadcaster(bus, 10, null);
+        final SseBroadcaster node2 = new SseBroadcaster(bus, 10, null);
+        final RecordingEmitter emitter1 = new RecordingEmitter();
+        final RecordingEmitter emitter2 = new RecordingEmitter();
+        final RecordingEmitter emitter3 = new RecordingEmitter();
+        node1.topic("topic").subscribe(emitter1, null);
+        node1.topic("topic").subscribe(emitter2, null);
+        node2.topic("topic").subscribe(emitter3, null);
+        node1.publish("topic", "event");
+        assertIterableEquals(List.of("id:1"), emitter1.ids());
+        assertIterableEquals(List.of("id:1"), emitter2.ids());
+        assertIterableEquals(List.of("id:1"), emitter3.ids());
+    }
+
+    @Test
+    void failingListener() {
+        final List<RuntimeException> errors = new ArrayList<>();
+        final InMemorySseEventBus bus = new InMemorySseEventBus(Runnable::run, 256, errors::add);
+        final List<Object> received = new ArrayList<>();
+        bus.subscribe("topic", events -> {
+            throw new IllegalStateException();
+        });
+        bus.subscribe("topic", events -> events.forEach(e -> received.add(e.getData())));
+        bus.publish("topic", 1);
+        bus.publish("topic", 2);
+        assertIterableEquals(List.of(1, 2), received);
+        assertEquals(2, errors.size());
+    }
+
+    @Test
+    void closeTopic() {
+        final InMemorySseEventBus bus = new InMemorySseEventBus();
+        final SseBroadcaster node = new SseBroadcaster(bus, 10, null);
+        final RecordingEmitter emitter1 = new RecordingEmitter();
+        node.topic("topic").subscribe(emitter1, null);
+        node.publish("topic", "event1");
+        node.close("topic");
+        assertEquals(0, node.size());
+        node.publish("topic", "event2");
+        assertIterableEquals(List.of("id:1"), emitter1.ids());
+        assertTrue(emitter1.completed);
+
+        final RecordingEmitter emitter2 = new RecordingEmitter();
+        node.topic("topic").subscribe(emitter2, "1");
+        node.publish("topic", "event3");
+        assertEquals(1, node.size());
+        assertIterableEquals(List.of("id:1"), emitter1.ids());
+        assertEquals("id:3", emitter2.ids().get(emitter2.ids().size() - 1));
+        node.close("unknown");
+    }
+
+    @Test
+    void reconnectToOtherNode() {
+        final InMemorySseEventBus bus = new InMemorySseEventBus();
+        final SseBroadcaster node1 = new SseBroadcaster(bus, 10, null);
+        final SseBroadcaster node2 = new SseBroadcaster(bus, 10, null);
+        node2.topic("topic");
+        final RecordingEmitter emitter1 = new RecordingEmitter();
+        node1.topic("topic").subscribe(emitter1, null);
+        node1.publish("topic", "event1");
+        node2.publish("topic", "event2");
+        node1.publish("topic", "event3");
+        assertIterableEquals(List.of("id:1", "id:2", "id:3"), emitter1.ids());
+
+        final RecordingEmitter emitter2 = new RecordingEmitter();
+        node2.topic("topic").subscribe(emitter2, "2");
+        assertIterableEquals(List.of("id:3"), emitter2.ids());
+
+        final SseBroadcaster node3 = new SseBroadcaster(bus, 10, null);
+        node3.topic("topic");
+        node1.publish("topic", "event4");
+        final RecordingEmitter emitter3 = new RecordingEmitter();
+        node3.topic("topic").subscribe(emitter3, "3");
+        assertIterableEquals(List.of("id:4"), emitter3.ids());
+        final RecordingEmitter emitter4 = new RecordingEmitter();
+        node3.topic("topic").subscribe(emitter4, "1");
+        assertIterableEquals(List.of("id:4"), emitter4.ids());
+        assertTrue(emitter4.events.get(0).iterator().next().getData().toString().contains("event:" + SseReplayBuffer.RESET_EVENT));
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SseEmitterMetricsTest {
+
+    private static final String NAME = "test";
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final SseEmitterMetrics metrics = new SseEmitterMetrics(registry);
+
+    @Test
+    void openGauge() throws Exception {
+        final FakeHandler first = FakeHandler.initialize(metrics.newEmitter(NAME, null));
+        FakeHandler.initialize(metrics.newEmitter(NAME, null));
+        assertEquals(2, registry.get("sse.emitters.open").tag("name", NAME).gauge().value());
+        first.emitter.complete();
+        assertEquals(1, registry.get("sse.emitters.open").tag("name", NAME).gauge().value());
+        assertEquals(1, registry.get("sse.emitters.duration").tag("name", NAME).timer().count());
+    }
+
+    @Test
+    void outcomes() throws Exception {
+        FakeHandler.initialize(metrics.newEmitter(NAME, null)).emitter.complete();
+        FakeHandler.initialize(metrics.newEmitter(NAME, null)).timeout();
+        final SseEmitter failed = SseEmitterService.send(Runnable::run, null, metrics, NAME, emitter -> {
+            throw new IllegalStateException();
+        });
+        FakeHandler.initialize(failed);
+        FakeHandler.initialize(metrics.newEmitter(NAME, null)).emitter.completeWithError(new IOException());
+        assertEquals(1, count("complete"));
+        assertEquals(1, count("timeout"));
+        assertEquals(2, count("error"));
+        assertEquals(0, registry.get("sse.emitters.open").tag("name", NAME).gauge().value());
+    }
+
+    @Test
+    void sendTimers() throws Exception {
+        final FakeHandler handler = FakeHandler.initialize(metrics.newEmitter(NAME, null));
+        handler.emitter.send("a");
+        handler.emitter.send(SseEmitter.event().data("b"));
+        handler.failure = new IOException();
+        assertThrows(IOException.class, () -> handler.emitter.send("c"));
+        assertEquals(3, registry.get("sse.send").tag("name", NAME).timer().count());
+        assertEquals(1, registry.get("sse.send.failures").tag("name", NAME).counter().count());
+    }
+
+    private double count(String outcome) {
+        return registry.get("sse.emitters.completed").tag("name", NAME).tag("outcome", outcome).counter().count();
+    }
+
+    /**
+     * Handler of the servlet container: completes the emitter on complete and completeWithError
+     * without calling the error callback, as an async dispatch does.
+     */
+    static final class FakeHandler {
+
+        private final SseEmitter emitter;
+        private final List<Runnable> timeoutCallbacks = new ArrayList<>();
+        private final List<Runnable> completionCallbacks = new ArrayList<>();
+        private IOException failure;
+
+        private FakeHandler(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        static FakeHandler initialize(SseEmitter emitter) throws Exception {
+            final FakeHandler handler = new FakeHandler(emitter);
+            final Class<?> type = Class.forName(ResponseBodyEmitter.class.getName() + "$Handler");
+            final Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (p, method, args) -> handler.invoke(method, args));
+            final Method initialize = ResponseBodyEmitter.class.getDeclaredMethod("initialize", type);
+            initialize.setAccessible(true);
+            initialize.invoke(emitter, proxy);
+            return handler;
+        }
+
+        void timeout() {
+            timeoutCallbacks.forEach(Runnable::run);
+            completionCallbacks.forEach(Runnable::run);
+        }
+
+        private Object invoke(Method method, Object[] args) throws IOException {
+            switch (method.getName()) {
+            case "send":
+                if (failure != null) {
+                    throw failure;
+                }
+                break;
+            case "complete", "completeWithError":
+                completionCallbacks.forEach(Runnable::run);
+                break;
+            case "onTimeout":
+                timeoutCallbacks.add((Runnable) args[0]);
+                break;
+            case "onCompletion":
+                completionCallbacks.add((Runnable) args[0]);
+                break;
+            default:
+                break;
+            }
+            return null;
+        }
+
+    }
+
+}
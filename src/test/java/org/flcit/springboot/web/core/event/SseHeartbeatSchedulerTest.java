@@ -0,0 +1,136 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class SseHeartbeatSchedulerTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toNanos(1);
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SseHeartbeatScheduler scheduler = new SseHeartbeatScheduler(Duration.ofHours(1), 1, EXECUTOR, Runnable::run, clock::get);
+
+    @Test
+    void heartbeatIdleOnly() {
+        final CountingEmitter idle = new CountingEmitter(null);
+        final CountingEmitter active = new CountingEmitter(null);
+        scheduler.register(idle);
+        final SseHeartbeatScheduler.Registration registration = scheduler.register(active);
+        clock.set(HOUR / 2);
+        registration.touch();
+        clock.set(HOUR);
+        scheduler.tick();
+        assertEquals(1, idle.sends);
+        assertEquals(0, active.sends);
+    }
+
+    @Test
+    void touchPostponesHeartbeat() {
+        final CountingEmitter emitter = new CountingEmitter(null);
+        final SseHeartbeatScheduler.Registration registration = scheduler.register(emitter);
+        clock.set(HOUR - 1);
+        registration.touch();
+        clock.set(HOUR);
+        scheduler.tick();
+        assertEquals(0, emitter.sends);
+        clock.set(2 * HOUR - 1);
+        scheduler.tick();
+        assertEquals(1, emitter.sends);
+    }
+
+    @Test
+    void deadRegistrationsReaped() {
+        final CountingEmitter alive = new CountingEmitter(null);
+        scheduler.register(alive);
+        scheduler.register(new CountingEmitter(new IOException()));
+        scheduler.register(new CountingEmitter(new IllegalStateException()));
+        scheduler.register(new CountingEmitter(new UnsupportedOperationException()));
+        assertEquals(4, scheduler.size());
+        clock.set(HOUR);
+        scheduler.tick();
+        assertEquals(1, scheduler.size());
+        assertEquals(1, alive.sends);
+        clock.set(2 * HOUR);
+        scheduler.tick();
+        assertEquals(2, alive.sends);
+    }
+
+    @Test
+    void sendByExecutor() {
+        final List<Runnable> tasks = new ArrayList<>();
+        final SseHeartbeatScheduler byExecutor = new SseHeartbeatScheduler(Duration.ofHours(1), 1, EXECUTOR, tasks::add, clock::get);
+        final CountingEmitter emitter = new CountingEmitter(null);
+        byExecutor.register(emitter);
+        byExecutor.register(new CountingEmitter(new IOException()));
+        clock.set(HOUR);
+        byExecutor.tick();
+        assertEquals(2, tasks.size());
+        assertEquals(0, emitter.sends);
+        byExecutor.tick();
+        assertEquals(2, tasks.size());
+        tasks.forEach(Runnable::run);
+        tasks.clear();
+        assertEquals(1, emitter.sends);
+        assertEquals(1, byExecutor.size());
+        clock.set(2 * HOUR);
+        byExecutor.tick();
+        assertEquals(1, tasks.size());
+    }
+
+    static class CountingEmitter extends SseEmitter {
+
+        private final Exception failure;
+        private int sends;
+
+        CountingEmitter(Exception failure) {
+            this.failure = failure;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (failure instanceof IOException e) {
+                throw e;
+            }
+            if (failure instanceof RuntimeException e) {
+                throw e;
+            }
+            sends++;
+        }
+
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class SseReplayBufferTest {
+
+    @Test
+    void replay() throws IOException {
+        final SseReplayBuffer buffer = new SseReplayBuffer(3);
+        for (int i = 1; i <= 5; i++) {
+            buffer.publish("event" + i);
+        }
+        assertEquals(5, buffer.getLastId());
+
+        final RecordingEmitter newClient = new RecordingEmitter();
+        buffer.subscribe(newClient, null);
+        assertTrue(newClient.events.isEmpty());
+
+        final RecordingEmitter reconnected = new RecordingEmitter();
+        buffer.subscribe(reconnected, "3");
+        assertIterableEquals(List.of("id:4", "id:5"), reconnected.ids());
+
+        final RecordingEmitter oldest = new RecordingEmitter();
+        buffer.subscribe(oldest, "2");
+        assertIterableEquals(List.of("id:3", "id:4", "id:5"), oldest.ids());
+
+        buffer.publish("event", "value");
+        assertIterableEquals(List.of("id:6"), newClient.ids());
+        assertIterableEquals(List.of("id:4", "id:5", "id:6"), reconnected.ids());
+        assertEquals(3, buffer.getSubscriberCount());
+    }
+
+    @Test
+    void resetOnGap() throws IOException {
+        final SseReplayBuffer buffer = new SseReplayBuffer(3);
+        for (int i = 1; i <= 5; i++) {
+            buffer.publish("event" + i);
+        }
+        final RecordingEmitter tooOld = new RecordingEmitter();
+        buffer.subscribe(tooOld, "1");
+        final RecordingEmitter unknown = new RecordingEmitter();
+        buffer.subscribe(unknown, "8");
+        for (RecordingEmitter emitter : List.of(tooOld, unknown)) {
+            assertIterableEquals(List.of("id:5"), emitter.ids());
+            assertTrue(emitter.events.get(0).iterator().next().getData().toString().contains("event:" + SseReplayBuffer.RESET_EVENT));
+        }
+        buffer.publish("event6");
+        assertIterableEquals(List.of("id:5", "id:6"), tooOld.ids());
+    }
+
+    @Test
+    void sendByExecutor() throws IOException {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final SseReplayBuffer buffer = new SseReplayBuffer(4, null, tasks::add);
+        final RecordingEmitter first = new RecordingEmitter();
+        final RecordingEmitter second = new RecordingEmitter();
+        buffer.subscribe(first, null);
+        buffer.subscribe(second, null);
+        buffer.publish("event1");
+        buffer.publish("event2");
+        assertTrue(first.events.isEmpty());
+        assertEquals(2, tasks.size());
+        tasks.poll().run();
+        assertIterableEquals(List.of("id:1", "id:2"), first.ids());
+        assertTrue(second.events.isEmpty());
+        buffer.publish("event3");
+        assertEquals(2, tasks.size());
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+        assertIterableEquals(List.of("id:1", "id:2", "id:3"), first.ids());
+        assertIterableEquals(List.of("id:1", "id:2", "id:3"), second.ids());
+    }
+
+    @Test
+    void encodeOnce() throws IOException {
+        final SseReplayBuffer buffer = new SseReplayBuffer(2, new ObjectMapper());
+        final RecordingEmitter emitter = new RecordingEmitter();
+        buffer.subscribe(emitter, "0");
+        buffer.publish(List.of(1, 2));
+        assertTrue(emitter.events.get(0).stream().anyMatch(d -> "[1,2]".equals(d.getData())));
+    }
+
+    @Test
+    void failedEmitterRemoved() throws IOException {
+        final SseReplayBuffer buffer = new SseReplayBuffer(2);
+        buffer.subscribe(new SseEmitter() {
+            @Override
+            public void send(Set<DataWithMediaType> items) throws IOException {
+                throw new IOException();
+            }
+        }, null);
+        assertEquals(1, buffer.getSubscriberCount());
+        buffer.publish("event");
+        assertEquals(0, buffer.getSubscriberCount());
+    }
+
+    static class RecordingEmitter extends SseEmitter {
+
+        final List<Set<DataWithMediaType>> events = new ArrayList<>();
+        boolean completed;
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) {
+            events.add(items);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        List<String> ids() {
+            final List<String> ids = new ArrayList<>();
+            for (Set<DataWithMediaType> event : events) {
+                final String first = event.iterator().next().getData().toString();
+                ids.add(first.substring(0, first.indexOf('\n')));
+            }
+            return ids;
+        }
+
+    }
+
+}
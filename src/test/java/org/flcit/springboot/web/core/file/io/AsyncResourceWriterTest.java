@@ -0,0 +1,130 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import org.junit.jupiter.api.Test;
+
+class AsyncResourceWriterTest {
+
+    private static final byte[] BYTES = new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+
+    @Test
+    void writeResumeTest() throws IOException {
+        final AtomicInteger completes = new AtomicInteger();
+        final ReadyOutputStream out = new ReadyOutputStream();
+        final ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(BYTES));
+        final AsyncResourceWriter writer = new AsyncResourceWriter(asyncContext(completes), out, channel, 3);
+        out.ready = 2;
+        writer.onWritePossible();
+        assertEquals(6, out.bytes.size());
+        assertEquals(0, completes.get());
+        assertTrue(channel.isOpen());
+        out.ready = 1;
+        writer.onWritePossible();
+        assertEquals(9, out.bytes.size());
+        out.ready = 5;
+        writer.onWritePossible();
+        assertArrayEquals(BYTES, out.bytes.toByteArray());
+        assertEquals(1, completes.get());
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    void errorTest() {
+        final AtomicInteger completes = new AtomicInteger();
+        final ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(BYTES));
+        new AsyncResourceWriter(asyncContext(completes), new ReadyOutputStream(), channel, 3).onError(new IOException("BROKEN PIPE"));
+        assertFalse(channel.isOpen());
+        assertEquals(1, completes.get());
+
+        final ReadableByteChannel channel2 = Channels.newChannel(new ByteArrayInputStream(BYTES));
+        new AsyncResourceWriter(asyncContext(completes), new ReadyOutputStream(), channel2, 3).onError((AsyncEvent) null);
+        assertFalse(channel2.isOpen());
+        assertEquals(2, completes.get());
+    }
+
+    @Test
+    void timeoutTest() {
+        final AtomicInteger completes = new AtomicInteger();
+        final ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(BYTES));
+        final AsyncResourceWriter writer = new AsyncResourceWriter(asyncContext(completes), new ReadyOutputStream(), channel, 3);
+        writer.onTimeout(null);
+        assertFalse(channel.isOpen());
+        assertEquals(1, completes.get());
+        writer.onComplete(null);
+        assertFalse(channel.isOpen());
+    }
+
+    private static AsyncContext asyncContext(AtomicInteger completes) {
+        return (AsyncContext) Proxy.newProxyInstance(AsyncContext.class.getClassLoader(), new Class<?>[] { AsyncContext.class }, (proxy, method, args) -> {
+            if ("complete".equals(method.getName())) {
+                completes.incrementAndGet();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Output stream ready for a number of writes.
+     */
+    private static final class ReadyOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private int ready;
+
+        @Override
+        public boolean isReady() {
+            return ready > 0;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            // NOT USED
+        }
+
+        @Override
+        public void write(int b) {
+            bytes.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes.write(b, off, len);
+            ready--;
+        }
+
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import org.junit.jupiter.api.Test;
+
+class DigestAlgorithmTest {
+
+    private static final String TEXT = "Nobody inspects the spammish repetition";
+
+    private static String hash(DigestAlgorithm algorithm, String value) {
+        final ContentHasher hasher = algorithm.newHasher();
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        hasher.update(bytes, 0, bytes.length);
+        return HexFormat.of().formatHex(hasher.digest());
+    }
+
+    @Test
+    void xxHash64() {
+        assertEquals("ef46db3751d8e999", hash(DigestAlgorithm.XXHASH64, ""));
+        assertEquals("d24ec4f1a98c6e5b", hash(DigestAlgorithm.XXHASH64, "a"));
+        assertEquals("44bc2cf5ad770999", hash(DigestAlgorithm.XXHASH64, "abc"));
+        assertEquals("fbcea83c8a378bf1", hash(DigestAlgorithm.XXHASH64, TEXT));
+    }
+
+    @Test
+    void xxHash64Chunked() {
+        final byte[] bytes = (TEXT + TEXT + TEXT).getBytes(StandardCharsets.UTF_8);
+        final ContentHasher hasher = DigestAlgorithm.XXHASH64.newHasher();
+        for (int i = 0; i < bytes.length; i += 7) {
+            hasher.update(ByteBuffer.wrap(bytes, i, Math.min(7, bytes.length - i)));
+        }
+        assertEquals(hash(DigestAlgorithm.XXHASH64, TEXT + TEXT + TEXT), HexFormat.of().formatHex(hasher.digest()));
+    }
+
+    @Test
+    void crc32cAndSha256() {
+        assertEquals("e3069283", hash(DigestAlgorithm.CRC32C, "123456789"));
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", hash(DigestAlgorithm.SHA_256, "abc"));
+    }
+
+    @Test
+    void hashingStreams() throws IOException {
+        final byte[] bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+        try (HashingInputStream in = new HashingInputStream(new ByteArrayInputStream(bytes), DigestAlgorithm.XXHASH64)) {
+            in.readAllBytes();
+            assertEquals("fbcea83c8a378bf1", HexFormat.of().formatHex(in.digest()));
+        }
+        try (HashingInputStream in = new HashingInputStream(new ByteArrayInputStream(bytes), DigestAlgorithm.XXHASH64)) {
+            while (in.read() != -1) {
+                // DIGEST BY SINGLE BYTE
+            }
+            assertEquals("fbcea83c8a378bf1", HexFormat.of().formatHex(in.digest()));
+        }
+        try (HashingReadableByteChannel channel = new HashingReadableByteChannel(Channels.newChannel(new ByteArrayInputStream(bytes)), DigestAlgorithm.XXHASH64)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(10);
+            while (channel.read(buffer) != -1) {
+                buffer.clear();
+            }
+            assertEquals("fbcea83c8a378bf1", HexFormat.of().formatHex(channel.digest()));
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+import org.junit.jupiter.api.Test;
+
+import org.flcit.springboot.web.core.exception.BadRequestException;
+
+class LimitedInputStreamTest {
+
+    private static final String MESSAGE = "TOO LARGE";
+
+    @Test
+    void readOk() throws IOException {
+        final byte[] bytes = new byte[] { 1, 2, 3, 4 };
+        try (LimitedInputStream in = new LimitedInputStream(new ByteArrayInputStream(bytes), 5, MESSAGE)) {
+            assertArrayEquals(bytes, in.readAllBytes());
+            assertEquals(4, in.getCount());
+        }
+    }
+
+    @Test
+    void readTooLarge() throws IOException {
+        try (InputStream in = new LimitedInputStream(new ByteArrayInputStream(new byte[10]), 4, MESSAGE)) {
+            assertEquals(0, in.read());
+            in.read(new byte[2]);
+            final BadRequestException e = assertThrows(BadRequestException.class, in::read);
+            assertEquals(MESSAGE, e.getMessage());
+        }
+    }
+
+    @Test
+    void channelTooLarge() throws IOException {
+        try (ReadableByteChannel channel = new LimitedReadableByteChannel(Channels.newChannel(new ByteArrayInputStream(new byte[10])), 4, MESSAGE)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(3);
+            assertEquals(3, channel.read(buffer));
+            buffer.clear();
+            assertThrows(BadRequestException.class, () -> channel.read(buffer));
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.resource;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+class ReusableFileResourceTest {
+
+    private static final byte[] CONTENT = "reusable file resource content".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void pathOk() throws IOException {
+        final Path path = Files.createTempFile("reusable", ".txt");
+        try {
+            Files.write(path, CONTENT);
+            final ReusableFileResource resource = new ReusableFileResource(path);
+            assertEquals(CONTENT.length, resource.contentLength());
+            assertArrayEquals(CONTENT, resource.getContentAsByteArray());
+            assertArrayEquals(CONTENT, resource.getContentAsByteArray());
+            assertTrue(resource.isFile());
+            assertFalse(resource.isOpen());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void spillOk() throws IOException {
+        try (ReusableFileResource resource = ReusableFileResource.spill(new ByteArrayInputStream(CONTENT), "test.txt", MediaType.TEXT_PLAIN, -1)) {
+            assertEquals(CONTENT.length, resource.contentLength());
+            assertArrayEquals(CONTENT, resource.getContentAsByteArray());
+            assertArrayEquals(CONTENT, resource.getContentAsByteArray());
+            assertFalse(resource.isOpen());
+            assertEquals(MediaType.TEXT_PLAIN, resource.getContentType());
+        }
+        final SpillInputStreamSource source = new SpillInputStreamSource(new ByteArrayInputStream(CONTENT));
+        final Path file = source.getFile();
+        source.close();
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void spillPartialRead() throws IOException {
+        try (SpillInputStreamSource source = new SpillInputStreamSource(new ByteArrayInputStream(CONTENT))) {
+            try (InputStream first = source.getInputStream()) {
+                final byte[] begin = new byte[5];
+                assertEquals(5, first.read(begin));
+                assertArrayEquals(CONTENT, source.getInputStream().readAllBytes());
+                assertTrue(source.isSpilled());
+                final byte[] end = first.readAllBytes();
+                assertArrayEquals(Arrays.copyOfRange(CONTENT, 5, CONTENT.length), end);
+            }
+        }
+    }
+
+    @Test
+    void spillContentLength() throws IOException {
+        final CountingInputStream in = new CountingInputStream(CONTENT);
+        try (ReusableFileResource resource = ReusableFileResource.spill(in, "test.txt", MediaType.TEXT_PLAIN, -1)) {
+            assertEquals(CONTENT.length, resource.contentLength());
+            assertEquals(CONTENT.length, resource.contentLength());
+            assertArrayEquals(CONTENT, resource.getContentAsByteArray());
+            assertEquals(CONTENT.length, resource.contentLength());
+            assertEquals(CONTENT.length, in.count);
+        }
+        try (SpillInputStreamSource source = new SpillInputStreamSource(new ByteArrayInputStream(CONTENT))) {
+            try (InputStream first = source.getInputStream()) {
+                assertEquals(5, first.read(new byte[5]));
+                assertEquals(CONTENT.length, source.size());
+                assertArrayEquals(Arrays.copyOfRange(CONTENT, 5, CONTENT.length), first.readAllBytes());
+            }
+        }
+    }
+
+    private static final class CountingInputStream extends InputStream {
+
+        private final InputStream in;
+        private int count;
+
+        CountingInputStream(byte[] bytes) {
+            this.in = new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int n = in.read(b, off, len);
+            count += Math.max(n, 0);
+            return n;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int n = in.read();
+            count += n == -1 ? 0 : 1;
+            return n;
+        }
+
+    }
+
+}
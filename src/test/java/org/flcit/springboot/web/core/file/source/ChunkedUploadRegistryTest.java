@@ -0,0 +1,213 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.source;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+
+import org.flcit.springboot.web.core.exception.BadRequestException;
+import org.flcit.springboot.web.core.exception.ConflictException;
+import org.flcit.springboot.web.core.exception.NotFoundException;
+
+class ChunkedUploadRegistryTest {
+
+    private static final int CHUNK_SIZE = 10;
+
+    @Test
+    void parallelUpload() throws Exception {
+        final Path directory = Files.createTempDirectory("chunked");
+        final byte[] content = new byte[95];
+        new Random(1).nextBytes(content);
+        final ChunkedUploadRegistry registry = new ChunkedUploadRegistry(directory);
+        final ChunkedUpload upload = registry.start("test.bin", content.length, CHUNK_SIZE);
+        assertEquals(10, upload.getChunkCount());
+        assertNull(registry.write(upload.getId(), 9, chunk(content, 9)));
+        assertArrayEquals(new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8 }, upload.getMissingChunks());
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Future<?>[] futures = new Future<?>[8];
+            for (int i = 0; i < futures.length; i++) {
+                final int index = i;
+                futures[i] = executor.submit(() -> registry.write(upload.getId(), index, chunk(content, index)));
+            }
+            for (Future<?> future : futures) {
+                assertNull(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertArrayEquals(new int[] { 8 }, upload.getMissingChunks());
+        final ChunkedMultipartFile file = registry.write(upload.getId(), 8, chunk(content, 8));
+        assertNotNull(file);
+        assertArrayEquals(content, file.getBytes());
+        assertThrows(NotFoundException.class, () -> registry.get(upload.getId()));
+        file.close();
+        assertEquals(0, directory.toFile().list().length);
+    }
+
+    @Test
+    void transferAssembledFile() throws IOException {
+        final Path directory = Files.createTempDirectory("chunked");
+        final ChunkedUploadRegistry registry = new ChunkedUploadRegistry(directory);
+        final byte[] content = new byte[15];
+        new Random(2).nextBytes(content);
+        final ChunkedUpload upload = registry.start("test.bin", content.length, CHUNK_SIZE);
+        assertNull(registry.write(upload.getId(), 0, chunk(content, 0)));
+        final ChunkedMultipartFile file = registry.write(upload.getId(), 1, chunk(content, 1));
+        final Path dest = Files.createTempFile("chunked", ".bin");
+        file.transferTo(dest.toFile());
+        assertArrayEquals(content, Files.readAllBytes(dest));
+        assertEquals(0, directory.toFile().list().length);
+        Files.delete(dest);
+    }
+
+    @Test
+    void tooManyChunks() throws IOException {
+        final Path directory = Files.createTempDirectory("chunked");
+        final ChunkedUploadRegistry registry = new ChunkedUploadRegistry(directory);
+        assertThrows(BadRequestException.class, () -> registry.start("test.bin", Long.MAX_VALUE, 1));
+        assertEquals(0, directory.toFile().list().length);
+    }
+
+    @Test
+    void failedResend() throws IOException {
+        final ChunkedUploadRegistry registry = new ChunkedUploadRegistry(Files.createTempDirectory("chunked"));
+        final byte[] content = new byte[20];
+        final ChunkedUpload upload = registry.start("test.bin", content.length, CHUNK_SIZE);
+        final String id = upload.getId();
+        assertNull(registry.write(id, 0, chunk(content, 0)));
+        assertArrayEquals(new int[] { 1 }, upload.getMissingChunks());
+        assertThrows(BadRequestException.class, () -> registry.write(id, 0, new ByteArrayInputStream(new byte[11])));
+        assertArrayEquals(new int[] { 0, 1 }, upload.getMissingChunks());
+        registry.abort(id);
+    }
+
+    @Test
+    void resendDuringCompletion() throws Exception {
+        final Path directory = Files.createTempDirectory("chunked");
+        final byte[] content = new byte[20];
+        new Random(3).nextBytes(content);
+        final ChunkedUpload upload = new ChunkedUpload("id", directory.resolve("test.bin"), content.length, CHUNK_SIZE);
+        assertFalse(upload.write(0, chunk(content, 0)));
+        assertTrue(upload.write(1, chunk(content, 1)));
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Boolean> resend = executor.submit(() -> upload.write(0, new BlockingInputStream(chunk(content, 0), started, release)));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            final Future<FileMultipartFile> file = executor.submit(upload::toMultipartFile);
+            assertThrows(TimeoutException.class, () -> file.get(100, TimeUnit.MILLISECONDS));
+            release.countDown();
+            assertTrue(resend.get(5, TimeUnit.SECONDS));
+            assertArrayEquals(content, file.get(5, TimeUnit.SECONDS).getBytes());
+        } finally {
+            executor.shutdown();
+        }
+        assertThrows(ConflictException.class, () -> upload.write(0, chunk(content, 0)));
+        Files.delete(directory.resolve("test.bin"));
+    }
+
+    @Test
+    void expireIdleUpload() throws IOException {
+        final Path directory = Files.createTempDirectory("chunked");
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            final ChunkedUploadRegistry registry = new ChunkedUploadRegistry(directory, Duration.ofMinutes(1), scheduler);
+            final ChunkedUpload upload = registry.start("test.bin", 20, CHUNK_SIZE);
+            assertNull(registry.write(upload.getId(), 0, chunk(new byte[20], 0)));
+            assertEquals(0, registry.expire());
+            assertEquals(1, registry.expire(System.nanoTime() + Duration.ofMinutes(2).toNanos()));
+            assertThrows(NotFoundException.class, () -> registry.get(upload.getId()));
+            assertEquals(0, directory.toFile().list().length);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void wrongChunk() throws IOException {
+        final ChunkedUploadRegistry registry = new ChunkedUploadRegistry(Files.createTempDirectory("chunked"));
+        final ChunkedUpload upload = registry.start("test.bin", 25, CHUNK_SIZE);
+        final String id = upload.getId();
+        assertThrows(BadRequestException.class, () -> registry.write(id, 3, new ByteArrayInputStream(new byte[5])));
+        assertThrows(BadRequestException.class, () -> registry.write(id, 0, new ByteArrayInputStream(new byte[11])));
+        assertThrows(BadRequestException.class, () -> registry.write(id, 2, new ByteArrayInputStream(new byte[4])));
+        assertArrayEquals(new int[] { 0, 1, 2 }, upload.getMissingChunks());
+        registry.abort(id);
+    }
+
+    private static final class BlockingInputStream extends InputStream {
+
+        private final InputStream in;
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        BlockingInputStream(InputStream in, CountDownLatch started, CountDownLatch release) {
+            this.in = in;
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public int read() throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            return in.read(b, off, len);
+        }
+
+    }
+
+    private static ByteArrayInputStream chunk(byte[] content, int index) {
+        final int from = index * CHUNK_SIZE;
+        return new ByteArrayInputStream(Arrays.copyOfRange(content, from, Math.min(content.length, from + CHUNK_SIZE)));
+    }
+
+}
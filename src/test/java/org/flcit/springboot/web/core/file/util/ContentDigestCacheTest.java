@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.file.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import org.flcit.springboot.web.core.file.io.DigestAlgorithm;
+
+class ContentDigestCacheTest {
+
+    private static final byte[] CONTENT = "content digest cache".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void transferTest() throws IOException {
+        final ContentDigestCache cache = new ContentDigestCache(10);
+        final Path target = Files.createTempFile("digest", ".txt");
+        try {
+            final String digest = cache.transfer(new ByteArrayInputStream(CONTENT), target, DigestAlgorithm.SHA_256);
+            assertArrayEquals(CONTENT, Files.readAllBytes(target));
+            assertEquals(ContentDigestCache.hash(new ByteArrayInputStream(CONTENT), DigestAlgorithm.SHA_256), digest);
+            assertEquals(digest, cache.digest(target, DigestAlgorithm.SHA_256));
+        } finally {
+            Files.delete(target);
+        }
+    }
+
+    @Test
+    void putTest() throws IOException {
+        final ContentDigestCache cache = new ContentDigestCache(10);
+        final Path target = Files.createTempFile("digest", ".txt");
+        try {
+            Files.write(target, CONTENT);
+            cache.put(target, DigestAlgorithm.SHA_256, new byte[] { 1, 2 });
+            assertEquals("0102", cache.digest(target, DigestAlgorithm.SHA_256));
+        } finally {
+            Files.delete(target);
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Range;
+import org.flcit.springboot.web.core.exception.WrongFilterColumnException;
+
+class FilterPredicateTest {
+
+    private static final Item ITEM1 = new Item("Alpha", 1, null, new Item("Parent", 10, "a", null));
+    private static final Item ITEM2 = new Item("Beta", 2, "b", null);
+    private static final Item ITEM3 = new Item("alphabet", 3, "c", ITEM1);
+    private static final List<Item> ITEMS = Arrays.asList(ITEM1, ITEM2, ITEM3);
+
+    @Test
+    void criteriaTest() {
+        final List<FilterCriterion> criteria = FilterCriteria.of(new ItemFilter("al", Range.closed(1L, 2L), Set.of("a", "b"), Boolean.FALSE, 5, null));
+        assertEquals(Arrays.asList("code", "rank", "name", "code", "rank"), criteria.stream().map(FilterCriterion::getProperty).toList());
+        assertEquals(Arrays.asList(FilterOperator.IN, FilterOperator.BETWEEN, FilterOperator.CONTAINS, FilterOperator.IS_NULL, FilterOperator.LESS_THAN),
+                criteria.stream().map(FilterCriterion::getOperator).toList());
+        assertTrue(FilterCriteria.of(null).isEmpty());
+        assertTrue(FilterCriteria.of(new ItemFilter("", Range.unbounded(), Set.of(), null, null, null)).isEmpty());
+        assertTrue(FilterCriteria.of(new ItemFilter("al", null, null, null, null, null), "name").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new FilterCriterion("rank", FilterOperator.BETWEEN, 1));
+    }
+
+    @Test
+    void testTest() {
+        assertIterableEquals(Arrays.asList(ITEM1, ITEM3), FilterPredicate.of(new ItemFilter("ALP", null, null, null, null, null), Item.class).filter(ITEMS));
+        assertIterableEquals(Arrays.asList(ITEM1, ITEM2), FilterPredicate.of(new ItemFilter(null, Range.closed(1L, 2L), null, null, null, null), Item.class).filter(ITEMS));
+        assertIterableEquals(Arrays.asList(ITEM2, ITEM3), FilterPredicate.of(new ItemFilter(null, null, Set.of("B", "c"), null, null, null), Item.class).filter(ITEMS));
+        assertIterableEquals(Arrays.asList(ITEM1), FilterPredicate.of(new ItemFilter(null, null, null, Boolean.TRUE, null, null), Item.class).filter(ITEMS));
+        assertIterableEquals(Arrays.asList(ITEM1, ITEM2), FilterPredicate.of(new ItemFilter(null, null, null, null, 3, null), Item.class).filter(ITEMS));
+        assertIterableEquals(Arrays.asList(ITEM3), FilterPredicate.of(new ItemFilter(null, null, null, null, null, "ALPHA"), Item.class).filter(ITEMS));
+        assertIterableEquals(ITEMS, FilterPredicate.of(new ItemFilter(null, null, null, null, null, null), Item.class).filter(ITEMS));
+        assertIterableEquals(Arrays.asList(ITEM3), FilterPredicate.of(new ItemFilter("al", Range.rightOpen(1L, 5L), null, Boolean.FALSE, 5, null), Item.class).filter(ITEMS));
+        assertFalse(FilterPredicate.of(new ItemFilter(null, null, null, null, null, null), Item.class).test(null));
+    }
+
+    @Test
+    void operatorTest() {
+        assertTrue(FilterPredicate.of(List.of(new FilterCriterion("name", FilterOperator.STARTS_WITH, "alp")), Item.class).test(ITEM1));
+        assertFalse(FilterPredicate.of(List.of(new FilterCriterion("name", FilterOperator.STARTS_WITH, "alp", false, -1)), Item.class).test(ITEM1));
+        assertTrue(FilterPredicate.of(List.of(new FilterCriterion("rank", FilterOperator.GREATER_THAN_OR_EQUAL, 3L)), Item.class).test(ITEM3));
+        assertFalse(FilterPredicate.of(List.of(new FilterCriterion("rank", FilterOperator.GREATER_THAN, 3.5)), Item.class).test(ITEM3));
+        assertTrue(FilterPredicate.of(List.of(new FilterCriterion("rank", FilterOperator.EQUAL, 2L)), Item.class).test(ITEM2));
+        assertTrue(FilterPredicate.of(List.of(new FilterCriterion("rank", FilterOperator.AUTO, new int[] { 2, 4 })), Item.class).test(ITEM2));
+        assertTrue(FilterPredicate.of(List.of(new FilterCriterion("parent.parent.rank", FilterOperator.EQUAL, 10)), Item.class).test(ITEM3));
+        assertFalse(FilterPredicate.of(List.of(new FilterCriterion("parent.parent.rank", FilterOperator.EQUAL, 10)), Item.class).test(ITEM2));
+        assertThrows(WrongFilterColumnException.class, () -> FilterPredicate.of(List.of(new FilterCriterion("unknown", FilterOperator.EQUAL, 1)), Item.class));
+    }
+
+    @Test
+    void facetTest() {
+        final List<FilterCriterion> criteria = List.of(new FilterCriterion("code", FilterOperator.IN, List.of("b")), new FilterCriterion("rank", FilterOperator.LESS_THAN, 3));
+        final List<Item> matching = new ArrayList<>();
+        final Map<String, Map<Object, Long>> facets = FacetCounter.of(criteria, Item.class, "code", "rank").count(ITEMS, matching::add);
+        assertEquals(Map.of("b", 1L), facets.get("code"));
+        assertEquals(Map.of(2, 1L), facets.get("rank"));
+        assertIterableEquals(Arrays.asList(ITEM2), matching);
+        final Map<Object, Long> names = FacetCounter.of(null, Item.class, "code").count(Arrays.asList(ITEM2, ITEM3, ITEM2, null)).get("code");
+        assertIterableEquals(Arrays.asList("b", "c"), names.keySet());
+        assertIterableEquals(Arrays.asList(2L, 1L), names.values());
+        assertThrows(WrongFilterColumnException.class, () -> FacetCounter.of(null, Item.class, "unknown"));
+    }
+
+    static class Item {
+        private final String name;
+        private final int rank;
+        private final String code;
+        private final Item parent;
+        Item(final String name, final int rank, final String code, final Item parent) {
+            this.name = name;
+            this.rank = rank;
+            this.code = code;
+            this.parent = parent;
+        }
+        public String getName() {
+            return name;
+        }
+        public int getRank() {
+            return rank;
+        }
+        public String getCode() {
+            return code;
+        }
+        public Item getParent() {
+            return parent;
+        }
+    }
+
+    record ItemFilter(String name,
+            Range<Long> rank,
+            Set<String> code,
+            @FilterField(value = "code", operator = FilterOperator.IS_NULL) Boolean noCode,
+            @FilterField(value = "rank", operator = FilterOperator.LESS_THAN) Integer maxRank,
+            @FilterField(value = "parent.name", operator = FilterOperator.EQUAL) String parentName) {
+    }
+
+}
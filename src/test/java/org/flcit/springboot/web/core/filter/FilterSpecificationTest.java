@@ -0,0 +1,115 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Root;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Range.Bound;
+
+class FilterSpecificationTest {
+
+    @Test
+    void likeTest() {
+        assertEquals("cb.and(cb.like(cb.lower(root.get(name)), %a\\%b\\_c\\\\%, \\))",
+                predicate(new FilterCriterion("name", FilterOperator.CONTAINS, "A%b_C\\")));
+        assertEquals("cb.and(cb.like(root.get(name), Ab%, \\))",
+                predicate(new FilterCriterion("name", FilterOperator.STARTS_WITH, "Ab", false, -1)));
+        assertEquals("cb.and(cb.like(cb.lower(root.get(parent).get(name)), ab%, \\))",
+                predicate(new FilterCriterion("parent.name", FilterOperator.STARTS_WITH, "AB")));
+    }
+
+    @Test
+    void equalAndInTest() {
+        assertEquals("cb.and(cb.equal(cb.lower(root.get(name)), abc))",
+                predicate(new FilterCriterion("name", FilterOperator.EQUAL, "ABC")));
+        assertEquals("cb.and(cb.equal(root.get(name), ABC))",
+                predicate(new FilterCriterion("name", FilterOperator.EQUAL, "ABC", false, -1)));
+        assertEquals("cb.and(cb.equal(root.get(rank), 5))",
+                predicate(new FilterCriterion("rank", FilterOperator.EQUAL, 5)));
+        assertEquals("cb.and(cb.lower(root.get(code)).in([a, b]))",
+                predicate(new FilterCriterion("code", FilterOperator.IN, List.of("A", "b"))));
+        assertEquals("cb.and(root.get(code).in([A, b]))",
+                predicate(new FilterCriterion("code", FilterOperator.IN, List.of("A", "b"), false, -1)));
+        assertEquals("cb.and(root.get(rank).in([1, 2]))",
+                predicate(new FilterCriterion("rank", FilterOperator.IN, List.of(1, 2))));
+    }
+
+    @Test
+    void rangeTest() {
+        assertEquals("cb.and(cb.and(cb.greaterThanOrEqualTo(root.get(rank), 1), cb.lessThanOrEqualTo(root.get(rank), 2)))",
+                predicate(new FilterCriterion("rank", FilterOperator.BETWEEN, Range.closed(1L, 2L))));
+        assertEquals("cb.and(cb.and(cb.greaterThan(root.get(rank), 1), cb.lessThan(root.get(rank), 2)))",
+                predicate(new FilterCriterion("rank", FilterOperator.BETWEEN, Range.open(1L, 2L))));
+        assertEquals("cb.and(cb.and(cb.lessThan(root.get(rank), 2)))",
+                predicate(new FilterCriterion("rank", FilterOperator.BETWEEN, Range.of(Bound.unbounded(), Bound.exclusive(2L)))));
+        assertEquals("cb.and(cb.greaterThan(root.get(rank), 3))",
+                predicate(new FilterCriterion("rank", FilterOperator.GREATER_THAN, 3)));
+        assertEquals("cb.and(cb.lessThanOrEqualTo(root.get(rank), 3))",
+                predicate(new FilterCriterion("rank", FilterOperator.LESS_THAN_OR_EQUAL, 3)));
+    }
+
+    @Test
+    void isNullTest() {
+        assertEquals("cb.and(cb.isNull(root.get(code)), cb.isNotNull(root.get(parent)))",
+                predicate(new FilterCriterion("code", FilterOperator.IS_NULL, Boolean.TRUE),
+                        new FilterCriterion("parent", FilterOperator.IS_NULL, Boolean.FALSE)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String predicate(FilterCriterion... criteria) {
+        final Root<Object> root = fake(Root.class, "root");
+        return FilterSpecification.of(Arrays.asList(criteria)).toPredicate(root, null, fake(CriteriaBuilder.class, "cb")).toString();
+    }
+
+    /**
+     * @return a proxy whose calls return proxies describing the calls
+     */
+    private static <T> T fake(Class<T> type, String label) {
+        return type.cast(Proxy.newProxyInstance(FilterSpecificationTest.class.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "toString":
+                return label;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                return fake(method.getReturnType(), label + "." + method.getName() + "(" + format(args) + ")");
+            }
+        }));
+    }
+
+    private static String format(Object[] args) {
+        if (args == null) {
+            return "";
+        }
+        return Arrays.stream(args)
+                .map(arg -> arg instanceof Object[] array ? format(array) : String.valueOf(arg))
+                .collect(Collectors.joining(", "));
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class IndexSortUtilsTest {
+
+    @Test
+    void sortTest() {
+        final Random random = new Random(42);
+        final long[] keys = new long[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(50) - 25;
+        }
+        final int[] expected = IntStream.range(0, keys.length).boxed()
+                .sorted(Comparator.comparingLong(i -> keys[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        assertArrayEquals(expected, IndexSortUtils.sort(keys));
+        assertArrayEquals(new int[0], IndexSortUtils.sort(new long[0]));
+    }
+
+    @Test
+    void sortableKeyTest() {
+        final double[] values = { Double.NEGATIVE_INFINITY, -2.5, -0.0, 0.0, Double.MIN_VALUE, 3, Double.POSITIVE_INFINITY, Double.NaN };
+        for (int i = 1; i < values.length; i++) {
+            assertTrue(IndexSortUtils.sortableKey(values[i - 1]) < IndexSortUtils.sortableKey(values[i]));
+        }
+    }
+
+    @Test
+    void reorderTest() {
+        final List<String> list = Arrays.asList("a", "b", "c");
+        assertIterableEquals(Arrays.asList("c", "a", "b"), IndexSortUtils.reorder(list, new int[] { 2, 0, 1 }));
+    }
+
+}
@@ -21,6 +21,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.isNull;
@@ -28,11 +29,22 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Method;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Page;
@@ -43,6 +55,7 @@ import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.domain.Sort.NullHandling;
 import org.springframework.data.domain.Sort.Order;
 import org.flcit.commons.core.util.StringUtils;
+import org.flcit.springboot.web.core.domain.CollatedOrder;
 import org.flcit.springboot.web.core.exception.WrongOrderColumnException;
 
 class PageableUtilsTest {
@@ -83,6 +96,26 @@ class PageableUtilsTest {
         assertEquals(pageable.getPageNumber(), pageable.getPageNumber());
     }
 
+    @Test
+    void pageMapperTest() {
+        final AtomicInteger count = new AtomicInteger();
+        final List<PrimitiveObject> list = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            list.add(new PrimitiveObject(i, i % 2, null));
+        }
+        final Page<String> page = PageableUtils.page(PageRequest.of(1, 3, Direction.DESC, "rank"), list, PrimitiveObject.class, null,
+                o -> o.getScore() == 0, o -> {
+                    count.incrementAndGet();
+                    return "rank" + o.getRank();
+                });
+        assertIterableEquals(Arrays.asList("rank12", "rank10", "rank8"), page.getContent());
+        assertEquals(10, page.getTotalElements());
+        assertEquals(3, count.get());
+        assertEquals(0, list.get(0).getRank());
+        assertEquals(20, PageableUtils.page(list, Pageable.unpaged(), PrimitiveObject::getRank).getTotalElements());
+        assertEquals(2, PageableUtils.page(list, PageRequest.of(0, 2), PrimitiveObject::getRank).getContent().size());
+    }
+
     @Test
     void containsIgnoreCaseTest() {
         assertTrue(PageableUtils.containsIgnoreCase(StringUtils.EMPTY, StringUtils.EMPTY));
@@ -114,6 +147,20 @@ class PageableUtilsTest {
         assertFalse(PageableUtils.containsDate(dateBefore, dateBefore4));
     }
 
+    @Test
+    void containsDateTimeTest() {
+        final ZoneId zone = ZoneId.of("Europe/Paris");
+        final ZonedDateTime date = ZonedDateTime.of(2024, 3, 10, 0, 30, 0, 0, zone);
+        assertFalse(PageableUtils.containsDate(date.toInstant(), date.plusMinutes(40).toInstant(), ZoneOffset.UTC));
+        assertTrue(PageableUtils.containsDate(date.toInstant(), date.plusMinutes(40).toInstant(), zone));
+        assertTrue(PageableUtils.containsDate(Date.from(date.toInstant()), Date.from(date.plusHours(23).toInstant()), zone));
+        assertTrue(PageableUtils.containsDate(date.toLocalDateTime(), date.toLocalDateTime().plusHours(23)));
+        assertFalse(PageableUtils.containsDate(date.toOffsetDateTime(), date.toOffsetDateTime().minusHours(1)));
+        assertTrue(PageableUtils.containsDate(date, date.withHour(0)));
+        assertTrue(PageableUtils.containsDate((LocalDate) null, LocalDate.MIN));
+        assertFalse(PageableUtils.containsDate(LocalDate.MIN, null));
+    }
+
     private static final Calendar getCalendar(Date date) {
         final Calendar c = Calendar.getInstance();
         c.setTime(date);
@@ -291,6 +338,145 @@ class PageableUtilsTest {
         })));
     }
 
+    static class PrimitiveObject {
+        private final int rank;
+        private final double score;
+        private final Instant instant;
+        PrimitiveObject(final int rank, final double score, final Instant instant) {
+            this.rank = rank;
+            this.score = score;
+            this.instant = instant;
+        }
+        public int getRank() {
+            return rank;
+        }
+        public double getScore() {
+            return score;
+        }
+        public Instant getInstant() {
+            return instant;
+        }
+    }
+
+    @Test
+    void sortPrimitiveTest() {
+        final PrimitiveObject obj1 = new PrimitiveObject(1, -1.5, Instant.ofEpochSecond(10, 1));
+        final PrimitiveObject obj2 = new PrimitiveObject(2, 0, Instant.ofEpochSecond(10, 2));
+        final PrimitiveObject obj3 = new PrimitiveObject(2, 3, null);
+        final PrimitiveObject objMax = new PrimitiveObject(3, 4, Instant.MAX);
+        final List<PrimitiveObject> list = Arrays.asList(obj3, obj2, obj1);
+
+        assertIterableEquals(Arrays.asList(obj1, obj3, obj2), PageableUtils.sort(PageRequest.of(0, 1, Direction.ASC, "rank"), list, PrimitiveObject.class, null));
+        assertIterableEquals(Arrays.asList(obj3, obj2, obj1), PageableUtils.sort(PageRequest.of(0, 1, Direction.DESC, "rank"), list, PrimitiveObject.class, null));
+        assertIterableEquals(Arrays.asList(obj1, obj2, obj3), PageableUtils.sort(PageRequest.of(0, 1, Direction.ASC, "score"), list, PrimitiveObject.class, null));
+        assertIterableEquals(Arrays.asList(obj3, obj2, obj1), PageableUtils.sort(PageRequest.of(0, 1, Direction.DESC, "instant"), list, PrimitiveObject.class, null));
+        assertIterableEquals(Arrays.asList(obj1, obj2, obj3), PageableUtils.sort(PageRequest.of(0, 1, Direction.ASC, "instant"), list, PrimitiveObject.class, null));
+        assertIterableEquals(Arrays.asList(obj3, obj1, obj2), PageableUtils.sort(PageRequest.of(0, 1, Sort.by(Order.asc("instant").with(NullHandling.NULLS_FIRST))), list, PrimitiveObject.class, null));
+
+        final List<PrimitiveObject> listMax = Arrays.asList(objMax, obj3, obj1);
+        assertIterableEquals(Arrays.asList(obj1, objMax, obj3), PageableUtils.sort(PageRequest.of(0, 1, Direction.ASC, "instant"), listMax, PrimitiveObject.class, null));
+    }
+
+    @Test
+    void comparingTest() {
+        final PrimitiveObject obj1 = new PrimitiveObject(1, 1, null);
+        final PrimitiveObject obj2 = new PrimitiveObject(2, 2, null);
+        final List<PrimitiveObject> list = Arrays.asList(obj2, null, obj1);
+        list.sort(PageableUtils.comparingInt(PrimitiveObject::getRank, Direction.ASC));
+        assertIterableEquals(Arrays.asList(obj1, obj2, null), list);
+        list.sort(PageableUtils.comparingLong(PrimitiveObject::getRank, Direction.DESC));
+        assertIterableEquals(Arrays.asList(null, obj2, obj1), list);
+        list.sort(PageableUtils.comparingDouble(PrimitiveObject::getScore, Direction.ASC, NullHandling.NULLS_FIRST));
+        assertIterableEquals(Arrays.asList(null, obj1, obj2), list);
+    }
+
+    @Test
+    void expiredClockTest() {
+        final Date current = new Date();
+        final Date dateBefore = getDateBefore(current);
+        final Date dateAfter = getDateAfter(current);
+        final Clock clock = Clock.fixed(current.toInstant(), ZoneOffset.UTC);
+        final Predicate<Date[]> filter = PageableUtils.filteringExpired(true, d -> d[0], d -> d[1], clock);
+        assertTrue(filter.test(new Date[] { dateBefore, dateAfter }));
+        assertFalse(filter.test(new Date[] { dateAfter, dateAfter }));
+        assertFalse(PageableUtils.<Date[]> filteringExpired(null, d -> d[0], d -> d[1], clock).test(null));
+        assertTrue(PageableUtils.filterExpired(false, dateBefore, dateBefore, current.getTime()));
+
+        final Date[] active = { dateBefore, dateAfter };
+        final Date[] expired = { dateBefore, dateBefore };
+        final List<Date[]> list = Arrays.asList(active, expired);
+        list.sort(PageableUtils.comparingExpired(d -> d[0], d -> d[1], null, null, clock));
+        assertIterableEquals(Arrays.asList(expired, active), list);
+    }
+
+    @Test
+    void filterDateTimeTest() {
+        final LocalDateTime current = LocalDateTime.of(2024, 3, 10, 12, 0);
+        final DateTimeObject value = new DateTimeObject(current);
+        assertFalse(PageableUtils.filter(new DateTimeObject(current.withHour(1)), value));
+        assertTrue(PageableUtils.filter(new DateTimeObject(current.plusDays(1)), value));
+        assertFalse(PageableUtils.filter(new DateTimeObject(null), value));
+
+        final Predicate<DateTimeObject> matcher = PageableUtils.matcher(new DateTimeObject(current.withHour(1)), ZoneOffset.UTC);
+        assertTrue(matcher.test(value));
+        assertTrue(matcher.test(new DateTimeObject(current.withHour(23))));
+        assertFalse(matcher.test(new DateTimeObject(current.plusDays(1))));
+        assertFalse(matcher.test(new DateTimeObject(null)));
+        assertFalse(matcher.test(null));
+        assertTrue(PageableUtils.<DateTimeObject>matcher(null, ZoneOffset.UTC).test(value));
+    }
+
+    static class DateTimeObject {
+        private final LocalDateTime dateTime;
+        DateTimeObject(final LocalDateTime dateTime) {
+            this.dateTime = dateTime;
+        }
+        public LocalDateTime getDateTime() {
+            return dateTime;
+        }
+    }
+
+    @Test
+    void sortCollationTest() {
+        final CustomObject e1 = new CustomObject(1L, "\u00e9t\u00e9", null, null);
+        final CustomObject e2 = new CustomObject(2L, "Etre", null, null);
+        final CustomObject f = new CustomObject(3L, "faux", null, null);
+        final CustomObject a = new CustomObject(4L, "abc", null, null);
+        final CustomObject objNull = new CustomObject();
+        final List<CustomObject> list = Arrays.asList(f, e1, objNull, a, e2);
+        assertIterableEquals(Arrays.asList(e2, a, f, e1, objNull), PageableUtils.sort(PageRequest.of(0, 1, Direction.ASC, "name"), list, CustomObject.class, null));
+        assertIterableEquals(Arrays.asList(a, e1, e2, f, objNull), PageableUtils.sort(PageRequest.of(0, 1, Direction.ASC, "name"), list, CustomObject.class, null, Locale.FRENCH));
+        assertIterableEquals(Arrays.asList(objNull, f, e2, e1, a), PageableUtils.sort(PageRequest.of(0, 1, Sort.by(new CollatedOrder(Direction.DESC, "name", Locale.FRENCH))), list, CustomObject.class, null));
+        assertTrue(CollationKeyCache.of(Locale.FRENCH, false).size() >= 4);
+        assertEquals(0, CollationKeyCache.of(Locale.FRENCH, false).getKey("\u00e9").compareTo(CollationKeyCache.of(Locale.FRENCH, false).getKey("\u00e9")));
+        assertNull(CollationKeyCache.of(Locale.FRENCH, true).getKey(null));
+        assertSame(CollationKeyCache.of(Locale.FRANCE, false), CollationKeyCache.of(Locale.forLanguageTag("fr-FR-x-client1"), false));
+        assertEquals(Locale.ROOT, CollationKeyCache.resolve(Locale.forLanguageTag("zz-ZZ")));
+
+        final CollationKeyCache bounded = new CollationKeyCache(Locale.FRENCH, false, 16);
+        for (int i = 0; i < 40; i++) {
+            bounded.getKey("value" + i);
+            assertTrue(bounded.size() <= 16);
+        }
+        assertTrue(bounded.size() > 14);
+        assertTrue(bounded.getKey("a").compareTo(bounded.getKey("b")) < 0);
+    }
+
+    @Test
+    void sortAllOrdersTest() {
+        final List<CustomObject> list = new ArrayList<>();
+        final String[] names = { "\u00e9t\u00e9", "Etre", "faux", "abc", null, "\u00c9t\u00e9" };
+        for (long i = 0; i < 30; i++) {
+            list.add(new CustomObject(i, names[(int) (i % names.length)], null, null));
+        }
+        final Sort sort = Sort.by(new CollatedOrder(Direction.ASC, "name", true, NullHandling.NATIVE, Locale.FRENCH), Order.desc("id"));
+        final List<CustomObject> expected = new ArrayList<>(list);
+        expected.sort(PageableUtils.comparator(sort, CustomObject.class, null, null));
+        assertIterableEquals(expected, PageableUtils.sort(list, sort, CustomObject.class, null, null));
+        assertEquals("abc", list.get(0).getName());
+        assertEquals(Long.valueOf(27L), list.get(0).getId());
+    }
+
     @Test
     void compareExpiredTest() {
         final Date current = new Date();
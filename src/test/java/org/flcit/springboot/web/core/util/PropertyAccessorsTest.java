@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class PropertyAccessorsTest {
+
+    @Test
+    void ofTest() {
+        final Bean bean = new Bean("name", 5, 6L, 1.5);
+        assertEquals("name", PropertyAccessors.of(Bean.class, "name").get(bean));
+        assertEquals(5, PropertyAccessors.of(Bean.class, "count").get(bean));
+        assertEquals(5, PropertyAccessors.of(Bean.class, "count").getInt(bean));
+        assertEquals(6L, PropertyAccessors.of(Bean.class, "size").getLong(bean));
+        assertEquals(1.5, PropertyAccessors.of(Bean.class, "rate").getDouble(bean));
+        assertEquals(6L, PropertyAccessors.of(ChildBean.class, "size").getLong(new ChildBean()));
+        assertSame(PropertyAccessors.of(Bean.class, "name"), PropertyAccessors.of(Bean.class, "name"));
+        assertNull(PropertyAccessors.of(Bean.class, "unknown"));
+    }
+
+    @Test
+    void declaredTest() {
+        assertEquals("child", PropertyAccessors.declared(ChildBean.class, "getName").get(new ChildBean()));
+        assertEquals(5, PropertyAccessors.declared(ChildBean.class, "getCount").get(new ChildBean()));
+        assertFalse(PropertyAccessors.declared(Bean.class, "run").isReadable());
+        assertFalse(PropertyAccessors.declared(Bean.class, "secret").isReadable());
+        assertNull(PropertyAccessors.declared(Bean.class, "getUnknown"));
+        assertThrows(IllegalStateException.class, () -> PropertyAccessors.declared(Bean.class, "getError").get(new ChildBean()));
+    }
+
+    static class Bean {
+
+        private final String name;
+        private final int count;
+        private final long size;
+        private final double rate;
+
+        Bean(String name, int count, long size, double rate) {
+            this.name = name;
+            this.count = count;
+            this.size = size;
+            this.rate = rate;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public double getRate() {
+            return rate;
+        }
+
+        public String getError() {
+            throw new IllegalStateException();
+        }
+
+        public void run() {
+            // NOTHING TO DO
+        }
+
+        @SuppressWarnings("unused")
+        private String secret() {
+            return "secret";
+        }
+
+    }
+
+    static class ChildBean extends Bean {
+
+        ChildBean() {
+            super("parent", 5, 6L, 1.5);
+        }
+
+        @Override
+        public String getName() {
+            return "child";
+        }
+
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.flcit.springboot.web.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class RequestCoalescerTest {
+
+    @Test
+    void concurrentTest() throws Exception {
+        final RequestCoalescer<String, Object> coalescer = new RequestCoalescer<>(Duration.ofMinutes(1));
+        final AtomicInteger computations = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Object>> results = new ArrayList<>();
+            results.add(executor.submit(() -> coalescer.get("key", () -> {
+                computations.incrementAndGet();
+                started.countDown();
+                await(release);
+                return new Object();
+            })));
+            started.await(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(() -> coalescer.get("key", () -> {
+                    computations.incrementAndGet();
+                    return new Object();
+                })));
+            }
+            while (executor.getActiveCount() < 8) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            final Object result = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Object> future : results) {
+                assertSame(result, future.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, computations.get());
+            assertEquals(1, coalescer.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void ttlTest() {
+        final RequestCoalescer<String, Integer> coalescer = new RequestCoalescer<>(Duration.ofMinutes(1));
+        final AtomicInteger computations = new AtomicInteger();
+        assertEquals(Integer.valueOf(1), coalescer.get("key", computations::incrementAndGet));
+        assertEquals(Integer.valueOf(1), coalescer.get("key", computations::incrementAndGet));
+        assertEquals(Integer.valueOf(2), coalescer.get("other", computations::incrementAndGet));
+        assertEquals(2, coalescer.size());
+        coalescer.invalidate("key");
+        assertEquals(Integer.valueOf(3), coalescer.get("key", computations::incrementAndGet));
+        coalescer.clear();
+        assertEquals(0, coalescer.size());
+
+        assertThrows(IllegalStateException.class, () -> coalescer.get("error", () -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals(0, coalescer.size());
+        assertEquals(Integer.valueOf(4), coalescer.get("error", computations::incrementAndGet));
+        assertThrows(IllegalArgumentException.class, () -> new RequestCoalescer<>(Duration.ofSeconds(-1)));
+
+        final RequestCoalescer<String, Integer> inFlight = new RequestCoalescer<>();
+        assertEquals(Integer.valueOf(5), inFlight.get("key", computations::incrementAndGet));
+        assertEquals(0, inFlight.size());
+        assertEquals(Integer.valueOf(6), inFlight.get("key", computations::incrementAndGet));
+    }
+
+    @Test
+    void expireTest() {
+        final AtomicLong now = new AtomicLong();
+        final RequestCoalescer<String, Integer> coalescer = new RequestCoalescer<>(Duration.ofNanos(10), 100, now::get);
+        final AtomicInteger computations = new AtomicInteger();
+        assertEquals(Integer.valueOf(1), coalescer.get("key1", computations::incrementAndGet));
+        now.set(5);
+        assertEquals(Integer.valueOf(2), coalescer.get("key2", computations::incrementAndGet));
+        assertEquals(Integer.valueOf(1), coalescer.get("key1", computations::incrementAndGet));
+        now.set(10);
+        assertEquals(2, coalescer.size());
+        assertEquals(Integer.valueOf(3), coalescer.get("key1", computations::incrementAndGet));
+        assertEquals(2, coalescer.size());
+        now.set(15);
+        assertEquals(Integer.valueOf(4), coalescer.get("key3", computations::incrementAndGet));
+        assertEquals(2, coalescer.size());
+        assertEquals(Integer.valueOf(3), coalescer.get("key1", computations::incrementAndGet));
+    }
+
+    @Test
+    void maxSizeTest() {
+        final RequestCoalescer<Integer, Integer> coalescer = new RequestCoalescer<>(Duration.ofMinutes(1), 3);
+        final AtomicInteger computations = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            final int key = i;
+            assertEquals(Integer.valueOf(i), coalescer.get(key, () -> {
+                computations.incrementAndGet();
+                return key;
+            }));
+            assertEquals(Math.min(i + 1, 3), coalescer.size());
+        }
+        assertEquals(Integer.valueOf(9), coalescer.get(9, computations::incrementAndGet));
+        assertEquals(Integer.valueOf(7), coalescer.get(7, computations::incrementAndGet));
+        assertEquals(10, computations.get());
+        assertEquals(Integer.valueOf(11), coalescer.get(0, computations::incrementAndGet));
+        assertEquals(3, coalescer.size());
+        assertThrows(IllegalArgumentException.class, () -> new RequestCoalescer<>(Duration.ofMinutes(1), 0));
+    }
+
+    @Test
+    void invalidatedNotCountedTest() {
+        final RequestCoalescer<Integer, Integer> coalescer = new RequestCoalescer<>(Duration.ofMinutes(1), 3);
+        final AtomicInteger computations = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            coalescer.get(i, computations::incrementAndGet);
+        }
+        for (int i = 0; i < 5; i++) {
+            coalescer.invalidate(2);
+            coalescer.get(2, computations::incrementAndGet);
+        }
+        assertEquals(3, coalescer.size());
+        assertEquals(Integer.valueOf(1), coalescer.get(0, computations::incrementAndGet));
+        assertEquals(Integer.valueOf(2), coalescer.get(1, computations::incrementAndGet));
+        assertEquals(8, computations.get());
+        coalescer.clear();
+        for (int i = 10; i < 13; i++) {
+            coalescer.get(i, computations::incrementAndGet);
+        }
+        assertEquals(3, coalescer.size());
+        assertEquals(Integer.valueOf(9), coalescer.get(10, computations::incrementAndGet));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -21,6 +21,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.PageImpl;
@@ -54,6 +55,10 @@ class ResponseEntityUtilsTest {
         assertEquals(HttpStatus.OK, responseTable.getStatusCode());
         assertEquals(total, responseTable.getBody().getTotal());
         assertEquals(list, responseTable.getBody().getRows());
+        assertNull(responseTable.getBody().getFacets());
+        final Map<String, Map<Object, Long>> facets = Map.of("status", Map.of("open", 120L));
+        responseTable = ResponseEntityUtils.bootstrapTableWithFacets(new PageImpl<>(list, pageable, total), facets);
+        assertEquals(facets, responseTable.getBody().getFacets());
         responseTable = ResponseEntityUtils.bootstrapTable(null);
         assertEquals(HttpStatus.NOT_FOUND, responseTable.getStatusCode());
         assertNull(responseTable.getBody());